@@ -0,0 +1,171 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.mapping.PdbField;
+import io.github.sornerol.pdb4j.mapping.PdbFieldType;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractMappedPdbRecord;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+import io.github.sornerol.pdb4j.reader.record.impl.MappedRecordReader;
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a record mapped with {@link PdbField} annotations against the same layout read and written by hand. The
+ * layout is a ToDo-style record: a packed date, a priority byte with a completion flag, and two null-terminated
+ * strings.
+ *
+ * <pre>
+ * JDK 17.0.9, 1 vCPU Xeon, default settings (2 forks x 5 iterations), ns/op:
+ *
+ *            handles in codec instance fields      handles in static final adapter fields
+ *            hand-written      mapped              hand-written      mapped
+ *   read     137.6 +- 13.2     160.8 +- 42.1       151.8 +- 12.1     137.7 +- 28.8
+ *   write     69.3 +-  9.3     102.5 +-  7.8        57.3 +- 22.4      70.0 +- 21.3
+ * </pre>
+ *
+ * With the handles in instance fields, mapped records took 1.17x as long to read and 1.48x as long to write as
+ * hand-written ones. With them in static final fields, both are within error of hand-written; an earlier run gave
+ * 135.7 vs 128.5 ns/op reading and 83.5 vs 77.7 writing. Runs on a single vCPU are noisy, so compare each mapped
+ * column with the hand-written one beside it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappedRecordBenchmark {
+    private static final int DESCRIPTION_LENGTH = 24;
+    private static final int NOTE_LENGTH = 120;
+
+    private ByteBuffer recordData;
+    private RecordReader<MappedToDo> mappedReader;
+    private RecordReader<HandWrittenToDo> handWrittenReader;
+    private MappedToDo mappedRecord;
+    private HandWrittenToDo handWrittenRecord;
+
+    @Setup
+    public void setUp() {
+        byte[] description = SyntheticPdb.palmText(DESCRIPTION_LENGTH, SyntheticPdb.DEFAULT_SEED);
+        byte[] note = SyntheticPdb.palmText(NOTE_LENGTH, SyntheticPdb.DEFAULT_SEED + 1);
+        ByteBuffer data = ByteBuffer.allocate(3 + description.length + 1 + note.length + 1);
+        data.putShort((short) PalmDateUtil.packedDateFromLocalDate(LocalDate.of(2004, 6, 15)));
+        data.put((byte) 0x83);
+        data.put(description).put((byte) 0);
+        data.put(note).put((byte) 0);
+        recordData = ByteBuffer.wrap(data.array()).asReadOnlyBuffer();
+
+        mappedReader = new MappedRecordReader<>(MappedToDo.class);
+        handWrittenReader = new HandWrittenToDoReader();
+        mappedRecord = mappedReader.read((byte) 0, recordData.duplicate());
+        handWrittenRecord = handWrittenReader.read((byte) 0, recordData.duplicate());
+    }
+
+    @Benchmark
+    public MappedToDo readMapped() {
+        return mappedReader.read((byte) 0, recordData);
+    }
+
+    @Benchmark
+    public HandWrittenToDo readHandWritten() {
+        return handWrittenReader.read((byte) 0, recordData);
+    }
+
+    @Benchmark
+    public byte[] writeMapped() {
+        return mappedRecord.toBytes();
+    }
+
+    @Benchmark
+    public byte[] writeHandWritten() {
+        return handWrittenRecord.toBytes();
+    }
+
+    public static class MappedToDo extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.PALM_DATE)
+        private LocalDate dueDate;
+
+        @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, shift = 7)
+        private boolean complete;
+
+        @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, bits = 7)
+        private int priority;
+
+        @PdbField(type = PdbFieldType.STRING, order = 0)
+        private String description;
+
+        @PdbField(type = PdbFieldType.STRING, order = 1)
+        private String note;
+    }
+
+    public static class HandWrittenToDo extends AbstractPdbRecord {
+        private LocalDate dueDate;
+        private boolean complete;
+        private int priority;
+        private String description;
+        private String note;
+
+        HandWrittenToDo(byte attributes) {
+            super(attributes);
+        }
+
+        @Override
+        public byte[] toBytes() {
+            byte[] descriptionBytes = PalmStringUtil.encode(description);
+            byte[] noteBytes = PalmStringUtil.encode(note);
+            ByteBuffer data = ByteBuffer.allocate(3 + descriptionBytes.length + 1 + noteBytes.length + 1);
+            data.putShort((short) PalmDateUtil.packedDateFromLocalDate(dueDate));
+            data.put((byte) ((complete ? 0x80 : 0) | (priority & 0x7F)));
+            data.put(descriptionBytes).put((byte) 0);
+            data.put(noteBytes).put((byte) 0);
+            return data.array();
+        }
+    }
+
+    static class HandWrittenToDoReader implements RecordReader<HandWrittenToDo> {
+        @Override
+        public HandWrittenToDo read(byte[] data) {
+            return read((byte) 0, ByteBuffer.wrap(data));
+        }
+
+        @Override
+        public HandWrittenToDo read(byte attributes, byte[] data) {
+            return read(attributes, ByteBuffer.wrap(data));
+        }
+
+        @Override
+        public HandWrittenToDo read(byte attributes, ByteBuffer data) {
+            HandWrittenToDo record = new HandWrittenToDo(attributes);
+            record.dueDate = PalmDateUtil.localDateFromPackedDate(data.getShort(0));
+            int flags = data.get(2);
+            record.complete = (flags & 0x80) != 0;
+            record.priority = flags & 0x7F;
+            int descriptionEnd = findNull(data, 3);
+            record.description = PalmStringUtil.decode(data, 3, descriptionEnd - 3);
+            int noteEnd = findNull(data, descriptionEnd + 1);
+            record.note = PalmStringUtil.decode(data, descriptionEnd + 1, noteEnd - descriptionEnd - 1);
+            return record;
+        }
+
+        private static int findNull(ByteBuffer data, int position) {
+            while (position < data.limit() && data.get(position) != 0) {
+                position++;
+            }
+            return position;
+        }
+    }
+}
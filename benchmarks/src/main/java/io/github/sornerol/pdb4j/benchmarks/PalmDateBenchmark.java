@@ -0,0 +1,102 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PalmDateUtil} conversions. Each invocation converts {@value #TIMESTAMPS} timestamps, half of them
+ * relative to the Palm OS epoch and half relative to the Unix epoch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PalmDateBenchmark {
+    private static final int TIMESTAMPS = 1024;
+
+    private final int[] pdbTimes = new int[TIMESTAMPS];
+    private final long[] epochMillis = new long[TIMESTAMPS];
+    private final Calendar[] calendars = new Calendar[TIMESTAMPS];
+    private final Instant[] instants = new Instant[TIMESTAMPS];
+    private ZoneId zone;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SyntheticPdb.DEFAULT_SEED);
+        zone = ZoneId.systemDefault();
+        for (int i = 0; i < TIMESTAMPS; i++) {
+            int seconds = random.nextInt(Integer.MAX_VALUE);
+            pdbTimes[i] = ((i & 1) == 0) ? seconds | 0x80000000 : seconds;
+            epochMillis[i] = PalmDateUtil.epochMillisFromPdbTime(pdbTimes[i]);
+            calendars[i] = PalmDateUtil.calendarFromPdbTime(pdbTimes[i]);
+            instants[i] = PalmDateUtil.instantFromPdbTime(pdbTimes[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void calendarFromPdbTime(Blackhole blackhole) {
+        for (int pdbTime : pdbTimes) {
+            blackhole.consume(PalmDateUtil.calendarFromPdbTime(pdbTime));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void instantFromPdbTime(Blackhole blackhole) {
+        for (int pdbTime : pdbTimes) {
+            blackhole.consume(PalmDateUtil.instantFromPdbTime(pdbTime));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void epochMillisFromPdbTime(Blackhole blackhole) {
+        for (int pdbTime : pdbTimes) {
+            blackhole.consume(PalmDateUtil.epochMillisFromPdbTime(pdbTime, zone));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void pdbTimestampFromCalendar(Blackhole blackhole) {
+        for (Calendar calendar : calendars) {
+            blackhole.consume(PalmDateUtil.pdbTimestampFromCalendar(calendar, false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void pdbTimestampFromInstant(Blackhole blackhole) {
+        for (Instant instant : instants) {
+            blackhole.consume(PalmDateUtil.pdbTimestampFromInstant(instant, false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMESTAMPS)
+    public void pdbTimestampFromEpochMillis(Blackhole blackhole) {
+        for (long millis : epochMillis) {
+            blackhole.consume(PalmDateUtil.pdbTimestampFromEpochMillis(millis, false, zone));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.util.PalmCharset;
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PalmStringUtil} and {@link PalmCharset} in both directions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PalmStringBenchmark {
+    /**
+     * Text length in characters. 32 is the length of a database name.
+     */
+    @Param({"32", "1024", "65536"})
+    public int length;
+
+    private byte[] palmBytes;
+    private String latin1Text;
+    private String unicodeText;
+
+    @Setup
+    public void setUp() {
+        palmBytes = SyntheticPdb.palmText(length, SyntheticPdb.DEFAULT_SEED);
+        latin1Text = new String(palmBytes, StandardCharsets.ISO_8859_1);
+        unicodeText = PalmStringUtil.decode(palmBytes, 0, palmBytes.length);
+    }
+
+    @Benchmark
+    public String palmToUnicode() {
+        return PalmStringUtil.palmToUnicode(latin1Text);
+    }
+
+    @Benchmark
+    public String unicodeToPalm() {
+        return PalmStringUtil.unicodeToPalm(unicodeText);
+    }
+
+    @Benchmark
+    public String decode() {
+        return PalmStringUtil.decode(palmBytes, 0, palmBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return PalmStringUtil.encode(unicodeText);
+    }
+
+    @Benchmark
+    public String charsetDecode() {
+        return new String(palmBytes, PalmCharset.INSTANCE);
+    }
+
+    @Benchmark
+    public byte[] charsetEncode() {
+        return unicodeText.getBytes(PalmCharset.INSTANCE);
+    }
+}
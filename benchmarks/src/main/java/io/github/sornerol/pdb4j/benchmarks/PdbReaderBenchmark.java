@@ -0,0 +1,102 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.PdbReader;
+import io.github.sornerol.pdb4j.reader.appinfo.impl.GenericAppInfoReader;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import io.github.sornerol.pdb4j.reader.sortinfo.impl.GenericSortInfoReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PdbReader#read()} over in-memory and memory-mapped files of various shapes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PdbReaderBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int recordCount;
+
+    @Param({"16", "256", "4096"})
+    public int recordSize;
+
+    /**
+     * Size of the AppInfo and SortInfo areas; 0 leaves them out.
+     */
+    @Param({"0", "512"})
+    public int infoSize;
+
+    private byte[] fileData;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fileData = SyntheticPdb.bytes(recordCount, recordSize, infoSize, SyntheticPdb.DEFAULT_SEED);
+        file = Files.createTempFile("pdb4j-benchmark", ".pdb");
+        Files.write(file, fileData);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> readFromByteArray() {
+        return configure(new PdbReader<>(fileData)).read();
+    }
+
+    @Benchmark
+    public PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> readFromMappedFile() throws IOException {
+        return configure(new PdbReader<>(file)).read();
+    }
+
+    /**
+     * Lazy read that decodes every record, for comparison with {@link #readFromByteArray()}.
+     */
+    @Benchmark
+    public void readLazilyAndDecodeAll(Blackhole blackhole) {
+        PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = configure(new PdbReader<>(fileData));
+        reader.setLazyRecords(true);
+        for (GenericPdbRecord record : reader.read().getRecords()) {
+            blackhole.consume(record);
+        }
+    }
+
+    @Benchmark
+    public void streamRecords(Blackhole blackhole) {
+        configure(new PdbReader<>(fileData)).forEachRecord(blackhole::consume);
+    }
+
+    private static PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> configure(
+            PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader) {
+        reader.setRecordReader(new GenericRecordReader());
+        reader.setAppInfoReader(new GenericAppInfoReader());
+        reader.setSortInfoReader(new GenericSortInfoReader());
+        return reader;
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PdbDatabase#toByteArray()}, {@link PdbDatabase#writeToFile(String)} and streaming writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PdbWriterBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int recordCount;
+
+    @Param({"16", "256", "4096"})
+    public int recordSize;
+
+    /**
+     * Size of the AppInfo and SortInfo areas; 0 leaves them out.
+     */
+    @Param({"0", "512"})
+    public int infoSize;
+
+    private PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database;
+    private Path file;
+    private String fileName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = SyntheticPdb.database(recordCount, recordSize, infoSize, SyntheticPdb.DEFAULT_SEED);
+        file = Files.createTempFile("pdb4j-benchmark", ".pdb");
+        fileName = file.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public byte[] toByteArray() throws IOException {
+        return database.toByteArray();
+    }
+
+    @Benchmark
+    public void writeToFile() throws IOException {
+        database.writeToFile(fileName);
+    }
+
+    /**
+     * Serialization cost alone, without a destination buffer or disk I/O.
+     */
+    @Benchmark
+    public void writeToDiscardingStream() throws IOException {
+        new PdbWriter(database).write(DiscardingOutputStream.INSTANCE);
+    }
+
+    static final class DiscardingOutputStream extends OutputStream {
+        static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PdbWriter} on records whose {@link PdbRecord#toBytes()} is expensive, with and without a
+ * {@link PdbRecord#serializedSize()} override, and checks that each record is encoded once per write either way.
+ *
+ * Records without the override inherit the default serializedSize(), which encodes the record to measure it; the
+ * writer keeps those bytes instead of encoding again. Every invocation fails if a write encoded more records than the
+ * database holds, and the {@code encodes} and {@code writes} counters are reported alongside the timings, so
+ * encodes / writes is the encodes per write (recordCount when each record is encoded once).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RecordEncodingBenchmark {
+    private static final Instant TIMESTAMP = Instant.parse("2004-01-01T00:00:00Z");
+
+    @Param({"100", "10000"})
+    public int recordCount;
+
+    @Param({"256", "4096"})
+    public int recordSize;
+
+    @Param({"false", "true"})
+    public boolean overridesSerializedSize;
+
+    private final EncodeCount encodeCount = new EncodeCount();
+    private PdbDatabase<ScrambledRecord, GenericAppInfo, GenericSortInfo> database;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new PdbDatabase<>();
+        database.setName("Encoding benchmark");
+        database.setDatabaseType("DATA");
+        database.setCreatorId("BNCH");
+        database.setCreationInstant(TIMESTAMP);
+        database.setModificationInstant(TIMESTAMP);
+        database.setBackupInstant(TIMESTAMP);
+        Random random = new Random(SyntheticPdb.DEFAULT_SEED);
+        for (int i = 0; i < recordCount; i++) {
+            byte[] source = new byte[recordSize];
+            random.nextBytes(source);
+            database.getRecords().add(overridesSerializedSize
+                    ? new SizedScrambledRecord(source, encodeCount)
+                    : new ScrambledRecord(source, encodeCount));
+        }
+    }
+
+    @Benchmark
+    public void writeToDiscardingStream(Counters counters) throws IOException {
+        long encodesBefore = encodeCount.count;
+        new PdbWriter(database).write(PdbWriterBenchmark.DiscardingOutputStream.INSTANCE);
+        long encodes = encodeCount.count - encodesBefore;
+        if (encodes != recordCount) {
+            throw new IllegalStateException("Write encoded " + encodes + " record(s), but the database has "
+                    + recordCount + ".");
+        }
+        counters.encodes += encodes;
+        counters.writes++;
+    }
+
+    /**
+     * Encodes and writes per iteration, reported by JMH next to the timings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long encodes;
+        public long writes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodes = 0;
+            writes = 0;
+        }
+    }
+
+    private static final class EncodeCount {
+        private long count;
+    }
+
+    /**
+     * A record that derives its data from a source array with a running hash on every {@link #toBytes()} call, so
+     * encoding costs time proportional to the record size. It inherits the default {@link #serializedSize()}.
+     */
+    private static class ScrambledRecord extends AbstractPdbRecord {
+        private final byte[] source;
+        private final EncodeCount encodeCount;
+
+        ScrambledRecord(byte[] source, EncodeCount encodeCount) {
+            this.source = source;
+            this.encodeCount = encodeCount;
+        }
+
+        @Override
+        public byte[] toBytes() {
+            encodeCount.count++;
+            byte[] data = new byte[source.length];
+            int hash = 0x9E3779B9;
+            for (int i = 0; i < source.length; i++) {
+                hash = (hash ^ source[i]) * 0x01000193;
+                data[i] = (byte) (hash >>> 24);
+            }
+            return data;
+        }
+
+        int sourceLength() {
+            return source.length;
+        }
+    }
+
+    /**
+     * The same record, with a {@link #serializedSize()} that doesn't encode it.
+     */
+    private static final class SizedScrambledRecord extends ScrambledRecord {
+        SizedScrambledRecord(byte[] source, EncodeCount encodeCount) {
+            super(source, encodeCount);
+        }
+
+        @Override
+        public int serializedSize() {
+            return sourceLength();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.sornerol.pdb4j.benchmarks;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic PDB databases for the benchmarks.
+ *
+ * Output depends only on the arguments, so every run on every machine benchmarks the same bytes.
+ */
+public final class SyntheticPdb {
+    /**
+     * Seed used by the benchmarks unless they need several different databases.
+     */
+    public static final long DEFAULT_SEED = 0x5044_4234_4AL;
+
+    private static final Instant CREATION_TIME = Instant.parse("2003-06-01T12:00:00Z");
+    private static final Instant MODIFICATION_TIME = Instant.parse("2004-02-29T08:30:00Z");
+    private static final Instant BACKUP_TIME = Instant.parse("2004-03-01T00:00:00Z");
+
+    private SyntheticPdb() {
+    }
+
+    /**
+     * Generate a database of {@link GenericPdbRecord}s.
+     *
+     * @param recordCount The number of records
+     * @param recordSize The size of each record in bytes
+     * @param infoSize The size of the AppInfo and SortInfo areas in bytes, or 0 to leave them out
+     * @param seed Seed for the record data and attributes
+     * @return the database
+     */
+    public static PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database(
+            int recordCount, int recordSize, int infoSize, long seed) {
+        Random random = new Random(seed);
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = new PdbDatabase<>();
+        database.setName("Synthetic " + recordCount + "x" + recordSize);
+        database.setVersion((short) 1);
+        database.setCreationInstant(CREATION_TIME);
+        database.setModificationInstant(MODIFICATION_TIME);
+        database.setBackupInstant(BACKUP_TIME);
+        database.setModificationNumber(recordCount);
+        database.setDatabaseType("DATA");
+        database.setCreatorId("pdbj");
+        database.setUniqueIdSeed(recordCount + 1);
+        if (infoSize > 0) {
+            database.setAppInfo(new GenericAppInfo(randomBytes(random, infoSize)));
+            database.setSortInfo(new GenericSortInfo(randomBytes(random, infoSize)));
+        }
+
+        List<GenericPdbRecord> records = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            // Category in the low nibble, and roughly one record in eight with each flag set.
+            int attributes = i & 0x0F;
+            for (int flag = 0x10; flag <= 0x80; flag <<= 1) {
+                if (random.nextInt(8) == 0) {
+                    attributes |= flag;
+                }
+            }
+            GenericPdbRecord record = new GenericPdbRecord((byte) attributes, randomBytes(random, recordSize));
+            record.setUniqueId(i + 1);
+            records.add(record);
+        }
+        database.setRecords(records);
+        return database;
+    }
+
+    /**
+     * Generate a database and serialize it. See {@link #database(int, int, int, long)}.
+     *
+     * @param recordCount The number of records
+     * @param recordSize The size of each record in bytes
+     * @param infoSize The size of the AppInfo and SortInfo areas in bytes, or 0 to leave them out
+     * @param seed Seed for the record data and attributes
+     * @return the PDB file contents
+     * @throws IOException if the database can't be serialized
+     */
+    public static byte[] bytes(int recordCount, int recordSize, int infoSize, long seed) throws IOException {
+        return database(recordCount, recordSize, infoSize, seed).toByteArray();
+    }
+
+    /**
+     * Generate Palm OS text covering the whole character set, including the Palm OS specific characters.
+     *
+     * @param length The length of the text in bytes
+     * @param seed Seed for the text
+     * @return the text as Palm OS bytes
+     */
+    public static byte[] palmText(int length, long seed) {
+        return randomBytes(new Random(seed), length);
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.sornerol.pdb4j.metrics.jfr;
+
+import io.github.sornerol.pdb4j.metrics.PdbMetricsListener;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@link PdbMetricsListener} that emits Java Flight Recorder events, so reads and writes show up in a recording
+ * next to GC, I/O and allocation events. Each read or write becomes an {@code io.github.sornerol.pdb4j.Operation}
+ * event whose operation is {@code read} or {@code write} and whose component is one of {@code header},
+ * {@code record}, {@code appInfo}, {@code sortInfo} or {@code database}. Grouping the record events by their type
+ * field shows which {@link io.github.sornerol.pdb4j.reader.record.RecordReader} implementations are slow.
+ *
+ * The event is begun in {@link #begin()}, before the work starts, and committed in the matching callback, so its
+ * duration is the time the work took and JFR thresholds apply to it. While no recording has the event enabled,
+ * {@link #begin()} returns null and the callbacks do nothing.
+ */
+public class JfrPdbMetricsListener implements PdbMetricsListener {
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    private static final String HEADER = "header";
+    private static final String RECORD = "record";
+    private static final String APP_INFO = "appInfo";
+    private static final String SORT_INFO = "sortInfo";
+    private static final String DATABASE = "database";
+
+    @Override
+    public Object begin() {
+        OperationEvent event = new OperationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void onHeaderRead(int numberOfRecords, long nanos, Object context) {
+        commit(context, READ, HEADER, null, numberOfRecords, -1);
+    }
+
+    @Override
+    public void onRecordRead(Class<?> readerType, int index, int size, long nanos, Object context) {
+        commit(context, READ, RECORD, readerType, index, size);
+    }
+
+    @Override
+    public void onAppInfoRead(Class<?> readerType, int size, long nanos, Object context) {
+        commit(context, READ, APP_INFO, readerType, -1, size);
+    }
+
+    @Override
+    public void onSortInfoRead(Class<?> readerType, int size, long nanos, Object context) {
+        commit(context, READ, SORT_INFO, readerType, -1, size);
+    }
+
+    @Override
+    public void onDatabaseRead(int numberOfRecords, long bytes, long nanos, Object context) {
+        commit(context, READ, DATABASE, null, numberOfRecords, bytes);
+    }
+
+    @Override
+    public void onRecordWritten(Class<?> recordType, int index, int size, long nanos, Object context) {
+        commit(context, WRITE, RECORD, recordType, index, size);
+    }
+
+    @Override
+    public void onAppInfoWritten(Class<?> appInfoType, int size, long nanos, Object context) {
+        commit(context, WRITE, APP_INFO, appInfoType, -1, size);
+    }
+
+    @Override
+    public void onSortInfoWritten(Class<?> sortInfoType, int size, long nanos, Object context) {
+        commit(context, WRITE, SORT_INFO, sortInfoType, -1, size);
+    }
+
+    @Override
+    public void onDatabaseWritten(int numberOfRecords, long bytes, long nanos, Object context) {
+        commit(context, WRITE, DATABASE, null, numberOfRecords, bytes);
+    }
+
+    private static void commit(Object context, String operation, String component, Class<?> type, int index,
+                               long size) {
+        if (!(context instanceof OperationEvent)) {
+            return;
+        }
+        OperationEvent event = (OperationEvent) context;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.component = component;
+            event.type = type;
+            event.index = index;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    @Name("io.github.sornerol.pdb4j.Operation")
+    @Label("PDB Operation")
+    @Description("Reading or writing part of a PDB database")
+    @Category("pdb4j")
+    @StackTrace(false)
+    static class OperationEvent extends Event {
+        @Label("Operation")
+        @Description("read or write")
+        String operation;
+
+        @Label("Component")
+        String component;
+
+        @Label("Type")
+        @Description("The reader class for records, AppInfo and SortInfo that are read, or the class of those that "
+                + "are written")
+        Class<?> type;
+
+        @Label("Index")
+        @Description("The record index, or the number of records for the header and database")
+        int index;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+    }
+}
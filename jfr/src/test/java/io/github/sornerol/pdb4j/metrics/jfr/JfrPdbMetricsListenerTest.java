@@ -0,0 +1,110 @@
+package io.github.sornerol.pdb4j.metrics.jfr;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.PdbReader;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrPdbMetricsListenerTest {
+    private static final String EVENT_NAME = "io.github.sornerol.pdb4j.Operation";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsEventsThatCoverTheWork() throws IOException {
+        JfrPdbMetricsListener listener = new JfrPdbMetricsListener();
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = database();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME).withoutThreshold();
+            recording.start();
+
+            PdbWriter writer = new PdbWriter(database);
+            writer.setMetricsListener(listener);
+            byte[] data = writer.toByteArray();
+            PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = new PdbReader<>(data);
+            reader.setRecordReader(new GenericRecordReader());
+            reader.setMetricsListener(listener);
+            reader.read();
+
+            recording.stop();
+            Path file = tempDir.resolve("pdb4j.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                    .collect(Collectors.toList());
+        }
+
+        assertEquals(3, count(events, "write", "record"));
+        assertEquals(1, count(events, "write", "database"));
+        assertEquals(1, count(events, "read", "header"));
+        assertEquals(3, count(events, "read", "record"));
+        assertEquals(1, count(events, "read", "database"));
+
+        RecordedEvent databaseRead = find(events, "read", "database");
+        assertEquals(3, databaseRead.getInt("index"));
+        assertTrue(databaseRead.getDuration().compareTo(Duration.ZERO) > 0);
+        for (RecordedEvent event : events) {
+            if (event.getString("operation").equals("read")) {
+                // Every part of the read happens while the database event is open.
+                assertFalse(event.getStartTime().isBefore(databaseRead.getStartTime()));
+                assertFalse(event.getEndTime().isAfter(databaseRead.getEndTime()));
+            }
+        }
+        RecordedEvent recordRead = find(events, "read", "record");
+        assertEquals(GenericRecordReader.class.getName(), recordRead.getClass("type").getName());
+        assertEquals(4, recordRead.getLong("size"));
+    }
+
+    @Test
+    void beginsNothingWithoutARecording() {
+        assertNull(new JfrPdbMetricsListener().begin());
+    }
+
+    private static PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database() {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = new PdbDatabase<>();
+        database.setName("Jfr");
+        database.setDatabaseType("DATA");
+        database.setCreatorId("TEST");
+        database.setCreationInstant(Instant.EPOCH);
+        database.setModificationInstant(Instant.EPOCH);
+        database.setBackupInstant(Instant.EPOCH);
+        for (int i = 0; i < 3; i++) {
+            database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{1, 2, 3, (byte) i}));
+        }
+        return database;
+    }
+
+    private static long count(List<RecordedEvent> events, String operation, String component) {
+        return events.stream().filter(event -> matches(event, operation, component)).count();
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String operation, String component) {
+        return events.stream().filter(event -> matches(event, operation, component)).findFirst().orElseThrow();
+    }
+
+    private static boolean matches(RecordedEvent event, String operation, String component) {
+        return event.getString("operation").equals(operation) && event.getString("component").equals(component);
+    }
+}
@@ -0,0 +1,336 @@
+package io.github.sornerol.pdb4j.mapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Defines a small class for each record class that holds its codec's reader, writer and sizer handles in
+ * {@code static final} fields and invokes them. The JIT treats a static final field as a constant, so it can inline
+ * the whole handle chain, and with it every field accessor, into the adapter's compiled code. Handles held in an
+ * instance field can't be inlined that way; each invocation goes through the chain's own, separately compiled code.
+ *
+ * The adapter only refers to {@code java.base} types, and implements {@link Function}, {@link BiConsumer} and
+ * {@link ToIntFunction} so the codec can call it without reflection. Each adapter is defined by its own class loader,
+ * which its static initializer asks for the handles; this works the same way on Java 8 and later releases, which
+ * don't share an API for defining a class next to an existing one.
+ */
+final class CodecAdapter {
+    private static final String NAME_PREFIX = "io/github/sornerol/pdb4j/mapping/CodecAdapter$";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLE_DESCRIPTOR = "L" + METHOD_HANDLE + ";";
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int ASTORE_0 = 0x4b;
+    private static final int ASTORE_2 = 0x4d;
+    private static final int ICONST_0 = 0x03;
+    private static final int AALOAD = 0x32;
+    private static final int LDC_W = 0x13;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IRETURN = 0xac;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+
+    /**
+     * The handles, in the order the adapter's fields are initialized from them.
+     */
+    private static final String[] FIELDS = {"READER", "WRITER", "SIZER"};
+
+    private final Function<ByteBuffer, Object> reader;
+    private final BiConsumer<Object, byte[]> writer;
+    private final ToIntFunction<Object> sizer;
+
+    /**
+     * Define an adapter for a record class.
+     *
+     * @param recordType The record class, which only names the adapter
+     * @param reader (data) -> record, reading from the buffer's position to its limit
+     * @param writer (record, data) -> void
+     * @param sizer (record) -> encoded size
+     */
+    @SuppressWarnings("unchecked")
+    CodecAdapter(Class<?> recordType, MethodHandle reader, MethodHandle writer, MethodHandle sizer) {
+        String name = NAME_PREFIX + recordType.getName().replace('.', '_');
+        Object adapter;
+        try {
+            Class<?> adapterClass = new AdapterLoader(CodecAdapter.class.getClassLoader(),
+                    new MethodHandle[]{reader, writer, sizer}).define(name.replace('/', '.'), classFile(name));
+            adapter = adapterClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new IllegalStateException("Can't define the codec adapter for " + recordType.getName() + ".", e);
+        }
+        this.reader = (Function<ByteBuffer, Object>) adapter;
+        this.writer = (BiConsumer<Object, byte[]>) adapter;
+        this.sizer = (ToIntFunction<Object>) adapter;
+    }
+
+    Object read(ByteBuffer data) {
+        return reader.apply(data);
+    }
+
+    void write(Object record, byte[] data) {
+        writer.accept(record, data);
+    }
+
+    int size(Object record) {
+        return sizer.applyAsInt(record);
+    }
+
+    /**
+     * Write the class file of an adapter. Its methods are straight-line code, so the class needs no stack map frames.
+     */
+    private static byte[] classFile(String name) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(name);
+        int superClass = pool.classRef("java/lang/Object");
+        int[] interfaces = {
+                pool.classRef("java/util/function/Function"),
+                pool.classRef("java/util/function/BiConsumer"),
+                pool.classRef("java/util/function/ToIntFunction")
+        };
+        int[] fields = new int[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            fields[i] = pool.memberRef(9, name, FIELDS[i], METHOD_HANDLE_DESCRIPTOR);
+        }
+
+        ByteArrayOutputStream methods = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(methods);
+
+        // public <init>() { super(); }
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL, pool.memberRef(10, "java/lang/Object", "<init>", "()V"));
+        code.op(RETURN);
+        writeMethod(out, pool, ACC_PUBLIC, "<init>", "()V", 1, 1, code);
+
+        // static { MethodHandle[] handles = (MethodHandle[]) ((Supplier) getClassLoader()).get(); READER = ...; }
+        code = new Code();
+        code.op(LDC_W, thisClass);
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, "java/lang/Class", "getClassLoader", "()Ljava/lang/ClassLoader;"));
+        code.op(CHECKCAST, pool.classRef("java/util/function/Supplier"));
+        code.op(INVOKEINTERFACE, pool.memberRef(11, "java/util/function/Supplier", "get", "()Ljava/lang/Object;"));
+        code.bytes(1, 0);
+        code.op(CHECKCAST, pool.classRef("[" + METHOD_HANDLE_DESCRIPTOR));
+        code.op(ASTORE_0);
+        for (int i = 0; i < fields.length; i++) {
+            code.op(ALOAD_0);
+            code.op(ICONST_0 + i);
+            code.op(AALOAD);
+            code.op(PUTSTATIC, fields[i]);
+        }
+        code.op(RETURN);
+        writeMethod(out, pool, ACC_STATIC, "<clinit>", "()V", 2, 1, code);
+
+        // public Object apply(Object data) { return READER.invokeExact(data, data.position(), data.limit()); }
+        code = new Code();
+        code.op(ALOAD_1);
+        code.op(CHECKCAST, pool.classRef("java/nio/ByteBuffer"));
+        code.op(ASTORE_2);
+        code.op(GETSTATIC, fields[0]);
+        code.op(ALOAD_2);
+        code.op(ALOAD_2);
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, "java/nio/Buffer", "position", "()I"));
+        code.op(ALOAD_2);
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, "java/nio/Buffer", "limit", "()I"));
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, METHOD_HANDLE, "invokeExact",
+                "(Ljava/nio/ByteBuffer;II)Ljava/lang/Object;"));
+        code.op(ARETURN);
+        writeMethod(out, pool, ACC_PUBLIC, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 4, 3, code);
+
+        // public void accept(Object record, Object data) { WRITER.invokeExact(record, (byte[]) data); }
+        code = new Code();
+        code.op(GETSTATIC, fields[1]);
+        code.op(ALOAD_1);
+        code.op(ALOAD_2);
+        code.op(CHECKCAST, pool.classRef("[B"));
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, METHOD_HANDLE, "invokeExact", "(Ljava/lang/Object;[B)V"));
+        code.op(RETURN);
+        writeMethod(out, pool, ACC_PUBLIC, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", 3, 3, code);
+
+        // public int applyAsInt(Object record) { return SIZER.invokeExact(record); }
+        code = new Code();
+        code.op(GETSTATIC, fields[2]);
+        code.op(ALOAD_1);
+        code.op(INVOKEVIRTUAL, pool.memberRef(10, METHOD_HANDLE, "invokeExact", "(Ljava/lang/Object;)I"));
+        code.op(IRETURN);
+        writeMethod(out, pool, ACC_PUBLIC, "applyAsInt", "(Ljava/lang/Object;)I", 2, 2, code);
+
+        // Every constant is in the pool now, so the header can be written.
+        ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(classFile);
+        header.writeInt(0xCAFEBABE);
+        header.writeShort(0);
+        header.writeShort(52);
+        pool.writeTo(header);
+        header.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        header.writeShort(thisClass);
+        header.writeShort(superClass);
+        header.writeShort(interfaces.length);
+        for (int index : interfaces) {
+            header.writeShort(index);
+        }
+        header.writeShort(FIELDS.length);
+        for (String field : FIELDS) {
+            header.writeShort(ACC_PRIVATE | ACC_STATIC | ACC_FINAL);
+            header.writeShort(pool.utf8(field));
+            header.writeShort(pool.utf8(METHOD_HANDLE_DESCRIPTOR));
+            header.writeShort(0);
+        }
+        header.writeShort(5);
+        header.flush();
+        methods.writeTo(classFile);
+        classFile.write(new byte[]{0, 0});
+        return classFile.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, ConstantPool pool, int access, String name,
+                                    String descriptor, int maxStack, int maxLocals, Code code) throws IOException {
+        byte[] bytes = code.toByteArray();
+        out.writeShort(access);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(12 + bytes.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        // No exception table and no attributes.
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    /**
+     * The constant pool of the class being written, with each constant added once.
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indexes.get("utf8 " + value);
+            if (index != null) {
+                return index;
+            }
+            out.writeByte(1);
+            out.writeUTF(value);
+            return add("utf8 " + value);
+        }
+
+        int classRef(String name) throws IOException {
+            Integer index = indexes.get("class " + name);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            out.writeByte(7);
+            out.writeShort(nameIndex);
+            return add("class " + name);
+        }
+
+        /**
+         * Add a field (tag 9), method (10) or interface method (11) reference.
+         */
+        int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + " " + owner + "." + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            int nameAndType = count++;
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+            return add(key);
+        }
+
+        void writeTo(DataOutputStream classFile) throws IOException {
+            classFile.writeShort(count);
+            out.flush();
+            classFile.write(bytes.toByteArray());
+        }
+
+        private int add(String key) {
+            indexes.put(key, count);
+            return count++;
+        }
+    }
+
+    /**
+     * The bytecode of one method.
+     */
+    private static final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        void op(int opcode) {
+            bytes.write(opcode);
+        }
+
+        void op(int opcode, int constant) {
+            bytes.write(opcode);
+            bytes.write(constant >>> 8);
+            bytes.write(constant);
+        }
+
+        void bytes(int... values) {
+            for (int value : values) {
+                bytes.write(value);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Defines one adapter, and hands its static initializer the handles.
+     */
+    private static final class AdapterLoader extends ClassLoader implements Supplier<Object> {
+        private final MethodHandle[] handles;
+
+        AdapterLoader(ClassLoader parent, MethodHandle[] handles) {
+            super(parent);
+            this.handles = handles;
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+
+        @Override
+        public Object get() {
+            return handles;
+        }
+    }
+}
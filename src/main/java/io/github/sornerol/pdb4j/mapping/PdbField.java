@@ -0,0 +1,53 @@
+package io.github.sornerol.pdb4j.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a field of a record class to a value in the record's binary data. See {@link RecordCodec}.
+ *
+ * Fields with an {@link #offset()} make up the record's fixed part. {@link #SEQUENTIAL} fields follow the fixed part
+ * one after another, in ascending {@link #order()}, which is how variable-length values such as null-terminated
+ * strings are laid out.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface PdbField {
+    /**
+     * Offset value for fields stored after the fixed part of the record.
+     */
+    int SEQUENTIAL = -1;
+
+    /**
+     * @return the byte offset of the value within the record, or {@link #SEQUENTIAL}
+     */
+    int offset() default SEQUENTIAL;
+
+    /**
+     * @return the binary representation of the value
+     */
+    PdbFieldType type();
+
+    /**
+     * @return the length in bytes of a fixed-length {@link PdbFieldType#STRING} or {@link PdbFieldType#BYTES} value,
+     * or the size of a {@link PdbFieldType#BITS} container
+     */
+    int length() default 0;
+
+    /**
+     * @return for {@link PdbFieldType#BITS}, the position of the field's least significant bit in its container
+     */
+    int shift() default 0;
+
+    /**
+     * @return for {@link PdbFieldType#BITS}, the number of bits in the field
+     */
+    int bits() default 1;
+
+    /**
+     * @return the position of a {@link #SEQUENTIAL} field among the other sequential fields
+     */
+    int order() default 0;
+}
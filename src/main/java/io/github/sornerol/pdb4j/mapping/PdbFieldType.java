@@ -0,0 +1,70 @@
+package io.github.sornerol.pdb4j.mapping;
+
+/**
+ * The binary representation of a {@link PdbField}. All multi-byte values are big-endian.
+ */
+public enum PdbFieldType {
+    /**
+     * Signed byte. Maps to {@code byte}, {@code short}, {@code int} or {@code long}.
+     */
+    INT8(1),
+    /**
+     * Unsigned byte. Maps to {@code short}, {@code int} or {@code long}.
+     */
+    UINT8(1),
+    /**
+     * Signed 16-bit integer. Maps to {@code short}, {@code int} or {@code long}.
+     */
+    INT16(2),
+    /**
+     * Unsigned 16-bit integer. Maps to {@code int} or {@code long}.
+     */
+    UINT16(2),
+    /**
+     * Signed 32-bit integer. Maps to {@code int} or {@code long}.
+     */
+    INT32(4),
+    /**
+     * Unsigned 32-bit integer. Maps to {@code long}.
+     */
+    UINT32(4),
+    /**
+     * A bitfield of {@link PdbField#bits()} bits, {@link PdbField#shift()} bits up from the least significant bit of a
+     * {@link PdbField#length()}-byte (1, 2 or 4) unsigned container. Several fields may share a container. Maps to
+     * {@code boolean}, {@code byte}, {@code short}, {@code int} or {@code long}.
+     */
+    BITS(0),
+    /**
+     * Packed Palm OS date (2 bytes, 0xFFFF for none). Maps to {@link java.time.LocalDate}. Only years from 1904 to 2031
+     * can be written; encoding a record with a date outside them throws {@link IllegalArgumentException}.
+     */
+    PALM_DATE(2),
+    /**
+     * Palm OS timestamp (4 bytes, seconds since the Palm OS epoch). Maps to {@link java.time.Instant}.
+     */
+    PALM_TIMESTAMP(4),
+    /**
+     * Palm OS encoded string. With a {@link PdbField#length()}, the string occupies that many bytes and is padded with
+     * nulls; without one, it is null-terminated and must be a {@link PdbField#SEQUENTIAL} field. Maps to
+     * {@link String}.
+     */
+    STRING(0),
+    /**
+     * Raw bytes. With a {@link PdbField#length()}, exactly that many bytes; without one, the rest of the record, which
+     * must be the last {@link PdbField#SEQUENTIAL} field. Maps to {@code byte[]}.
+     */
+    BYTES(0);
+
+    private final int size;
+
+    PdbFieldType(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the size in bytes, or 0 if the size comes from {@link PdbField#length()} or the data
+     */
+    int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,701 @@
+package io.github.sornerol.pdb4j.mapping;
+
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads and writes records whose layout is described with {@link PdbField} annotations.
+ *
+ * <pre>{@code
+ * public class ToDo extends AbstractMappedPdbRecord {
+ *     @PdbField(offset = 0, type = PdbFieldType.PALM_DATE)
+ *     private LocalDate dueDate;
+ *     @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, shift = 7)
+ *     private boolean complete;
+ *     @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, bits = 7)
+ *     private int priority;
+ *     @PdbField(type = PdbFieldType.STRING, order = 0)
+ *     private String description;
+ *     @PdbField(type = PdbFieldType.STRING, order = 1)
+ *     private String note;
+ * }
+ * }</pre>
+ *
+ * The annotations are inspected once per class, when its codec is first requested. Each field becomes a
+ * {@link MethodHandle} with the field's accessor and layout bound in as constants, and the fields are then folded into
+ * a single handle each for reading, writing and sizing a whole record. Those handles are held in static final fields
+ * of a small class generated for the record class, so the JIT treats them as constants and compiles each one, field
+ * accessors included, into straight-line code, as fast as the same layout decoded by hand;
+ * {@code MappedRecordBenchmark} in the benchmarks module compares the two. Codecs are cached per class and are
+ * thread-safe.
+ *
+ * Annotated fields may be declared in the record class or any of its superclasses, may be private, and must not be
+ * static or final. The class needs a no-argument constructor. Fields that start past the end of a record are left at
+ * their default values; fixed-length strings and byte arrays that are cut off by the end are read as far as they go.
+ *
+ * @param <T> The type of records the codec reads and writes
+ */
+public final class RecordCodec<T extends PdbRecord> {
+    private static final ClassValue<RecordCodec<?>> CODECS = new ClassValue<RecordCodec<?>>() {
+        @Override
+        protected RecordCodec<?> computeValue(Class<?> type) {
+            return new RecordCodec<>(type.asSubclass(PdbRecord.class));
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * (record, data, position, end) -> position after the field.
+     */
+    private static final MethodType READER = MethodType.methodType(int.class, Object.class, ByteBuffer.class,
+            int.class, int.class);
+
+    /**
+     * (record, data, position) -> position after the field.
+     */
+    private static final MethodType WRITER = MethodType.methodType(int.class, Object.class, byte[].class, int.class);
+
+    /**
+     * (record) -> encoded size of the field.
+     */
+    private static final MethodType SIZER = MethodType.methodType(int.class, Object.class);
+
+    private static final MethodType LONG_GETTER = MethodType.methodType(long.class, Object.class);
+    private static final MethodType LONG_SETTER = MethodType.methodType(void.class, Object.class, long.class);
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType OBJECT_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * (data, position) -> value of a fixed-size field.
+     */
+    private static final MethodType VALUE_READER = MethodType.methodType(Object.class, ByteBuffer.class, int.class);
+
+    /**
+     * (stringEnd, record, data, position, end) -> position after a string field.
+     */
+    private static final MethodType STRING_READER = READER.insertParameterTypes(0, int.class);
+
+    /**
+     * (stringEnd, data, position) -> value of a string field.
+     */
+    private static final MethodType STRING_VALUE_READER = VALUE_READER.insertParameterTypes(0, int.class);
+
+    /**
+     * (record, data, position, end) -> void, for fields that start past the end of the record.
+     */
+    private static final MethodHandle SKIP = bind("skip", READER.changeReturnType(void.class));
+
+    private final Class<T> type;
+    private final int fixedLength;
+    private final CodecAdapter adapter;
+
+    /**
+     * Get the codec for a record class, building it on first use.
+     *
+     * @param type The record class
+     * @param <T> The type of records
+     * @return the codec
+     * @throws IllegalArgumentException if the class's annotations don't describe a valid layout
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends PdbRecord> RecordCodec<T> forClass(Class<T> type) {
+        return (RecordCodec<T>) CODECS.get(type);
+    }
+
+    private RecordCodec(Class<T> type) {
+        this.type = type;
+        if (Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException(type.getName() + " is abstract.");
+        }
+        MethodHandle constructor;
+        try {
+            Constructor<T> noArgs = type.getDeclaredConstructor();
+            noArgs.setAccessible(true);
+            constructor = LOOKUP.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " has no no-argument constructor.", e);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Can't access the constructor of " + type.getName() + ".", e);
+        }
+
+        List<FieldCodec> fixed = new ArrayList<>();
+        List<FieldCodec> sequential = new ArrayList<>();
+        for (Field field : annotatedFields(type)) {
+            FieldCodec codec = createFieldCodec(field, field.getAnnotation(PdbField.class));
+            (codec.offset == PdbField.SEQUENTIAL ? sequential : fixed).add(codec);
+        }
+        // Stable, so sequential fields with the same order keep their declaration order.
+        Collections.sort(sequential, Comparator.comparingInt(codec -> codec.order));
+        for (int i = 0; i < sequential.size() - 1; i++) {
+            if (sequential.get(i).openEnded) {
+                throw new IllegalArgumentException("Field " + sequential.get(i).name + " reads to the end of the "
+                        + "record, so it must be the last sequential field.");
+            }
+        }
+        int length = 0;
+        for (FieldCodec codec : fixed) {
+            length = Math.max(length, codec.offset + codec.fixedSize);
+        }
+        fixedLength = length;
+
+        MethodHandle reader = buildReader(constructor, fixed, sequential, fixedLength);
+        // The data is sized up front, so the writer always starts at 0 and its final position isn't needed.
+        MethodHandle writer = MethodHandles.insertArguments(
+                buildWriter(fixed, sequential, fixedLength).asType(WRITER.changeReturnType(void.class)), 2, 0);
+        adapter = new CodecAdapter(type, reader, writer, buildSizer(sequential, fixedLength));
+    }
+
+    /**
+     * @return the record class
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return the length of the record's fixed part, which ends after the last field with an offset
+     */
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    /**
+     * Read a record from an array.
+     *
+     * @param attributes The record's attributes
+     * @param data The record's data
+     * @return the record
+     */
+    public T read(byte attributes, byte[] data) {
+        return read(attributes, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Read a record from the remaining bytes of a buffer. The buffer's position is not modified, and the record doesn't
+     * keep a reference to it.
+     *
+     * @param attributes The record's attributes
+     * @param data The record's data
+     * @return the record
+     */
+    public T read(byte attributes, ByteBuffer data) {
+        T record = type.cast(adapter.read(data));
+        record.setAttributes(attributes);
+        return record;
+    }
+
+    /**
+     * Get the number of bytes {@link #toBytes(PdbRecord)} will return for a record.
+     *
+     * @param record The record
+     * @return the size of the record's data in bytes
+     */
+    public int serializedSize(T record) {
+        return adapter.size(record);
+    }
+
+    /**
+     * Encode a record's fields.
+     *
+     * @param record The record
+     * @return the record's data
+     */
+    public byte[] toBytes(T record) {
+        byte[] data = new byte[serializedSize(record)];
+        adapter.write(record, data);
+        return data;
+    }
+
+    /**
+     * Build (data, start, end) -> record: construct the record, read the fixed fields relative to the start, then read
+     * the sequential fields one after another from the end of the fixed part.
+     */
+    private static MethodHandle buildReader(MethodHandle constructor, List<FieldCodec> fixed,
+                                            List<FieldCodec> sequential, int fixedLength) {
+        MethodHandle handle = MethodHandles.permuteArguments(MethodHandles.identity(int.class), READER, 2);
+        for (int i = sequential.size() - 1; i >= 0; i--) {
+            handle = thenRead(sequential.get(i).reader, handle);
+        }
+        handle = thenRead(bind("advance", READER, fixedLength), handle);
+        for (FieldCodec codec : fixed) {
+            handle = MethodHandles.foldArguments(handle, codec.reader.asType(READER.changeReturnType(void.class)));
+        }
+        MethodHandle returnRecord = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1,
+                ByteBuffer.class, int.class, int.class);
+        handle = MethodHandles.foldArguments(returnRecord, handle.asType(READER.changeReturnType(void.class)));
+        return MethodHandles.foldArguments(handle, constructor);
+    }
+
+    /**
+     * Build (record, data, 0) -> length, the writing counterpart of {@link #buildReader}.
+     */
+    private static MethodHandle buildWriter(List<FieldCodec> fixed, List<FieldCodec> sequential, int fixedLength) {
+        MethodHandle handle = MethodHandles.permuteArguments(MethodHandles.identity(int.class), WRITER, 2);
+        for (int i = sequential.size() - 1; i >= 0; i--) {
+            handle = thenWrite(sequential.get(i).writer, handle);
+        }
+        handle = thenWrite(bind("advance", WRITER, fixedLength), handle);
+        for (FieldCodec codec : fixed) {
+            handle = MethodHandles.foldArguments(handle, codec.writer.asType(WRITER.changeReturnType(void.class)));
+        }
+        return handle;
+    }
+
+    /**
+     * Build (record) -> the fixed length plus the size of every sequential field.
+     */
+    private static MethodHandle buildSizer(List<FieldCodec> sequential, int fixedLength) {
+        MethodHandle handle = constantSize(fixedLength);
+        MethodHandle sum;
+        try {
+            sum = LOOKUP.findStatic(Integer.class, "sum", MethodType.methodType(int.class, int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        for (FieldCodec codec : sequential) {
+            handle = MethodHandles.foldArguments(MethodHandles.collectArguments(sum, 1, codec.sizer), handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Run a reader, then continue with the next reader from the position it returns.
+     */
+    private static MethodHandle thenRead(MethodHandle first, MethodHandle next) {
+        MethodHandle fromPosition = MethodHandles.permuteArguments(next,
+                READER.insertParameterTypes(0, int.class), 1, 2, 0, 4);
+        return MethodHandles.foldArguments(fromPosition, first);
+    }
+
+    /**
+     * Run a writer, then continue with the next writer from the position it returns.
+     */
+    private static MethodHandle thenWrite(MethodHandle first, MethodHandle next) {
+        MethodHandle fromPosition = MethodHandles.permuteArguments(next,
+                WRITER.insertParameterTypes(0, int.class), 1, 2, 0);
+        return MethodHandles.foldArguments(fromPosition, first);
+    }
+
+    private static List<Field> annotatedFields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(PdbField.class)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static FieldCodec createFieldCodec(Field field, PdbField annotation) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            throw invalid(field, "must not be static or final");
+        }
+        if (annotation.offset() < 0 && annotation.offset() != PdbField.SEQUENTIAL) {
+            throw invalid(field, "has a negative offset");
+        }
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            field.setAccessible(true);
+            getter = LOOKUP.unreflectGetter(field);
+            setter = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Can't access field " + describe(field) + ".", e);
+        }
+
+        // Sequential fields are read and written at the current position; fixed fields at their offset from the start.
+        int offset = Math.max(annotation.offset(), 0);
+        int length = annotation.length();
+        PdbFieldType fieldType = annotation.type();
+        switch (fieldType) {
+            case INT8:
+            case UINT8:
+            case INT16:
+            case UINT16:
+            case INT32:
+            case UINT32:
+                boolean signed = fieldType == PdbFieldType.INT8 || fieldType == PdbFieldType.INT16
+                        || fieldType == PdbFieldType.INT32;
+                checkIntegral(field, fieldType, fieldType.getSize() * 8, !signed);
+                return integerCodec(field, annotation, fieldType.getSize(), signed, 0, -1L, getter, setter);
+            case BITS:
+                if (length != 1 && length != 2 && length != 4) {
+                    throw invalid(field, "needs a BITS container length of 1, 2 or 4 bytes");
+                }
+                if (annotation.bits() < 1 || annotation.shift() < 0
+                        || annotation.shift() + annotation.bits() > length * 8) {
+                    throw invalid(field, "has bits " + annotation.shift() + "-"
+                            + (annotation.shift() + annotation.bits() - 1) + ", which don't fit in a "
+                            + length + "-byte container");
+                }
+                if (field.getType() != boolean.class) {
+                    checkIntegral(field, fieldType, annotation.bits(), true);
+                }
+                return integerCodec(field, annotation, length, false, annotation.shift(),
+                        (1L << annotation.bits()) - 1, getter, setter);
+            case PALM_DATE:
+                checkType(field, fieldType, LocalDate.class);
+                return fixedSizeCodec(field, annotation, fieldType.getSize(),
+                        bind("readPackedDate", VALUE_READER, offset), bind("writePackedDate", WRITER, offset),
+                        getter.asType(OBJECT_GETTER), setter.asType(OBJECT_SETTER));
+            case PALM_TIMESTAMP:
+                checkType(field, fieldType, Instant.class);
+                return fixedSizeCodec(field, annotation, fieldType.getSize(),
+                        bind("readTimestamp", VALUE_READER, offset), bind("writeTimestamp", WRITER, offset),
+                        getter.asType(OBJECT_GETTER), setter.asType(OBJECT_SETTER));
+            case STRING:
+                checkType(field, fieldType, String.class);
+                checkLength(field, annotation);
+                return stringCodec(field, annotation, getter.asType(OBJECT_GETTER), setter.asType(OBJECT_SETTER));
+            case BYTES:
+                checkType(field, fieldType, byte[].class);
+                checkLength(field, annotation);
+                return bytesCodec(field, annotation, getter.asType(OBJECT_GETTER), setter.asType(OBJECT_SETTER));
+            default:
+                throw invalid(field, "has unsupported type " + fieldType);
+        }
+    }
+
+    private static FieldCodec integerCodec(Field field, PdbField annotation, int size, boolean signed, int shift,
+                                           long mask, MethodHandle getter, MethodHandle setter) {
+        int offset = Math.max(annotation.offset(), 0);
+        // These adapters narrow values to the field's type, and test the low bit for booleans.
+        MethodHandle longGetter = MethodHandles.explicitCastArguments(getter, LONG_GETTER);
+        MethodHandle longSetter = MethodHandles.explicitCastArguments(setter, LONG_SETTER);
+        return fixedSizeCodec(field, annotation, size,
+                bind("readInteger", VALUE_READER.changeReturnType(long.class), size, signed, shift, mask, offset),
+                bind("writeInteger", WRITER.changeParameterType(0, long.class), size, shift, mask, offset),
+                longGetter, longSetter);
+    }
+
+    /**
+     * Combine the accessors of a field that takes the same number of bytes in every record with the field methods that
+     * decode and encode its value. The value is only read if the whole field is within the record.
+     */
+    private static FieldCodec fixedSizeCodec(Field field, PdbField annotation, int size, MethodHandle decoder,
+                                             MethodHandle encoder, MethodHandle getter, MethodHandle setter) {
+        int end = Math.max(annotation.offset(), 0) + size;
+        MethodHandle store = MethodHandles.dropArguments(MethodHandles.collectArguments(setter, 1, decoder), 3,
+                int.class);
+        MethodHandle reader = MethodHandles.foldArguments(bind("advance", READER, end),
+                MethodHandles.guardWithTest(bind("fits", READER.changeReturnType(boolean.class), end), store, SKIP));
+        return new FieldCodec(field, annotation, size, reader, MethodHandles.filterArguments(encoder, 0, getter),
+                constantSize(size));
+    }
+
+    /**
+     * Combine a string field's accessors with the string field methods. The reader finds the end of the string first,
+     * then stores the string if the field starts within the record, and returns the position after the field.
+     */
+    private static FieldCodec stringCodec(Field field, PdbField annotation, MethodHandle getter, MethodHandle setter) {
+        int offset = Math.max(annotation.offset(), 0);
+        int length = annotation.length();
+        // (record, stringEnd, data, position) -> void, reordered to (stringEnd, record, data, position, end).
+        MethodHandle store = MethodHandles.permuteArguments(
+                MethodHandles.collectArguments(setter, 1, bind("readString", STRING_VALUE_READER, offset)),
+                STRING_READER.changeReturnType(void.class), 1, 0, 2, 3);
+        MethodHandle starts = MethodHandles.dropArguments(
+                bind("starts", READER.changeReturnType(boolean.class), offset), 0, int.class);
+        MethodHandle fromStringEnd = MethodHandles.foldArguments(bind("afterString", STRING_READER, length, offset),
+                MethodHandles.guardWithTest(starts, store, MethodHandles.dropArguments(SKIP, 0, int.class)));
+        MethodHandle reader = MethodHandles.foldArguments(fromStringEnd, bind("stringEnd", READER, length, offset));
+        MethodHandle writer = MethodHandles.filterArguments(bind("writeString", WRITER, length, offset), 0, getter);
+        MethodHandle sizer = (length > 0) ? constantSize(length)
+                : MethodHandles.filterArguments(bind("sizeString", SIZER), 0, getter);
+        return new FieldCodec(field, annotation, length, reader, writer, sizer);
+    }
+
+    /**
+     * Combine a byte array field's accessors with the byte array field methods. The array is only read if the field
+     * starts within the record.
+     */
+    private static FieldCodec bytesCodec(Field field, PdbField annotation, MethodHandle getter, MethodHandle setter) {
+        int offset = Math.max(annotation.offset(), 0);
+        int length = annotation.length();
+        MethodHandle store = MethodHandles.collectArguments(setter, 1,
+                bind("readBytes", READER.dropParameterTypes(0, 1).changeReturnType(Object.class), length, offset));
+        MethodHandle reader = MethodHandles.foldArguments(bind("afterBytes", READER, length, offset),
+                MethodHandles.guardWithTest(bind("starts", READER.changeReturnType(boolean.class), offset), store,
+                        SKIP));
+        MethodHandle writer = MethodHandles.filterArguments(bind("writeBytes", WRITER, length, offset), 0, getter);
+        MethodHandle sizer = (length > 0) ? constantSize(length)
+                : MethodHandles.filterArguments(bind("sizeBytes", SIZER), 0, getter);
+        return new FieldCodec(field, annotation, length, reader, writer, sizer);
+    }
+
+    private static void checkIntegral(Field field, PdbFieldType fieldType, int valueBits, boolean unsigned) {
+        Class<?> javaType = field.getType();
+        int javaBits;
+        if (javaType == byte.class) {
+            javaBits = Byte.SIZE;
+        } else if (javaType == short.class) {
+            javaBits = Short.SIZE;
+        } else if (javaType == int.class) {
+            javaBits = Integer.SIZE;
+        } else if (javaType == long.class) {
+            javaBits = Long.SIZE;
+        } else {
+            javaBits = 0;
+        }
+        // An unsigned value needs one more bit than its encoding to stay positive.
+        if (javaBits < valueBits || (unsigned && javaBits == valueBits)) {
+            throw invalid(field, "is a " + javaType.getSimpleName() + ", which can't hold a " + fieldType + " value");
+        }
+    }
+
+    private static void checkType(Field field, PdbFieldType fieldType, Class<?> expected) {
+        if (field.getType() != expected) {
+            throw invalid(field, "must be a " + expected.getSimpleName() + " to hold a " + fieldType + " value");
+        }
+    }
+
+    private static void checkLength(Field field, PdbField annotation) {
+        if (annotation.length() < 0) {
+            throw invalid(field, "has a negative length");
+        }
+        if (annotation.length() == 0 && annotation.offset() != PdbField.SEQUENTIAL) {
+            throw invalid(field, "has no length, so it must be a sequential field");
+        }
+    }
+
+    /**
+     * Find one of the static field methods below and bind its leading int, long and boolean arguments, leaving a
+     * handle of the given type.
+     */
+    private static MethodHandle bind(String name, MethodType type, Object... constants) {
+        Class<?>[] constantTypes = new Class<?>[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            Object constant = constants[i];
+            if (constant instanceof Integer) {
+                constantTypes[i] = int.class;
+            } else if (constant instanceof Long) {
+                constantTypes[i] = long.class;
+            } else {
+                constantTypes[i] = boolean.class;
+            }
+        }
+        try {
+            MethodHandle method = LOOKUP.findStatic(RecordCodec.class, name,
+                    type.insertParameterTypes(0, constantTypes));
+            return MethodHandles.insertArguments(method, 0, constants);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle constantSize(int size) {
+        return MethodHandles.dropArguments(MethodHandles.constant(int.class, size), 0, Object.class);
+    }
+
+    private static String describe(Field field) {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    private static IllegalArgumentException invalid(Field field, String problem) {
+        return new IllegalArgumentException("Field " + describe(field) + " " + problem + ".");
+    }
+
+    /*
+     * The field methods. Each takes its constants first. Readers return the field's value and writers take it in place
+     * of the record, so the field's accessors are combined with them as handles rather than passed in: the accessors
+     * stay part of the record's constant handle, and inline with it, even where a field method is compiled on its own.
+     */
+
+    private static int advance(int length, Object record, ByteBuffer data, int position, int end) {
+        return position + length;
+    }
+
+    private static int advance(int length, Object record, byte[] data, int position) {
+        return position + length;
+    }
+
+    private static boolean fits(int length, Object record, ByteBuffer data, int position, int end) {
+        return position + length <= end;
+    }
+
+    private static boolean starts(int offset, Object record, ByteBuffer data, int position, int end) {
+        return position + offset < end;
+    }
+
+    private static void skip(Object record, ByteBuffer data, int position, int end) {
+    }
+
+    private static long readInteger(int size, boolean signed, int shift, long mask, int offset,
+                                    ByteBuffer data, int position) {
+        int at = position + offset;
+        long value;
+        switch (size) {
+            case 1:
+                value = signed ? data.get(at) : data.get(at) & 0xFFL;
+                break;
+            case 2:
+                value = signed ? data.getShort(at) : data.getShort(at) & 0xFFFFL;
+                break;
+            default:
+                value = signed ? data.getInt(at) : data.getInt(at) & 0xFFFFFFFFL;
+                break;
+        }
+        return (mask == -1L) ? value : (value >>> shift) & mask;
+    }
+
+    private static int writeInteger(int size, int shift, long mask, int offset, long value, byte[] data, int position) {
+        int at = position + offset;
+        if (mask != -1L) {
+            // Merge with the other bitfields already written to the same container.
+            long container = 0;
+            for (int i = 0; i < size; i++) {
+                container = (container << 8) | (data[at + i] & 0xFF);
+            }
+            value = (container & ~(mask << shift)) | ((value & mask) << shift);
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            data[at + i] = (byte) value;
+            value >>>= 8;
+        }
+        return at + size;
+    }
+
+    private static Object readPackedDate(int offset, ByteBuffer data, int position) {
+        return PalmDateUtil.localDateFromPackedDate(data.getShort(position + offset));
+    }
+
+    private static int writePackedDate(int offset, Object value, byte[] data, int position) {
+        int at = position + offset;
+        int packedDate = PalmDateUtil.packedDateFromLocalDate((LocalDate) value);
+        data[at] = (byte) (packedDate >>> 8);
+        data[at + 1] = (byte) packedDate;
+        return at + 2;
+    }
+
+    private static Object readTimestamp(int offset, ByteBuffer data, int position) {
+        int timestamp = data.getInt(position + offset);
+        return (timestamp == 0) ? null : PalmDateUtil.instantFromPdbTime(timestamp);
+    }
+
+    private static int writeTimestamp(int offset, Object value, byte[] data, int position) {
+        int at = position + offset;
+        int timestamp = (value == null) ? 0 : PalmDateUtil.pdbTimestampFromInstant((Instant) value, false);
+        for (int i = 3; i >= 0; i--) {
+            data[at + i] = (byte) timestamp;
+            timestamp >>>= 8;
+        }
+        return at + 4;
+    }
+
+    /**
+     * Find the null that ends a string, or the end of the field or record if it comes first.
+     */
+    private static int stringEnd(int length, int offset, Object record, ByteBuffer data, int position, int end) {
+        int at = position + offset;
+        int limit = (length > 0) ? Math.min(at + length, end) : end;
+        int stringEnd = at;
+        while (stringEnd < limit && data.get(stringEnd) != 0) {
+            stringEnd++;
+        }
+        return stringEnd;
+    }
+
+    private static Object readString(int offset, int stringEnd, ByteBuffer data, int position) {
+        int at = position + offset;
+        return PalmStringUtil.decode(data, at, stringEnd - at);
+    }
+
+    private static int afterString(int length, int offset,
+                                   int stringEnd, Object record, ByteBuffer data, int position, int end) {
+        int at = position + offset;
+        return (length > 0 || at >= end) ? at + length : Math.min(stringEnd + 1, end);
+    }
+
+    private static int writeString(int length, int offset, Object value, byte[] data, int position) {
+        int at = position + offset;
+        byte[] bytes = (value == null) ? new byte[0] : PalmStringUtil.encode((String) value);
+        if (length > 0) {
+            // Leave room for the terminating null; the rest of the field is already zero.
+            System.arraycopy(bytes, 0, data, at, Math.min(bytes.length, length - 1));
+            return at + length;
+        }
+        System.arraycopy(bytes, 0, data, at, bytes.length);
+        return at + bytes.length + 1;
+    }
+
+    private static int sizeString(Object value) {
+        return ((value == null) ? 0 : PalmStringUtil.encodedLength((String) value)) + 1;
+    }
+
+    private static Object readBytes(int length, int offset, ByteBuffer data, int position, int end) {
+        int at = position + offset;
+        int available = (length > 0) ? Math.min(length, end - at) : end - at;
+        byte[] bytes = new byte[(length > 0) ? length : available];
+        for (int i = 0; i < available; i++) {
+            bytes[i] = data.get(at + i);
+        }
+        return bytes;
+    }
+
+    private static int afterBytes(int length, int offset, Object record, ByteBuffer data, int position, int end) {
+        int at = position + offset;
+        return (length > 0) ? at + length : Math.max(at, end);
+    }
+
+    private static int writeBytes(int length, int offset, Object value, byte[] data, int position) {
+        int at = position + offset;
+        byte[] bytes = (byte[]) value;
+        int count = (bytes == null) ? 0 : (length > 0) ? Math.min(bytes.length, length) : bytes.length;
+        if (count > 0) {
+            System.arraycopy(bytes, 0, data, at, count);
+        }
+        return at + ((length > 0) ? length : count);
+    }
+
+    private static int sizeBytes(Object value) {
+        return (value == null) ? 0 : ((byte[]) value).length;
+    }
+
+    /**
+     * The handles for one annotated field.
+     */
+    private static final class FieldCodec {
+        final String name;
+        final int offset;
+        final int order;
+        final int fixedSize;
+        final boolean openEnded;
+        final MethodHandle reader;
+        final MethodHandle writer;
+        final MethodHandle sizer;
+
+        FieldCodec(Field field, PdbField annotation, int fixedSize, MethodHandle reader, MethodHandle writer,
+                   MethodHandle sizer) {
+            this.name = describe(field);
+            this.offset = annotation.offset();
+            this.order = annotation.order();
+            this.fixedSize = fixedSize;
+            this.openEnded = annotation.type() == PdbFieldType.BYTES && fixedSize == 0;
+            this.reader = reader;
+            this.writer = writer;
+            this.sizer = sizer;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.sornerol.pdb4j.metrics;
+
+/**
+ * Holds the {@link PdbMetricsListener} that new readers and writers start with, so metrics can be turned on for a
+ * whole application (including {@link io.github.sornerol.pdb4j.model.PdbDatabase#toByteArray()}, which creates its
+ * own writer) without changing the code that reads and writes databases. For example, with the {@code pdb4j-jfr}
+ * module on the classpath:
+ *
+ * <pre>{@code
+ * PdbMetrics.setDefaultListener(new JfrPdbMetricsListener());
+ * }</pre>
+ */
+public final class PdbMetrics {
+    private static volatile PdbMetricsListener defaultListener = PdbMetricsListener.NOOP;
+
+    private PdbMetrics() {
+    }
+
+    /**
+     * Get the listener that new readers and writers use.
+     *
+     * @return the default listener, {@link PdbMetricsListener#NOOP} unless one has been set
+     */
+    public static PdbMetricsListener getDefaultListener() {
+        return defaultListener;
+    }
+
+    /**
+     * Set the listener that new readers and writers use. Existing readers and writers keep their listener.
+     *
+     * @param listener The listener, or null to go back to {@link PdbMetricsListener#NOOP}
+     */
+    public static void setDefaultListener(PdbMetricsListener listener) {
+        defaultListener = (listener == null) ? PdbMetricsListener.NOOP : listener;
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.sornerol.pdb4j.metrics;
+
+/**
+ * Receives timings and sizes from {@link io.github.sornerol.pdb4j.reader.PdbReader} and
+ * {@link io.github.sornerol.pdb4j.writer.PdbWriter}. Every method has an empty default, so implementations only
+ * override what they need.
+ *
+ * Durations are in nanoseconds, measured with {@link System#nanoTime()}. Methods may be called from several threads at
+ * once (parallel reads, lazy records decoded on other threads), so implementations must be thread-safe, and they run
+ * on the reading or writing thread, so they should be cheap.
+ *
+ * Before each header, record, AppInfo, SortInfo or database is read or written, {@link #begin()} is called on the
+ * working thread, and whatever it returns is passed back as the {@code context} of the matching callback, on the same
+ * thread, once the work is done. Listeners that feed tracers or profilers can start a span or event there, so it covers
+ * the work itself; others can ignore it. If the work fails, the matching callback isn't made and the context is
+ * dropped.
+ *
+ * Readers and writers don't read the clock or call {@link #begin()} at all while their listener is {@link #NOOP}.
+ */
+public interface PdbMetricsListener {
+    /**
+     * A listener that ignores everything. This is the default unless {@link PdbMetrics#setDefaultListener} is called.
+     */
+    PdbMetricsListener NOOP = new PdbMetricsListener() {
+    };
+
+    /**
+     * Called just before a header, record, AppInfo, SortInfo or database is read or written. Calls nest: the database
+     * is begun before its header and records, and finished after them.
+     *
+     * @return a context to pass to the matching callback, or null
+     */
+    default Object begin() {
+        return null;
+    }
+
+    /**
+     * Called when the header and record header table have been parsed and validated.
+     *
+     * @param numberOfRecords The number of records in the record header table
+     * @param nanos Time taken
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onHeaderRead(int numberOfRecords, long nanos, Object context) {
+    }
+
+    /**
+     * Called when a record has been decoded by a {@link io.github.sornerol.pdb4j.reader.record.RecordReader}.
+     *
+     * @param readerType The class of the record reader
+     * @param index Index of the record
+     * @param size Size of the record's data in bytes
+     * @param nanos Time taken to decode the record
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onRecordRead(Class<?> readerType, int index, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when the AppInfo area has been decoded by an {@link io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader}.
+     *
+     * @param readerType The class of the AppInfo reader
+     * @param size Size of the AppInfo area in bytes
+     * @param nanos Time taken to decode the area
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onAppInfoRead(Class<?> readerType, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when the SortInfo area has been decoded by a
+     * {@link io.github.sornerol.pdb4j.reader.sortinfo.SortInfoReader}.
+     *
+     * @param readerType The class of the SortInfo reader
+     * @param size Size of the SortInfo area in bytes
+     * @param nanos Time taken to decode the area
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onSortInfoRead(Class<?> readerType, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when a whole database has been read. In lazy mode, records are decoded after this, as they are accessed.
+     *
+     * @param numberOfRecords The number of records in the database
+     * @param bytes Size of the database file in bytes
+     * @param nanos Total time taken, including the header, AppInfo, SortInfo and any records decoded eagerly
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onDatabaseRead(int numberOfRecords, long bytes, long nanos, Object context) {
+    }
+
+    /**
+     * Called when a record has been encoded for writing.
+     *
+     * @param recordType The class of the record
+     * @param index Index of the record
+     * @param size Size of the encoded record in bytes
+     * @param nanos Time taken to encode the record
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onRecordWritten(Class<?> recordType, int index, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when the AppInfo area has been encoded for writing.
+     *
+     * @param appInfoType The class of the AppInfo
+     * @param size Size of the encoded area in bytes
+     * @param nanos Time taken to encode the area
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onAppInfoWritten(Class<?> appInfoType, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when the SortInfo area has been encoded for writing.
+     *
+     * @param sortInfoType The class of the SortInfo
+     * @param size Size of the encoded area in bytes
+     * @param nanos Time taken to encode the area
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onSortInfoWritten(Class<?> sortInfoType, int size, long nanos, Object context) {
+    }
+
+    /**
+     * Called when a whole database has been written.
+     *
+     * @param numberOfRecords The number of records in the database
+     * @param bytes Number of bytes written
+     * @param nanos Total time taken
+     * @param context The value {@link #begin()} returned before the work started
+     */
+    default void onDatabaseWritten(int numberOfRecords, long bytes, long nanos, Object context) {
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.sornerol.pdb4j.model;
+
+import java.time.Instant;
+
+/**
+ * The fields of a database that are stored in its 78-byte header. {@link PdbDatabase} and {@link ResourceDatabase}
+ * share the header format, so {@link PdbHeader} encodes and decodes it for both through this interface.
+ */
+public interface DatabaseHeaderFields {
+    boolean isUseUnixEpochTime();
+
+    String getName();
+
+    void setName(String name);
+
+    short getFileAttributes();
+
+    void setFileAttributes(short fileAttributes);
+
+    short getVersion();
+
+    void setVersion(short version);
+
+    Instant getCreationInstant();
+
+    void setCreationInstant(Instant creationInstant);
+
+    Instant getModificationInstant();
+
+    void setModificationInstant(Instant modificationInstant);
+
+    Instant getBackupInstant();
+
+    void setBackupInstant(Instant backupInstant);
+
+    int getModificationNumber();
+
+    void setModificationNumber(int modificationNumber);
+
+    String getDatabaseType();
+
+    void setDatabaseType(String databaseType);
+
+    String getCreatorId();
+
+    void setCreatorId(String creatorId);
+
+    int getUniqueIdSeed();
+
+    void setUniqueIdSeed(int uniqueIdSeed);
+
+    int getNextRecordList();
+
+    void setNextRecordList(int nextRecordList);
+}
@@ -3,31 +3,37 @@ package io.github.sornerol.pdb4j.model;
 import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
 import io.github.sornerol.pdb4j.model.record.PdbRecord;
 import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
-import io.github.sornerol.pdb4j.util.PalmDateUtil;
-import io.github.sornerol.pdb4j.util.PalmStringUtil;
 import io.github.sornerol.pdb4j.util.PdbDatabaseConstants;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.TimeZone;
 
 @Data
-public class PdbDatabase<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+public class PdbDatabase<R extends PdbRecord, A extends AppInfo, S extends SortInfo> implements DatabaseHeaderFields {
     private boolean useUnixEpochTime;
     private String name;
     private short fileAttributes;
     private short version;
-    private Calendar creationTime;
-    private Calendar modificationTime;
-    private Calendar backupTime;
+
+    /*
+      Timestamps are kept as Instants. The Calendar accessors convert on each call; use the Instant accessors to avoid
+      allocating Calendars.
+    */
+    private Instant creationTime;
+    private Instant modificationTime;
+    private Instant backupTime;
     private int modificationNumber;  //see https://web.archive.org/web/20090315213538/http://membres.lycos.fr/microfirst/palm/pdb.html
     private String databaseType;
     private String creatorId;
@@ -37,11 +43,87 @@ public class PdbDatabase<R extends PdbRecord, A extends AppInfo, S extends SortI
     private S sortInfo;
     private List<R> records;
 
+    /**
+     * Index of record unique IDs, built on first lookup. Readers may provide one built from the record header table
+     * through {@link #setRecords(List, UniqueIdIndex)}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private UniqueIdIndex uniqueIdIndex;
+
     public PdbDatabase() {
         useUnixEpochTime = false;
         records = new ArrayList<>();
     }
 
+    public Instant getCreationInstant() {
+        return creationTime;
+    }
+
+    public void setCreationInstant(Instant creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    public Instant getModificationInstant() {
+        return modificationTime;
+    }
+
+    public void setModificationInstant(Instant modificationTime) {
+        this.modificationTime = modificationTime;
+    }
+
+    public Instant getBackupInstant() {
+        return backupTime;
+    }
+
+    public void setBackupInstant(Instant backupTime) {
+        this.backupTime = backupTime;
+    }
+
+    /**
+     * Get the creation time as a new {@link Calendar} in the default time zone. Changes to the returned calendar
+     * aren't reflected in the database; use {@link #setCreationTime(Calendar)}.
+     *
+     * @return the creation time, or null if it isn't set
+     */
+    public Calendar getCreationTime() {
+        return toCalendar(creationTime);
+    }
+
+    public void setCreationTime(Calendar creationTime) {
+        this.creationTime = toInstant(creationTime);
+    }
+
+    /**
+     * Get the modification time as a new {@link Calendar} in the default time zone. Changes to the returned calendar
+     * aren't reflected in the database; use {@link #setModificationTime(Calendar)}.
+     *
+     * @return the modification time, or null if it isn't set
+     */
+    public Calendar getModificationTime() {
+        return toCalendar(modificationTime);
+    }
+
+    public void setModificationTime(Calendar modificationTime) {
+        this.modificationTime = toInstant(modificationTime);
+    }
+
+    /**
+     * Get the backup time as a new {@link Calendar} in the default time zone. Changes to the returned calendar
+     * aren't reflected in the database; use {@link #setBackupTime(Calendar)}.
+     *
+     * @return the backup time, or null if it isn't set
+     */
+    public Calendar getBackupTime() {
+        return toCalendar(backupTime);
+    }
+
+    public void setBackupTime(Calendar backupTime) {
+        this.backupTime = toInstant(backupTime);
+    }
+
     public short getNumberOfRecords() {
         if (records == null) {
             return 0;
@@ -50,16 +132,78 @@ public class PdbDatabase<R extends PdbRecord, A extends AppInfo, S extends SortI
         return (short) records.size();
     }
 
+    public void setRecords(List<R> records) {
+        this.records = records;
+        this.uniqueIdIndex = null;
+    }
+
+    /**
+     * Set the records along with an index of their unique IDs, such as one built from the record header table while
+     * reading, so the first lookup doesn't have to read every record's unique ID. The index must have been built from
+     * these records' unique IDs, in order.
+     *
+     * @param records The records
+     * @param uniqueIdIndex An index of the records' unique IDs
+     */
+    public void setRecords(List<R> records, UniqueIdIndex uniqueIdIndex) {
+        this.records = records;
+        this.uniqueIdIndex = uniqueIdIndex;
+    }
+
+    /**
+     * Find a record by its unique ID in constant time.
+     *
+     * The lookup uses a {@link UniqueIdIndex} that is built on first use. A hit is checked against the record's
+     * current unique ID, and the index is rebuilt if records were added or removed since it was built. If a record's
+     * unique ID is changed in place, call {@link #rebuildUniqueIdIndex()} so the record can be found under its new ID.
+     *
+     * @param uniqueId The unique ID to look up
+     * @return the record, or null if no record has the unique ID
+     */
+    public R getRecordByUniqueId(int uniqueId) {
+        int index = indexOfUniqueId(uniqueId);
+        return (index < 0) ? null : records.get(index);
+    }
+
+    /**
+     * Find the index of a record by its unique ID in constant time. See {@link #getRecordByUniqueId(int)}.
+     *
+     * @param uniqueId The unique ID to look up
+     * @return the record's index, or -1 if no record has the unique ID
+     */
+    public int indexOfUniqueId(int uniqueId) {
+        if (records == null) {
+            return -1;
+        }
+        if (uniqueIdIndex == null || uniqueIdIndex.size() != records.size()) {
+            rebuildUniqueIdIndex();
+        }
+        int index = uniqueIdIndex.indexOf(uniqueId);
+        if (index >= 0 && !hasUniqueId(index, uniqueId)) {
+            rebuildUniqueIdIndex();
+            index = uniqueIdIndex.indexOf(uniqueId);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuild the unique ID index from the current records.
+     */
+    public void rebuildUniqueIdIndex() {
+        uniqueIdIndex = UniqueIdIndex.of(records);
+    }
+
+    private boolean hasUniqueId(int index, int uniqueId) {
+        return index < records.size() && (records.get(index).getUniqueId() & 0xFFFFFF) == (uniqueId & 0xFFFFFF);
+    }
+
     /**
-     * Write the PDB database to the filesystem
+     * Write the PDB database to the filesystem. The file is streamed to disk by a {@link PdbWriter}.
      *
      * @param filePath Path to write the file to
      */
     public void writeToFile(String filePath) throws IOException {
-        File file = new File(filePath);
-        try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-            fileOutputStream.write(toByteArray());
-        }
+        new PdbWriter(this).write(Paths.get(filePath));
     }
 
     /**
@@ -68,94 +212,44 @@ public class PdbDatabase<R extends PdbRecord, A extends AppInfo, S extends SortI
      * @return byte array representation of the PDB database
      */
     public byte[] toByteArray() throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        outputStream.write(headerToByteArray());
-        outputStream.write(recordHeadersToByteArray());
-        if (getAppInfoOffset() > 0) {
-            outputStream.write(appInfo.toBytes());
-        }
-        if (getSortInfoOffset() > 0) {
-            outputStream.write(sortInfo.toBytes());
-        }
-        for (R record : records) {
-            outputStream.write(record.toBytes());
-        }
-        return outputStream.toByteArray();
+        return new PdbWriter(this).toByteArray();
     }
 
     public int getAppInfoOffset() {
-        if (appInfo == null || appInfo.toBytes().length == 0) {
+        if (appInfo == null || appInfo.serializedSize() == 0) {
             return 0;
         }
         return PdbDatabaseConstants.FILE_HEADER_LENGTH_BYTES + getRecordHeadersSize();
     }
 
     public int getSortInfoOffset() {
-        if (sortInfo == null || sortInfo.toBytes().length == 0) {
+        if (sortInfo == null || sortInfo.serializedSize() == 0) {
             return 0;
         }
 
         int appInfoOffset = getAppInfoOffset();
-        int appInfoSize = (appInfoOffset > 0) ? appInfo.toBytes().length : 0;
-        int lastUsedOffset = (appInfoOffset > 0) ? appInfoOffset : PdbDatabaseConstants.FILE_HEADER_LENGTH_BYTES;
+        int appInfoSize = (appInfoOffset > 0) ? appInfo.serializedSize() : 0;
+        int lastUsedOffset = (appInfoOffset > 0)
+                ? appInfoOffset
+                : PdbDatabaseConstants.FILE_HEADER_LENGTH_BYTES + getRecordHeadersSize();
 
         return lastUsedOffset + appInfoSize;
     }
 
-    private byte[] headerToByteArray() {
-        ByteBuffer buffer = ByteBuffer.allocate(PdbDatabaseConstants.FILE_HEADER_LENGTH_BYTES);
-        buffer.order(ByteOrder.BIG_ENDIAN);
-        buffer.put(fileNameToByteArray());
-        buffer.putShort(fileAttributes);
-        buffer.putShort(version);
-        buffer.putInt(PalmDateUtil.pdbTimestampFromCalendar(creationTime, useUnixEpochTime));
-        buffer.putInt(PalmDateUtil.pdbTimestampFromCalendar(modificationTime, useUnixEpochTime));
-        buffer.putInt(PalmDateUtil.pdbTimestampFromCalendar(backupTime, useUnixEpochTime));
-        buffer.putInt(modificationNumber);
-        buffer.putInt(getAppInfoOffset());
-        buffer.putInt(getSortInfoOffset());
-        buffer.put(PalmStringUtil.unicodeToPalm(databaseType).getBytes(StandardCharsets.ISO_8859_1));
-        buffer.put(PalmStringUtil.unicodeToPalm(creatorId).getBytes(StandardCharsets.ISO_8859_1));
-        buffer.putInt(uniqueIdSeed);
-        buffer.putInt(nextRecordList);
-        buffer.putShort(getNumberOfRecords());
-        return buffer.array();
-    }
-
-    private byte[] fileNameToByteArray() {
-        ByteBuffer buffer = ByteBuffer.allocate(PdbDatabaseConstants.NAME_LENGTH_BYTES);
-        buffer.put(PalmStringUtil.unicodeToPalm(name).getBytes(StandardCharsets.ISO_8859_1));
-        return buffer.array();
-    }
-
-    private byte[] recordHeadersToByteArray() {
-        int appInfoOffset = getAppInfoOffset();
-        int appInfoSize = (appInfoOffset > 0) ? appInfo.toBytes().length : 0;
-
-        int sortInfoOffset = getSortInfoOffset();
-        int sortInfoSize = (sortInfoOffset > 0) ? sortInfo.toBytes().length : 0;
-
-        int nextOffset;
-        if (sortInfoOffset > 0) {
-            nextOffset = sortInfoOffset + sortInfoSize;
-        } else if (appInfoOffset > 0) {
-            nextOffset = appInfoOffset + appInfoSize;
-        } else {
-            nextOffset = PdbDatabaseConstants.FILE_HEADER_LENGTH_BYTES + getRecordHeadersSize();
-        }
-        ByteBuffer byteBuffer = ByteBuffer.allocate(getRecordHeadersSize());
-        byteBuffer.order(ByteOrder.BIG_ENDIAN);
-        for (R record : records) {
-            byteBuffer.putInt(nextOffset);
-            byteBuffer.put(record.getAttributes());
-            byte[] uniqueId = {0, 0, 0};
-            byteBuffer.put(uniqueId);
-            nextOffset += record.toBytes().length;
+    private static Calendar toCalendar(Instant instant) {
+        if (instant == null) {
+            return null;
         }
-        return byteBuffer.array();
+        Calendar calendar = Calendar.getInstance(TimeZone.getDefault());
+        calendar.setTimeInMillis(instant.toEpochMilli());
+        return calendar;
+    }
+
+    private static Instant toInstant(Calendar calendar) {
+        return (calendar == null) ? null : Instant.ofEpochMilli(calendar.getTimeInMillis());
     }
 
     private int getRecordHeadersSize() {
-        return getNumberOfRecords() * 8;
+        return getNumberOfRecords() * PdbDatabaseConstants.RECORD_HEADER_SIZE_BYTES;
     }
 }
@@ -0,0 +1,227 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+
+/**
+ * An immutable version of a {@link PdbDatabase}, for sharing one database between threads without locking.
+ *
+ * Records are held in a {@link PersistentVector}. Edits go through {@link #toBuilder()}, and the new snapshot shares
+ * every unchanged record, and almost all of the vector's structure, with the old one, so a writer thread can publish
+ * updates (through a volatile field or an {@link java.util.concurrent.atomic.AtomicReference}) while reader threads
+ * keep using whichever snapshot they already have.
+ *
+ * <pre>{@code
+ * PdbDatabaseSnapshot<R, A, S> updated = current.toBuilder()
+ *         .setRecord(3, changedRecord)
+ *         .addRecord(newRecord)
+ *         .modificationNumber(current.getModificationNumber() + 1)
+ *         .build();
+ * }</pre>
+ *
+ * The snapshot holds references to its records, AppInfo and SortInfo rather than copies, so those objects must not be
+ * modified once they are in a snapshot; replace them through the builder instead.
+ *
+ * @param <R> The type of records
+ * @param <A> The type of app info
+ * @param <S> The type of sort info
+ */
+@Value
+public class PdbDatabaseSnapshot<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+    boolean useUnixEpochTime;
+    String name;
+    short fileAttributes;
+    short version;
+    Instant creationInstant;
+    Instant modificationInstant;
+    Instant backupInstant;
+    int modificationNumber;
+    String databaseType;
+    String creatorId;
+    int uniqueIdSeed;
+    int nextRecordList;
+    A appInfo;
+    S sortInfo;
+    PersistentVector<R> records;
+
+    /**
+     * Index of record unique IDs, built on first lookup.
+     */
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    UniqueIdIndex uniqueIdIndex = UniqueIdIndex.of(records);
+
+    @Builder(toBuilder = true)
+    private PdbDatabaseSnapshot(boolean useUnixEpochTime, String name, short fileAttributes, short version,
+                                Instant creationInstant, Instant modificationInstant, Instant backupInstant,
+                                int modificationNumber, String databaseType, String creatorId, int uniqueIdSeed,
+                                int nextRecordList, A appInfo, S sortInfo, PersistentVector<R> records) {
+        this.useUnixEpochTime = useUnixEpochTime;
+        this.name = name;
+        this.fileAttributes = fileAttributes;
+        this.version = version;
+        this.creationInstant = creationInstant;
+        this.modificationInstant = modificationInstant;
+        this.backupInstant = backupInstant;
+        this.modificationNumber = modificationNumber;
+        this.databaseType = databaseType;
+        this.creatorId = creatorId;
+        this.uniqueIdSeed = uniqueIdSeed;
+        this.nextRecordList = nextRecordList;
+        this.appInfo = appInfo;
+        this.sortInfo = sortInfo;
+        this.records = (records == null) ? PersistentVector.<R>empty() : records;
+    }
+
+    /**
+     * Create a snapshot of a database. The records, AppInfo and SortInfo are shared with the database, not copied; a
+     * database read in lazy mode has all of its records decoded.
+     *
+     * @param database The database to take a snapshot of
+     * @param <R> The type of records
+     * @param <A> The type of app info
+     * @param <S> The type of sort info
+     * @return the snapshot
+     */
+    public static <R extends PdbRecord, A extends AppInfo, S extends SortInfo> PdbDatabaseSnapshot<R, A, S> of(
+            PdbDatabase<R, A, S> database) {
+        return PdbDatabaseSnapshot.<R, A, S>builder()
+                .useUnixEpochTime(database.isUseUnixEpochTime())
+                .name(database.getName())
+                .fileAttributes(database.getFileAttributes())
+                .version(database.getVersion())
+                .creationInstant(database.getCreationInstant())
+                .modificationInstant(database.getModificationInstant())
+                .backupInstant(database.getBackupInstant())
+                .modificationNumber(database.getModificationNumber())
+                .databaseType(database.getDatabaseType())
+                .creatorId(database.getCreatorId())
+                .uniqueIdSeed(database.getUniqueIdSeed())
+                .nextRecordList(database.getNextRecordList())
+                .appInfo(database.getAppInfo())
+                .sortInfo(database.getSortInfo())
+                .records((database.getRecords() == null)
+                        ? PersistentVector.<R>empty()
+                        : PersistentVector.of(database.getRecords()))
+                .build();
+    }
+
+    /**
+     * Create a {@link PdbDatabase} with this snapshot's contents. The database's record list is this snapshot's
+     * read-only vector; replace it with {@link PdbDatabase#setRecords} to edit the database's records.
+     *
+     * @return the database
+     */
+    public PdbDatabase<R, A, S> toDatabase() {
+        PdbDatabase<R, A, S> database = new PdbDatabase<>();
+        database.setUseUnixEpochTime(useUnixEpochTime);
+        database.setName(name);
+        database.setFileAttributes(fileAttributes);
+        database.setVersion(version);
+        database.setCreationInstant(creationInstant);
+        database.setModificationInstant(modificationInstant);
+        database.setBackupInstant(backupInstant);
+        database.setModificationNumber(modificationNumber);
+        database.setDatabaseType(databaseType);
+        database.setCreatorId(creatorId);
+        database.setUniqueIdSeed(uniqueIdSeed);
+        database.setNextRecordList(nextRecordList);
+        database.setAppInfo(appInfo);
+        database.setSortInfo(sortInfo);
+        database.setRecords(records);
+        return database;
+    }
+
+    public int getNumberOfRecords() {
+        return records.size();
+    }
+
+    /**
+     * Find a record by its unique ID in constant time. The index is built on the first lookup and is safe to use from
+     * several threads.
+     *
+     * @param uniqueId The unique ID to look up
+     * @return the record, or null if no record has the unique ID
+     */
+    public R getRecordByUniqueId(int uniqueId) {
+        int index = getUniqueIdIndex().indexOf(uniqueId);
+        return (index < 0) ? null : records.get(index);
+    }
+
+    /**
+     * Write the snapshot to the filesystem. The file is streamed to disk by a {@link PdbWriter}.
+     *
+     * @param filePath Path to write the file to
+     * @throws IOException if there is a problem writing the file
+     */
+    public void writeToFile(String filePath) throws IOException {
+        new PdbWriter(toDatabase()).write(Paths.get(filePath));
+    }
+
+    /**
+     * Convert the snapshot to a raw byte array
+     *
+     * @return byte array representation of the PDB database
+     */
+    public byte[] toByteArray() {
+        return new PdbWriter(toDatabase()).toByteArray();
+    }
+
+    /**
+     * Builds snapshots. The record methods edit the builder's {@link PersistentVector}, so building a snapshot after a
+     * few edits doesn't copy the unchanged records.
+     */
+    public static class PdbDatabaseSnapshotBuilder<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+        /**
+         * Add a record to the end of the record list.
+         *
+         * @param record The record to add
+         * @return this builder
+         */
+        public PdbDatabaseSnapshotBuilder<R, A, S> addRecord(R record) {
+            records = currentRecords().append(record);
+            return this;
+        }
+
+        /**
+         * Replace a record.
+         *
+         * @param index Index of the record to replace
+         * @param record The new record
+         * @return this builder
+         */
+        public PdbDatabaseSnapshotBuilder<R, A, S> setRecord(int index, R record) {
+            records = currentRecords().with(index, record);
+            return this;
+        }
+
+        /**
+         * Remove a record. Records after it move down by one, so the record vector is rebuilt, though the records
+         * themselves are still shared.
+         *
+         * @param index Index of the record to remove
+         * @return this builder
+         */
+        public PdbDatabaseSnapshotBuilder<R, A, S> removeRecord(int index) {
+            records = currentRecords().without(index);
+            return this;
+        }
+
+        private PersistentVector<R> currentRecords() {
+            return (records == null) ? PersistentVector.<R>empty() : records;
+        }
+    }
+}
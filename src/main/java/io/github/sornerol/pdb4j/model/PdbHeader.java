@@ -0,0 +1,187 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.Calendar;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Immutable copy of the 78-byte header of a PDB database, optionally with its record header table.
+ *
+ * Timestamps are kept as raw Palm OS timestamps, so reading a header doesn't allocate any {@link Calendar}s. Use
+ * {@link #getCreationInstant()} or {@link #getCreationTime()} and friends to convert them.
+ *
+ * Record and resource databases share this header, so the readers and writers for both decode it with
+ * {@link #parse(ByteBuffer, RecordHeaderTable)} and encode it with {@link #toByteArray()}.
+ */
+@Value
+@Builder
+public class PdbHeader {
+    String name;
+    short fileAttributes;
+    short version;
+    int creationTimestamp;
+    int modificationTimestamp;
+    int backupTimestamp;
+    int modificationNumber;
+    int appInfoOffset;
+    int sortInfoOffset;
+    String databaseType;
+    String creatorId;
+    int uniqueIdSeed;
+    int nextRecordList;
+    /**
+     * The number of records in the database, read as an unsigned 16-bit value.
+     */
+    int numberOfRecords;
+    /**
+     * The record header table, or null if it wasn't read along with the header.
+     */
+    RecordHeaderTable recordHeaders;
+
+    /**
+     * Decode the header from the first 78 bytes of a big-endian buffer. The buffer's position is not changed.
+     *
+     * @param data The file data
+     * @param recordHeaders The record header table, or null if it wasn't read
+     * @return the header
+     */
+    public static PdbHeader parse(ByteBuffer data, RecordHeaderTable recordHeaders) {
+        return PdbHeader.builder()
+                .name(getNullTerminatedString(data, NAME_OFFSET, NAME_LENGTH_BYTES))
+                .fileAttributes(data.getShort(FILE_ATTRIBUTES_OFFSET))
+                .version(data.getShort(VERSION_OFFSET))
+                .creationTimestamp(data.getInt(CREATION_TIME_OFFSET))
+                .modificationTimestamp(data.getInt(MODIFICATION_TIME_OFFSET))
+                .backupTimestamp(data.getInt(BACKUP_TIME_OFFSET))
+                .modificationNumber(data.getInt(MODIFICATION_NUMBER_OFFSET))
+                .appInfoOffset(data.getInt(APP_INFO_OFFSET))
+                .sortInfoOffset(data.getInt(SORT_INFO_OFFSET))
+                .databaseType(PalmStringUtil.decode(data, DATABASE_TYPE_OFFSET, 4))
+                .creatorId(PalmStringUtil.decode(data, CREATOR_ID_OFFSET, 4))
+                .uniqueIdSeed(data.getInt(UNIQUE_ID_SEED_OFFSET))
+                .nextRecordList(data.getInt(NEXT_RECORD_LIST_OFFSET))
+                .numberOfRecords(data.getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF)
+                .recordHeaders(recordHeaders)
+                .build();
+    }
+
+    /**
+     * Build the header for writing a database, from its header fields and the file's layout.
+     *
+     * @param database The database being written
+     * @param fileAttributes The file attributes to write, which may differ from the database's
+     * @param appInfoOffset The offset of the app info area, or 0 if there is none
+     * @param sortInfoOffset The offset of the sort info area, or 0 if there is none
+     * @param numberOfRecords The number of records or resources, at most 65535
+     * @return the header
+     */
+    public static PdbHeader of(DatabaseHeaderFields database, short fileAttributes, int appInfoOffset,
+                               int sortInfoOffset, int numberOfRecords) {
+        boolean useUnixEpochTime = database.isUseUnixEpochTime();
+        return PdbHeader.builder()
+                .name(database.getName())
+                .fileAttributes(fileAttributes)
+                .version(database.getVersion())
+                .creationTimestamp(PalmDateUtil.pdbTimestampFromInstant(database.getCreationInstant(),
+                        useUnixEpochTime))
+                .modificationTimestamp(PalmDateUtil.pdbTimestampFromInstant(database.getModificationInstant(),
+                        useUnixEpochTime))
+                .backupTimestamp(PalmDateUtil.pdbTimestampFromInstant(database.getBackupInstant(), useUnixEpochTime))
+                .modificationNumber(database.getModificationNumber())
+                .appInfoOffset(appInfoOffset)
+                .sortInfoOffset(sortInfoOffset)
+                .databaseType(database.getDatabaseType())
+                .creatorId(database.getCreatorId())
+                .uniqueIdSeed(database.getUniqueIdSeed())
+                .nextRecordList(database.getNextRecordList())
+                .numberOfRecords(numberOfRecords)
+                .build();
+    }
+
+    /**
+     * Copy this header's fields onto a database. The offsets, record count and record header table describe the
+     * file's layout and aren't copied.
+     *
+     * @param database The database to update
+     */
+    public void applyTo(DatabaseHeaderFields database) {
+        database.setName(name);
+        database.setFileAttributes(fileAttributes);
+        database.setVersion(version);
+        database.setCreationInstant(getCreationInstant());
+        database.setModificationInstant(getModificationInstant());
+        database.setBackupInstant(getBackupInstant());
+        database.setModificationNumber(modificationNumber);
+        database.setDatabaseType(databaseType);
+        database.setCreatorId(creatorId);
+        database.setUniqueIdSeed(uniqueIdSeed);
+        database.setNextRecordList(nextRecordList);
+    }
+
+    /**
+     * Encode the header as the first 78 bytes of a file. The record header table isn't included.
+     *
+     * @return the encoded header
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_HEADER_LENGTH_BYTES);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        ByteBuffer nameBuffer = ByteBuffer.allocate(NAME_LENGTH_BYTES);
+        nameBuffer.put(PalmStringUtil.encode(name));
+        buffer.put(nameBuffer.array());
+        buffer.putShort(fileAttributes);
+        buffer.putShort(version);
+        buffer.putInt(creationTimestamp);
+        buffer.putInt(modificationTimestamp);
+        buffer.putInt(backupTimestamp);
+        buffer.putInt(modificationNumber);
+        buffer.putInt(appInfoOffset);
+        buffer.putInt(sortInfoOffset);
+        buffer.put(PalmStringUtil.encode(databaseType));
+        buffer.put(PalmStringUtil.encode(creatorId));
+        buffer.putInt(uniqueIdSeed);
+        buffer.putInt(nextRecordList);
+        buffer.putShort((short) numberOfRecords);
+        return buffer.array();
+    }
+
+    public Instant getCreationInstant() {
+        return PalmDateUtil.instantFromPdbTime(creationTimestamp);
+    }
+
+    public Instant getModificationInstant() {
+        return PalmDateUtil.instantFromPdbTime(modificationTimestamp);
+    }
+
+    public Instant getBackupInstant() {
+        return PalmDateUtil.instantFromPdbTime(backupTimestamp);
+    }
+
+    public Calendar getCreationTime() {
+        return PalmDateUtil.calendarFromPdbTime(creationTimestamp);
+    }
+
+    public Calendar getModificationTime() {
+        return PalmDateUtil.calendarFromPdbTime(modificationTimestamp);
+    }
+
+    public Calendar getBackupTime() {
+        return PalmDateUtil.calendarFromPdbTime(backupTimestamp);
+    }
+
+    private static String getNullTerminatedString(ByteBuffer data, int offset, int maxLength) {
+        int length = 0;
+        while (length < maxLength && data.get(offset + length) != 0) {
+            length++;
+        }
+        return PalmStringUtil.decode(data, offset, length);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single resource in a resource (PRC) database. A resource is identified by a four-character type, such as
+ * {@code tAIB} or {@code tver}, and a 16-bit ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdbResource {
+    /**
+     * The resource's four-character type.
+     */
+    private String type;
+
+    /**
+     * The resource's 16-bit ID.
+     */
+    private int id;
+
+    /**
+     * The resource's raw data.
+     */
+    private byte[] data;
+
+    /**
+     * Get the resource's type as a packed four-byte code. See {@link #typeCode(String)}.
+     *
+     * @return the type code
+     */
+    public int getTypeCode() {
+        return typeCode(type);
+    }
+
+    /**
+     * Pack a four-character resource type into an int, as it is stored in the resource header table.
+     *
+     * @param type The resource type
+     * @return the Palm OS encoded type as a big-endian int
+     */
+    public static int typeCode(String type) {
+        byte[] bytes = PalmStringUtil.encode(type);
+        if (bytes.length != 4) {
+            throw new IllegalArgumentException("Resource type must be 4 characters, but was '" + type + "'.");
+        }
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    /**
+     * Unpack a resource type code. See {@link #typeCode(String)}.
+     *
+     * @param typeCode The type code
+     * @return the four-character resource type
+     */
+    public static String typeString(int typeCode) {
+        byte[] bytes = {(byte) (typeCode >>> 24), (byte) (typeCode >>> 16), (byte) (typeCode >>> 8), (byte) typeCode};
+        return PalmStringUtil.decode(bytes, 0, 4);
+    }
+}
@@ -0,0 +1,313 @@
+package io.github.sornerol.pdb4j.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list that shares structure between versions.
+ *
+ * Elements are stored in a 32-way trie, with the last 1-32 elements held in a separate tail array. Lookups and
+ * {@link #with(int, Object) replacing an element} take O(log32 n) steps, which is at most 4 for any database. An edit
+ * copies only the trie nodes on the path to the changed element, and {@link #append(Object)} and
+ * {@link #removeLast()} usually copy only the tail, so older versions stay valid and unchanged while sharing almost
+ * all of their nodes with newer ones.
+ *
+ * The list is safe to share between threads without locking. The {@link java.util.List} mutators throw
+ * {@link UnsupportedOperationException}; use the methods that return a new vector instead.
+ *
+ * @param <E> The type of elements
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Get the empty vector.
+     *
+     * @param <E> The type of elements
+     * @return the empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Create a vector holding the elements of a collection, in iteration order. The trie is built bottom-up in a
+     * single pass.
+     *
+     * @param elements The elements
+     * @param <E> The type of elements
+     * @return the vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> of(Collection<? extends E> elements) {
+        if (elements instanceof PersistentVector) {
+            return (PersistentVector<E>) elements;
+        }
+        return ofArray(elements.toArray());
+    }
+
+    /**
+     * Build a vector from an array that no one else holds a reference to.
+     */
+    private static <E> PersistentVector<E> ofArray(Object[] array) {
+        int size = array.length;
+        if (size == 0) {
+            return empty();
+        }
+        int tailOffset = tailOffset(size);
+        Object[] tail = Arrays.copyOfRange(array, tailOffset, size);
+
+        Object[][] nodes = new Object[tailOffset / WIDTH][];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = Arrays.copyOfRange(array, i * WIDTH, (i + 1) * WIDTH);
+        }
+        int shift = 0;
+        do {
+            Object[][] parents = new Object[(nodes.length + MASK) / WIDTH][];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Object[WIDTH];
+                int count = Math.min(WIDTH, nodes.length - i * WIDTH);
+                System.arraycopy(nodes, i * WIDTH, parents[i], 0, count);
+            }
+            nodes = parents;
+            shift += BITS;
+        } while (nodes.length > 1);
+        Object[] root = (nodes.length == 0) ? EMPTY_NODE : nodes[0];
+        return new PersistentVector<>(size, shift, root, tail);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index);
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * Get a vector with one element replaced. This vector is not changed.
+     *
+     * @param index Index of the element to replace
+     * @param element The new element
+     * @return the new vector
+     */
+    public PersistentVector<E> with(int index, E element) {
+        checkIndex(index);
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, with(shift, root, index, element), tail);
+    }
+
+    /**
+     * Get a vector with an element added to the end. This vector is not changed.
+     *
+     * @param element The element to add
+     * @return the new vector
+     */
+    public PersistentVector<E> append(E element) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        // The tail is full: move it into the trie and start a new one.
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    /**
+     * Get a vector with the last element removed. This vector is not changed.
+     *
+     * @return the new vector
+     * @throws NoSuchElementException if the vector is empty
+     */
+    public PersistentVector<E> removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("The vector is empty.");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        if (size - tailOffset(size) > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        // The tail would be empty: the last leaf of the trie becomes the new tail.
+        Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * Get a vector with an element removed. Elements after it move down by one, so every leaf after the removed element
+     * changes; the remaining element references are copied once into an array and the new vector is built from it as
+     * by {@link #of(Collection)}, in O(n). The elements themselves are never copied. This vector is not changed.
+     *
+     * @param index Index of the element to remove
+     * @return the new vector
+     */
+    public PersistentVector<E> without(int index) {
+        checkIndex(index);
+        Object[] elements = new Object[size - 1];
+        for (int start = 0; start < size; start += WIDTH) {
+            Object[] leaf = leafFor(start);
+            int length = Math.min(WIDTH, size - start);
+            if (index < start) {
+                System.arraycopy(leaf, 0, elements, start - 1, length);
+            } else if (index >= start + length) {
+                System.arraycopy(leaf, 0, elements, start, length);
+            } else {
+                int before = index - start;
+                System.arraycopy(leaf, 0, elements, start, before);
+                System.arraycopy(leaf, before + 1, elements, index, length - before - 1);
+            }
+        }
+        return ofArray(elements);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    private static int tailOffset(int size) {
+        return (size < WIDTH) ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static Object[] with(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = with(level - BITS, (Object[]) node[child], index, element);
+        }
+        return copy;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int child = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        Object[] nodeToInsert;
+        if (level == BITS) {
+            nodeToInsert = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[child];
+            nodeToInsert = (existing != null)
+                    ? pushTail(level - BITS, existing, tailNode)
+                    : newPath(level - BITS, tailNode);
+        }
+        copy[child] = nodeToInsert;
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private Object[] popTail(int level, Object[] node) {
+        int child = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Object[] newChild = popTail(level - BITS, (Object[]) node[child]);
+            if (newChild == null && child == 0) {
+                return null;
+            }
+            Object[] copy = node.clone();
+            copy[child] = newChild;
+            return copy;
+        }
+        if (child == 0) {
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[child] = null;
+        return copy;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
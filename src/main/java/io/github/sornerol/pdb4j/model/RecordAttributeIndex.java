@@ -0,0 +1,149 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+
+import java.util.BitSet;
+
+/**
+ * Bitmap indexes over the attribute bytes in a record header table: one bitmap per category (0-15) and one per flag
+ * (secret, busy, dirty and delete). Bit {@code i} of a bitmap is set if record {@code i} matches.
+ *
+ * The index is built from the record header table alone, so records can be filtered without decoding any of them.
+ * Queries return new {@link BitSet}s that the caller may modify.
+ */
+public final class RecordAttributeIndex {
+    /**
+     * Pass as the category to {@link #query(int, int, int)} to match records in any category.
+     */
+    public static final int ANY_CATEGORY = -1;
+
+    private static final int NUMBER_OF_CATEGORIES = 16;
+    private static final int FIRST_FLAG_BIT = 4;
+    private static final int NUMBER_OF_FLAGS = 4;
+
+    private final int numberOfRecords;
+    private final BitSet[] categories = new BitSet[NUMBER_OF_CATEGORIES];
+    private final BitSet[] flags = new BitSet[NUMBER_OF_FLAGS];
+
+    private RecordAttributeIndex(RecordHeaderTable recordHeaders) {
+        numberOfRecords = recordHeaders.size();
+        for (int i = 0; i < NUMBER_OF_CATEGORIES; i++) {
+            categories[i] = new BitSet(numberOfRecords);
+        }
+        for (int i = 0; i < NUMBER_OF_FLAGS; i++) {
+            flags[i] = new BitSet(numberOfRecords);
+        }
+        for (int record = 0; record < numberOfRecords; record++) {
+            int attributes = recordHeaders.getAttributes(record) & 0xFF;
+            categories[attributes & AbstractPdbRecord.CATEGORY_MASK].set(record);
+            for (int flag = 0; flag < NUMBER_OF_FLAGS; flag++) {
+                if ((attributes & (1 << (FIRST_FLAG_BIT + flag))) != 0) {
+                    flags[flag].set(record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the indexes for a record header table.
+     *
+     * @param recordHeaders The record header table to index
+     * @return the index
+     */
+    public static RecordAttributeIndex of(RecordHeaderTable recordHeaders) {
+        return new RecordAttributeIndex(recordHeaders);
+    }
+
+    /**
+     * Get the number of records the index was built from.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return numberOfRecords;
+    }
+
+    /**
+     * Get the records in a category.
+     *
+     * @param category The category value (0-15)
+     * @return the indexes of the matching records
+     */
+    public BitSet inCategory(int category) {
+        return (BitSet) categories[checkCategory(category)].clone();
+    }
+
+    /**
+     * Get the records with all of the given flags set.
+     *
+     * @param requiredFlags One or more of the attribute flags in {@link AbstractPdbRecord}, OR'd together
+     * @return the indexes of the matching records
+     */
+    public BitSet withFlags(int requiredFlags) {
+        return query(ANY_CATEGORY, requiredFlags, 0);
+    }
+
+    /**
+     * @return the indexes of the records with the secret flag set
+     */
+    public BitSet getSecret() {
+        return withFlags(AbstractPdbRecord.SECRET_ATTRIBUTE);
+    }
+
+    /**
+     * @return the indexes of the records with the busy flag set
+     */
+    public BitSet getBusy() {
+        return withFlags(AbstractPdbRecord.BUSY_ATTRIBUTE);
+    }
+
+    /**
+     * @return the indexes of the records with the dirty flag set
+     */
+    public BitSet getDirty() {
+        return withFlags(AbstractPdbRecord.DIRTY_ATTRIBUTE);
+    }
+
+    /**
+     * @return the indexes of the records with the delete flag set
+     */
+    public BitSet getDelete() {
+        return withFlags(AbstractPdbRecord.DELETE_ATTRIBUTE);
+    }
+
+    /**
+     * Get the records in a category that have all of the required flags set and none of the excluded flags. For
+     * example, {@code query(3, DIRTY_ATTRIBUTE, DELETE_ATTRIBUTE)} finds the dirty, non-deleted records in category 3.
+     *
+     * @param category The category value (0-15), or {@link #ANY_CATEGORY}
+     * @param requiredFlags Attribute flags that must be set, OR'd together
+     * @param excludedFlags Attribute flags that must not be set, OR'd together
+     * @return the indexes of the matching records
+     */
+    public BitSet query(int category, int requiredFlags, int excludedFlags) {
+        BitSet result;
+        if (category == ANY_CATEGORY) {
+            result = new BitSet(numberOfRecords);
+            result.set(0, numberOfRecords);
+        } else {
+            result = inCategory(category);
+        }
+        for (int flag = 0; flag < NUMBER_OF_FLAGS; flag++) {
+            int mask = 1 << (FIRST_FLAG_BIT + flag);
+            if ((requiredFlags & mask) != 0) {
+                result.and(flags[flag]);
+            }
+            if ((excludedFlags & mask) != 0) {
+                result.andNot(flags[flag]);
+            }
+        }
+        return result;
+    }
+
+    private static int checkCategory(int category) {
+        if (category < 0 || category >= NUMBER_OF_CATEGORIES) {
+            throw new IllegalArgumentException("Category must be between 0 and 15, but was " + category + ".");
+        }
+        return category;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.sornerol.pdb4j.model;
+
+/**
+ * The record header table of a PDB database, held as primitive arrays.
+ *
+ * Each entry holds the offset of a record's data, the record's attribute byte and its 24-bit unique ID. A record's data
+ * ends where the next record's data begins; the last record ends at the end of the file.
+ */
+public final class RecordHeaderTable {
+    private final int[] offsets;
+    private final byte[] attributes;
+    private final int[] uniqueIds;
+    private final int endOffset;
+
+    public RecordHeaderTable(int[] offsets, byte[] attributes, int[] uniqueIds, int endOffset) {
+        this.offsets = offsets;
+        this.attributes = attributes;
+        this.uniqueIds = uniqueIds;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Get the number of entries in the table
+     *
+     * @return the number of records in the database
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Get the offset of a record's data
+     *
+     * @param index Index of the record
+     * @return offset of the first byte of the record's data
+     */
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Get the offset just past the end of a record's data
+     *
+     * @param index Index of the record
+     * @return offset of the next record's data, or the file length for the last record
+     */
+    public int getEndOffset(int index) {
+        return (index + 1 < offsets.length) ? offsets[index + 1] : endOffset;
+    }
+
+    /**
+     * Get the length of a record's data
+     *
+     * @param index Index of the record
+     * @return length of the record's data in bytes
+     */
+    public int getRecordLength(int index) {
+        return getEndOffset(index) - offsets[index];
+    }
+
+    /**
+     * Get a record's attributes
+     *
+     * @param index Index of the record
+     * @return the attribute byte from the record's header
+     */
+    public byte getAttributes(int index) {
+        return attributes[index];
+    }
+
+    /**
+     * Get a record's unique ID
+     *
+     * @param index Index of the record
+     * @return the 24-bit unique ID from the record's header
+     */
+    public int getUniqueId(int index) {
+        return uniqueIds[index];
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.util.PdbDatabaseConstants;
+import io.github.sornerol.pdb4j.writer.PrcWriter;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A resource (PRC) database, such as a Palm OS application. The header is the same as a {@link PdbDatabase}'s, with
+ * the resource database bit set in the file attributes, but the database holds {@link PdbResource}s identified by type
+ * and ID instead of records. The AppInfo and SortInfo areas, which resource databases rarely use, are kept as raw
+ * bytes.
+ */
+@Data
+public class ResourceDatabase implements DatabaseHeaderFields {
+    private boolean useUnixEpochTime;
+    private String name;
+    private short fileAttributes;
+    private short version;
+    private Instant creationInstant;
+    private Instant modificationInstant;
+    private Instant backupInstant;
+    private int modificationNumber;
+    private String databaseType;
+    private String creatorId;
+    private int uniqueIdSeed;
+    private int nextRecordList;
+    private byte[] appInfo;
+    private byte[] sortInfo;
+    private List<PdbResource> resources;
+
+    /**
+     * Index of resource types and IDs, built on first lookup. Readers may provide one built from the resource header
+     * table through {@link #setResources(List, ResourceIndex)}.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private ResourceIndex resourceIndex;
+
+    public ResourceDatabase() {
+        fileAttributes = (short) PdbDatabaseConstants.RESOURCE_DATABASE_ATTRIBUTE;
+        resources = new ArrayList<>();
+    }
+
+    public short getNumberOfResources() {
+        if (resources == null) {
+            return 0;
+        }
+        return (short) resources.size();
+    }
+
+    public void setResources(List<PdbResource> resources) {
+        this.resources = resources;
+        this.resourceIndex = null;
+    }
+
+    /**
+     * Set the resources along with an index of their types and IDs, such as one built from the resource header table
+     * while reading. The index must have been built from these resources, in order.
+     *
+     * @param resources The resources
+     * @param resourceIndex An index of the resources' types and IDs
+     */
+    public void setResources(List<PdbResource> resources, ResourceIndex resourceIndex) {
+        this.resources = resources;
+        this.resourceIndex = resourceIndex;
+    }
+
+    /**
+     * Find a resource by type and ID in constant time.
+     *
+     * The lookup uses a {@link ResourceIndex} that is built on first use. A hit is checked against the resource's
+     * current type and ID, and the index is rebuilt if resources were added or removed since it was built. If a
+     * resource's type or ID is changed in place, call {@link #rebuildResourceIndex()} so it can be found under its new
+     * key.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the resource, or null if there is no such resource
+     */
+    public PdbResource getResource(String type, int id) {
+        int index = indexOfResource(type, id);
+        return (index < 0) ? null : resources.get(index);
+    }
+
+    /**
+     * Find the index of a resource by type and ID in constant time. See {@link #getResource(String, int)}.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the resource's index, or -1 if there is no such resource
+     */
+    public int indexOfResource(String type, int id) {
+        if (resources == null) {
+            return -1;
+        }
+        if (resourceIndex == null || resourceIndex.size() != resources.size()) {
+            rebuildResourceIndex();
+        }
+        int typeCode = PdbResource.typeCode(type);
+        int index = resourceIndex.indexOf(typeCode, id);
+        if (index >= 0 && !hasKey(index, typeCode, id)) {
+            rebuildResourceIndex();
+            index = resourceIndex.indexOf(typeCode, id);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuild the resource index from the current resources.
+     */
+    public void rebuildResourceIndex() {
+        resourceIndex = ResourceIndex.of(resources);
+    }
+
+    private boolean hasKey(int index, int typeCode, int id) {
+        PdbResource resource = resources.get(index);
+        return resource.getTypeCode() == typeCode && resource.getId() == (id & 0xFFFF);
+    }
+
+    /**
+     * Write the resource database to the filesystem. The file is streamed to disk by a {@link PrcWriter}.
+     *
+     * @param filePath Path to write the file to
+     */
+    public void writeToFile(String filePath) throws IOException {
+        new PrcWriter(this).write(Paths.get(filePath));
+    }
+
+    /**
+     * Convert the resource database to a raw byte array
+     *
+     * @return byte array representation of the resource database
+     */
+    public byte[] toByteArray() {
+        return new PrcWriter(this).toByteArray();
+    }
+}
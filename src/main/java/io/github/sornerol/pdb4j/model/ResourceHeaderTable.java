@@ -0,0 +1,91 @@
+package io.github.sornerol.pdb4j.model;
+
+/**
+ * The resource header table of a resource (PRC) database, held as primitive arrays.
+ *
+ * Each entry holds a resource's packed type code (see {@link PdbResource#typeCode(String)}), its 16-bit ID and the
+ * offset of its data. A resource's data ends where the next resource's data begins; the last resource ends at the end
+ * of the file.
+ */
+public final class ResourceHeaderTable {
+    private final int[] types;
+    private final int[] ids;
+    private final int[] offsets;
+    private final int endOffset;
+
+    public ResourceHeaderTable(int[] types, int[] ids, int[] offsets, int endOffset) {
+        this.types = types;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Get the number of entries in the table
+     *
+     * @return the number of resources in the database
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Get a resource's type code
+     *
+     * @param index Index of the resource
+     * @return the packed four-byte type
+     */
+    public int getTypeCode(int index) {
+        return types[index];
+    }
+
+    /**
+     * Get a resource's type
+     *
+     * @param index Index of the resource
+     * @return the four-character type
+     */
+    public String getType(int index) {
+        return PdbResource.typeString(types[index]);
+    }
+
+    /**
+     * Get a resource's ID
+     *
+     * @param index Index of the resource
+     * @return the unsigned 16-bit ID
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Get the offset of a resource's data
+     *
+     * @param index Index of the resource
+     * @return offset of the first byte of the resource's data
+     */
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Get the offset just past the end of a resource's data
+     *
+     * @param index Index of the resource
+     * @return offset of the next resource's data, or the file length for the last resource
+     */
+    public int getEndOffset(int index) {
+        return (index + 1 < offsets.length) ? offsets[index + 1] : endOffset;
+    }
+
+    /**
+     * Get the length of a resource's data
+     *
+     * @param index Index of the resource
+     * @return length of the resource's data in bytes
+     */
+    public int getResourceLength(int index) {
+        return getEndOffset(index) - offsets[index];
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.sornerol.pdb4j.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps resource (type, ID) pairs to resource indexes in constant time.
+ *
+ * Each pair is packed into a single long key, and the index is an open-addressing hash table over primitive arrays, so
+ * lookups by type code don't box keys or allocate. If several resources share a type and ID, the first one is indexed.
+ */
+public final class ResourceIndex {
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private final int size;
+
+    private ResourceIndex(int[] types, int[] ids, int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < size; i++) {
+            put(key(types[i], ids[i]), i);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Build an index from a resource header table, without reading any resource data.
+     *
+     * @param resourceHeaders The resource header table to index
+     * @return the index
+     */
+    public static ResourceIndex of(ResourceHeaderTable resourceHeaders) {
+        int[] types = new int[resourceHeaders.size()];
+        int[] ids = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = resourceHeaders.getTypeCode(i);
+            ids[i] = resourceHeaders.getId(i);
+        }
+        return new ResourceIndex(types, ids, types.length);
+    }
+
+    /**
+     * Build an index from a list of resources.
+     *
+     * @param resources The resources to index
+     * @return the index
+     */
+    public static ResourceIndex of(List<PdbResource> resources) {
+        int[] types = new int[resources.size()];
+        int[] ids = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = resources.get(i).getTypeCode();
+            ids[i] = resources.get(i).getId();
+        }
+        return new ResourceIndex(types, ids, types.length);
+    }
+
+    /**
+     * Look up the index of a resource.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the index of the resource, or -1 if there is no such resource
+     */
+    public int indexOf(String type, int id) {
+        return indexOf(PdbResource.typeCode(type), id);
+    }
+
+    /**
+     * Look up the index of a resource by its packed type code.
+     *
+     * @param typeCode The resource's type code
+     * @param id The resource's ID
+     * @return the index of the resource, or -1 if there is no such resource
+     */
+    public int indexOf(int typeCode, int id) {
+        long key = key(typeCode, id);
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of resources the index was built from.
+     *
+     * @return the number of resources
+     */
+    public int size() {
+        return size;
+    }
+
+    private void put(long key, int value) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private static long key(int typeCode, int id) {
+        return (Integer.toUnsignedLong(typeCode) << 16) | (id & 0xFFFF);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps record unique IDs to record indexes in constant time.
+ *
+ * The index is an open-addressing hash table over primitive int arrays, so lookups don't box keys or allocate. If
+ * several records share a unique ID, the first one is indexed.
+ */
+public final class UniqueIdIndex {
+    private static final int EMPTY = -1;
+
+    private final int[] keys;
+    private final int[] values;
+    private final int mask;
+    private final int size;
+
+    private UniqueIdIndex(int[] uniqueIds, int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < size; i++) {
+            put(uniqueIds[i] & 0xFFFFFF, i);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Build an index from a record header table, without decoding any records.
+     *
+     * @param recordHeaders The record header table to index
+     * @return the index
+     */
+    public static UniqueIdIndex of(RecordHeaderTable recordHeaders) {
+        int[] uniqueIds = new int[recordHeaders.size()];
+        for (int i = 0; i < uniqueIds.length; i++) {
+            uniqueIds[i] = recordHeaders.getUniqueId(i);
+        }
+        return new UniqueIdIndex(uniqueIds, uniqueIds.length);
+    }
+
+    /**
+     * Build an index from a list of records.
+     *
+     * @param records The records to index
+     * @return the index
+     */
+    public static UniqueIdIndex of(List<? extends PdbRecord> records) {
+        int[] uniqueIds = new int[records.size()];
+        for (int i = 0; i < uniqueIds.length; i++) {
+            uniqueIds[i] = records.get(i).getUniqueId();
+        }
+        return new UniqueIdIndex(uniqueIds, uniqueIds.length);
+    }
+
+    /**
+     * Look up the index of the record with a unique ID.
+     *
+     * @param uniqueId The unique ID to look up
+     * @return the index of the record, or -1 if no record has the unique ID
+     */
+    public int indexOf(int uniqueId) {
+        int key = uniqueId & 0xFFFFFF;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of records the index was built from.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    private void put(int key, int value) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -5,4 +5,16 @@ package io.github.sornerol.pdb4j.model.appinfo;
  */
 public interface AppInfo {
     byte[] toBytes();
+
+    /**
+     * Get the number of bytes {@link #toBytes()} will return.
+     *
+     * The default implementation calls {@link #toBytes()}. Implementations with an expensive encoding should override
+     * it, so the size can be computed without encoding the area.
+     *
+     * @return size of the app info area in bytes
+     */
+    default int serializedSize() {
+        return toBytes().length;
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.sornerol.pdb4j.model.appinfo.impl;
+
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+
+/**
+ * The standard category block at the start of the AppInfo area of the built-in Palm OS applications (Address Book,
+ * Date Book, Memo Pad, To Do List) and of many third-party applications.
+ *
+ * The block holds a bitmap of renamed categories, 16 category names of up to 15 characters, 16 category unique IDs and
+ * the last unique ID used. The application-specific data that follows the block is kept as raw bytes. The raw AppInfo
+ * area is what {@link #toBytes()} returns.
+ */
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(onlyExplicitlyIncluded = true)
+public class CategoryAppInfo implements AppInfo {
+    public static final int NUMBER_OF_CATEGORIES = 16;
+    public static final int CATEGORY_BLOCK_LENGTH_BYTES = 276;
+
+    private static final int CATEGORY_NAME_LENGTH_BYTES = 16;
+    private static final int CATEGORY_NAMES_OFFSET = 2;
+    private static final int CATEGORY_IDS_OFFSET = CATEGORY_NAMES_OFFSET
+            + NUMBER_OF_CATEGORIES * CATEGORY_NAME_LENGTH_BYTES;
+    private static final int LAST_UNIQUE_ID_OFFSET = CATEGORY_IDS_OFFSET + NUMBER_OF_CATEGORIES;
+
+    /**
+     * The raw AppInfo area
+     */
+    @Getter
+    @EqualsAndHashCode.Include
+    private final byte[] data;
+
+    @ToString.Include
+    private final String[] categoryNames = new String[NUMBER_OF_CATEGORIES];
+
+    /**
+     * Create the AppInfo from a raw AppInfo area.
+     *
+     * @param data The AppInfo area
+     * @throws IllegalArgumentException if the area is shorter than the category block
+     */
+    public CategoryAppInfo(byte[] data) {
+        if (data.length < CATEGORY_BLOCK_LENGTH_BYTES) {
+            throw new IllegalArgumentException("AppInfo area is " + data.length + " byte(s), which is too short for "
+                    + "a category block (" + CATEGORY_BLOCK_LENGTH_BYTES + " bytes).");
+        }
+        this.data = data;
+        for (int i = 0; i < NUMBER_OF_CATEGORIES; i++) {
+            int offset = CATEGORY_NAMES_OFFSET + i * CATEGORY_NAME_LENGTH_BYTES;
+            int length = 0;
+            while (length < CATEGORY_NAME_LENGTH_BYTES && data[offset + length] != 0) {
+                length++;
+            }
+            categoryNames[i] = PalmStringUtil.decode(data, offset, length);
+        }
+    }
+
+    /**
+     * Get a category's name.
+     *
+     * @param category The category value (0-15)
+     * @return the name, or an empty string if the category is unused
+     */
+    public String getCategoryName(int category) {
+        return categoryNames[checkCategory(category)];
+    }
+
+    /**
+     * @return the names of all 16 categories; unused categories have empty names
+     */
+    public String[] getCategoryNames() {
+        return categoryNames.clone();
+    }
+
+    /**
+     * Find a category by name.
+     *
+     * @param name The category name
+     * @return the category value (0-15), or -1 if no category has the name
+     */
+    public int findCategory(String name) {
+        for (int i = 0; i < NUMBER_OF_CATEGORIES; i++) {
+            if (!categoryNames[i].isEmpty() && categoryNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param category The category value (0-15)
+     * @return true if the user has renamed the category
+     */
+    public boolean isRenamed(int category) {
+        int renamed = ((data[0] & 0xFF) << 8) | (data[1] & 0xFF);
+        return (renamed & (1 << checkCategory(category))) != 0;
+    }
+
+    /**
+     * @param category The category value (0-15)
+     * @return the category's unique ID
+     */
+    public int getCategoryUniqueId(int category) {
+        return data[CATEGORY_IDS_OFFSET + checkCategory(category)] & 0xFF;
+    }
+
+    /**
+     * @return the last category unique ID that was assigned
+     */
+    public int getLastUniqueId() {
+        return data[LAST_UNIQUE_ID_OFFSET] & 0xFF;
+    }
+
+    /**
+     * @return the application-specific data that follows the category block
+     */
+    public byte[] getApplicationData() {
+        return Arrays.copyOfRange(data, CATEGORY_BLOCK_LENGTH_BYTES, data.length);
+    }
+
+    @Override
+    public byte[] toBytes() {
+        return data;
+    }
+
+    @Override
+    public int serializedSize() {
+        return data.length;
+    }
+
+    private static int checkCategory(int category) {
+        if (category < 0 || category >= NUMBER_OF_CATEGORIES) {
+            throw new IllegalArgumentException("Category must be between 0 and 15, but was " + category + ".");
+        }
+        return category;
+    }
+}
@@ -17,4 +17,9 @@ public class GenericAppInfo implements AppInfo {
     public byte[] toBytes() {
         return data;
     }
+
+    @Override
+    public int serializedSize() {
+        return (data == null) ? 0 : data.length;
+    }
 }
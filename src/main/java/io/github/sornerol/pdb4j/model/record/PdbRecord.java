@@ -9,6 +9,24 @@ public interface PdbRecord {
 
     byte getAttributes();
 
+    /**
+     * Get the record's unique ID. The default implementation returns 0, for records that don't keep a unique ID.
+     * @return the 24-bit unique ID stored in the record's header
+     */
+    default int getUniqueId() {
+        return 0;
+    }
+
+    /**
+     * Set the record's unique ID. Only the lowest 24 bits are written to the PDB file.
+     *
+     * The default implementation ignores the unique ID, so records that don't keep one can still be read, and are
+     * written with a unique ID of 0. {@link io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord} keeps it.
+     * @param uniqueId the record's unique ID
+     */
+    default void setUniqueId(int uniqueId) {
+    }
+
     /**
      * Is the record secret
      * @return true if the secret flag is set in the record attributes
@@ -44,4 +62,19 @@ public interface PdbRecord {
      * @return the record's raw byte array
      */
     byte[] toBytes();
+
+    /**
+     * Get the number of bytes {@link #toBytes()} will return. Writers use this to compute record offsets before any
+     * record is encoded, so each record only has to be encoded once.
+     *
+     * The default implementation calls {@link #toBytes()}. {@link io.github.sornerol.pdb4j.writer.PdbWriter} detects
+     * records that don't override it and keeps the bytes it encodes for the layout, so those records are still only
+     * encoded once per write, but their encoded bytes are held in memory until they are written. Implementations that
+     * can compute the size directly should override it.
+     *
+     * @return the size of the record's data in bytes
+     */
+    default int serializedSize() {
+        return toBytes().length;
+    }
 }
@@ -0,0 +1,84 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Base class for records that keep their raw bytes and decode fields only when they are first accessed.
+ *
+ * The raw bytes are what {@link #toBytes()} returns, so a record that is read and written again is written unchanged.
+ * Decoded fields are cached by subclasses; caching is idempotent, so records can be read from several threads.
+ */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public abstract class AbstractLazyPdbRecord extends AbstractPdbRecord {
+
+    /**
+     * The record's raw data
+     */
+    @Getter
+    private final byte[] data;
+
+    protected AbstractLazyPdbRecord(byte attributes, byte[] data) {
+        super(attributes);
+        this.data = data;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        return data;
+    }
+
+    @Override
+    public int serializedSize() {
+        return data.length;
+    }
+
+    /**
+     * Get the unsigned byte at an offset, or 0 if the offset is past the end of the data.
+     */
+    protected int getUnsignedByte(int offset) {
+        return (offset < data.length) ? data[offset] & 0xFF : 0;
+    }
+
+    /**
+     * Get the big-endian unsigned short at an offset, or 0 if the offset is past the end of the data.
+     */
+    protected int getUnsignedShort(int offset) {
+        return (offset + 1 < data.length) ? ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF) : 0;
+    }
+
+    /**
+     * Get the big-endian int at an offset, or 0 if the offset is past the end of the data.
+     */
+    protected int getInt(int offset) {
+        return (offset + 3 < data.length) ? (getUnsignedShort(offset) << 16) | getUnsignedShort(offset + 2) : 0;
+    }
+
+    /**
+     * Find the end of the null-terminated string starting at an offset.
+     *
+     * @return the offset of the terminating null, or the length of the data if the string is unterminated
+     */
+    protected int findStringEnd(int offset) {
+        int end = offset;
+        while (end < data.length && data[end] != 0) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Decode the null-terminated string starting at an offset.
+     *
+     * @return the string, or null if the offset is past the end of the data
+     */
+    protected String decodeString(int offset) {
+        if (offset >= data.length) {
+            return null;
+        }
+        return PalmStringUtil.decode(data, offset, findStringEnd(offset) - offset);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import io.github.sornerol.pdb4j.mapping.PdbField;
+import io.github.sornerol.pdb4j.mapping.RecordCodec;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+
+/**
+ * Base class for records whose layout is described with {@link PdbField} annotations. {@link #toBytes()} and
+ * {@link #serializedSize()} are implemented by the class's {@link RecordCodec}, so subclasses only declare their
+ * fields. Read them with a {@link io.github.sornerol.pdb4j.reader.record.impl.MappedRecordReader}.
+ */
+public abstract class AbstractMappedPdbRecord extends AbstractPdbRecord {
+    public AbstractMappedPdbRecord(byte attributes) {
+        super(attributes);
+    }
+
+    public AbstractMappedPdbRecord() {
+    }
+
+    @Override
+    public byte[] toBytes() {
+        return codec().toBytes(this);
+    }
+
+    @Override
+    public int serializedSize() {
+        return codec().serializedSize(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecordCodec<PdbRecord> codec() {
+        return (RecordCodec<PdbRecord>) (RecordCodec<?>) RecordCodec.forClass(getClass());
+    }
+}
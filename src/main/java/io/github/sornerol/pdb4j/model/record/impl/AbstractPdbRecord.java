@@ -19,6 +19,11 @@ public abstract class AbstractPdbRecord implements PdbRecord {
      */
     private byte attributes;
 
+    /**
+     * The record's 24-bit unique ID.
+     */
+    private int uniqueId;
+
     public AbstractPdbRecord(byte attributes) {
         this.attributes = attributes;
     }
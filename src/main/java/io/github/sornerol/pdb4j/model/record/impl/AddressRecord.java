@@ -0,0 +1,137 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * A record from the Address Book database (AddressDB).
+ *
+ * The record starts with the phone label and display settings and a bitmap of the fields that are present, followed by
+ * each present field as a null-terminated string. The field offsets are found on the first field access, and each
+ * field is decoded the first time it is accessed.
+ */
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class AddressRecord extends AbstractLazyPdbRecord {
+
+    /**
+     * The fields of an address record, in the order they are stored.
+     */
+    public enum Field {
+        LAST_NAME, FIRST_NAME, COMPANY, PHONE_1, PHONE_2, PHONE_3, PHONE_4, PHONE_5, ADDRESS, CITY, STATE, ZIP,
+        COUNTRY, TITLE, CUSTOM_1, CUSTOM_2, CUSTOM_3, CUSTOM_4, NOTE
+    }
+
+    public static final int NUMBER_OF_PHONES = 5;
+
+    private static final Field[] FIELDS = Field.values();
+    private static final int PHONE_FLAGS_OFFSET = 0;
+    private static final int CONTENTS_OFFSET = 4;
+    private static final int FIRST_FIELD_OFFSET = 9;
+    private static final int ABSENT = -1;
+
+    private volatile int[] fieldOffsets;
+    private final String[] fields = new String[FIELDS.length];
+
+    public AddressRecord(byte attributes, byte[] data) {
+        super(attributes, data);
+    }
+
+    /**
+     * Get a field.
+     *
+     * @param field The field to get
+     * @return the field's value, or null if the record doesn't have the field
+     */
+    public String getField(Field field) {
+        int index = field.ordinal();
+        String result = fields[index];
+        if (result == null) {
+            int offset = fieldOffsets()[index];
+            if (offset == ABSENT) {
+                return null;
+            }
+            result = decodeString(offset);
+            fields[index] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the record has a field, without decoding it.
+     *
+     * @param field The field to check
+     * @return true if the record has the field
+     */
+    public boolean hasField(Field field) {
+        return fieldOffsets()[field.ordinal()] != ABSENT;
+    }
+
+    public String getLastName() {
+        return getField(Field.LAST_NAME);
+    }
+
+    public String getFirstName() {
+        return getField(Field.FIRST_NAME);
+    }
+
+    public String getCompany() {
+        return getField(Field.COMPANY);
+    }
+
+    public String getNote() {
+        return getField(Field.NOTE);
+    }
+
+    /**
+     * Get a phone number.
+     *
+     * @param phone The phone slot (0-4)
+     * @return the phone number, or null if the slot is empty
+     */
+    public String getPhone(int phone) {
+        return getField(FIELDS[Field.PHONE_1.ordinal() + checkPhone(phone)]);
+    }
+
+    /**
+     * Get the label of a phone slot, as an index into the phone labels in the database's AppInfo area.
+     *
+     * @param phone The phone slot (0-4)
+     * @return the label index
+     */
+    public int getPhoneLabel(int phone) {
+        // Slot 0 is in the lowest nibble of the 32-bit flags, slot 4 in the fifth.
+        return (getInt(PHONE_FLAGS_OFFSET) >>> (4 * checkPhone(phone))) & 0x0F;
+    }
+
+    /**
+     * @return the phone slot (0-4) shown in the address list
+     */
+    public int getDisplayPhone() {
+        return (getInt(PHONE_FLAGS_OFFSET) >>> 20) & 0x0F;
+    }
+
+    private int[] fieldOffsets() {
+        int[] offsets = fieldOffsets;
+        if (offsets == null) {
+            offsets = new int[FIELDS.length];
+            int contents = getInt(CONTENTS_OFFSET);
+            int offset = FIRST_FIELD_OFFSET;
+            for (int i = 0; i < offsets.length; i++) {
+                if ((contents & (1 << i)) != 0 && offset < getData().length) {
+                    offsets[i] = offset;
+                    offset = findStringEnd(offset) + 1;
+                } else {
+                    offsets[i] = ABSENT;
+                }
+            }
+            fieldOffsets = offsets;
+        }
+        return offsets;
+    }
+
+    private static int checkPhone(int phone) {
+        if (phone < 0 || phone >= NUMBER_OF_PHONES) {
+            throw new IllegalArgumentException("Phone must be between 0 and 4, but was " + phone + ".");
+        }
+        return phone;
+    }
+}
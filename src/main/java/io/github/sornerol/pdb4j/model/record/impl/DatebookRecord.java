@@ -0,0 +1,255 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A record from the Date Book database (DatebookDB).
+ *
+ * The record starts with the start and end times, the packed date and a flags byte that says which of the optional
+ * sections follow: alarm, repeat, exceptions, description and note. The section offsets are found on the first access
+ * to an optional section, and the description and note are decoded the first time they are accessed.
+ */
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class DatebookRecord extends AbstractLazyPdbRecord {
+    public static final int ALARM_UNIT_MINUTES = 0;
+    public static final int ALARM_UNIT_HOURS = 1;
+    public static final int ALARM_UNIT_DAYS = 2;
+
+    public static final int REPEAT_NONE = 0;
+    public static final int REPEAT_DAILY = 1;
+    public static final int REPEAT_WEEKLY = 2;
+    public static final int REPEAT_MONTHLY_BY_DAY = 3;
+    public static final int REPEAT_MONTHLY_BY_DATE = 4;
+    public static final int REPEAT_YEARLY = 5;
+
+    private static final int START_TIME_OFFSET = 0;
+    private static final int END_TIME_OFFSET = 2;
+    private static final int DATE_OFFSET = 4;
+    private static final int FLAGS_OFFSET = 6;
+    private static final int FIRST_SECTION_OFFSET = 8;
+    private static final int NO_TIME = 0xFFFF;
+
+    private static final int ALARM_FLAG = 0x40;
+    private static final int REPEAT_FLAG = 0x20;
+    private static final int NOTE_FLAG = 0x10;
+    private static final int EXCEPTIONS_FLAG = 0x08;
+    private static final int DESCRIPTION_FLAG = 0x04;
+
+    private static final int ALARM_LENGTH = 2;
+    private static final int REPEAT_LENGTH = 8;
+
+    // Indexes into the section offsets.
+    private static final int ALARM = 0;
+    private static final int REPEAT = 1;
+    private static final int EXCEPTIONS = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int NOTE = 4;
+    private static final int ABSENT = -1;
+
+    private volatile int[] sectionOffsets;
+    private String description;
+    private String note;
+
+    public DatebookRecord(byte attributes, byte[] data) {
+        super(attributes, data);
+    }
+
+    /**
+     * @return the event's date, or null if the stored date isn't a valid date
+     */
+    public LocalDate getDate() {
+        return PalmDateUtil.localDateFromPackedDate(getPackedDate());
+    }
+
+    /**
+     * @return the event's date as a packed Palm OS date
+     */
+    public int getPackedDate() {
+        return getUnsignedShort(DATE_OFFSET);
+    }
+
+    /**
+     * @return true if the event has no start and end time
+     */
+    public boolean isUntimed() {
+        return getUnsignedShort(START_TIME_OFFSET) == NO_TIME;
+    }
+
+    /**
+     * @return the start time, or null if the event is untimed or the stored time isn't a valid time
+     */
+    public LocalTime getStartTime() {
+        return getTime(START_TIME_OFFSET);
+    }
+
+    /**
+     * @return the end time, or null if the event is untimed or the stored time isn't a valid time
+     */
+    public LocalTime getEndTime() {
+        return getTime(END_TIME_OFFSET);
+    }
+
+    public boolean hasAlarm() {
+        return hasFlag(ALARM_FLAG);
+    }
+
+    /**
+     * @return how long before the event the alarm goes off, in {@link #getAlarmUnit() alarm units}, or 0 if there is
+     * no alarm
+     */
+    public int getAlarmAdvance() {
+        int offset = sectionOffsets()[ALARM];
+        return (offset == ABSENT) ? 0 : (byte) getUnsignedByte(offset);
+    }
+
+    /**
+     * @return one of the {@code ALARM_UNIT_} constants
+     */
+    public int getAlarmUnit() {
+        int offset = sectionOffsets()[ALARM];
+        return (offset == ABSENT) ? ALARM_UNIT_MINUTES : getUnsignedByte(offset + 1);
+    }
+
+    /**
+     * @return one of the {@code REPEAT_} constants
+     */
+    public int getRepeatType() {
+        int offset = sectionOffsets()[REPEAT];
+        return (offset == ABSENT) ? REPEAT_NONE : getUnsignedByte(offset);
+    }
+
+    /**
+     * @return the last date the event repeats on, or null if it doesn't repeat, repeats forever or the stored date
+     * isn't a valid date
+     */
+    public LocalDate getRepeatEndDate() {
+        int offset = sectionOffsets()[REPEAT];
+        return (offset == ABSENT) ? null : PalmDateUtil.localDateFromPackedDate(getUnsignedShort(offset + 2));
+    }
+
+    /**
+     * @return the repeat interval, in units of the repeat type, or 0 if the event doesn't repeat
+     */
+    public int getRepeatFrequency() {
+        int offset = sectionOffsets()[REPEAT];
+        return (offset == ABSENT) ? 0 : getUnsignedByte(offset + 4);
+    }
+
+    /**
+     * @return for weekly repeats, a bitmap of the days of the week (bit 0 is Sunday); for monthly-by-day repeats, the
+     * week and day of the month; otherwise 0
+     */
+    public int getRepeatOn() {
+        int offset = sectionOffsets()[REPEAT];
+        return (offset == ABSENT) ? 0 : getUnsignedByte(offset + 5);
+    }
+
+    /**
+     * @return the first day of the week for weekly repeats (0 is Sunday)
+     */
+    public int getRepeatWeekStart() {
+        int offset = sectionOffsets()[REPEAT];
+        return (offset == ABSENT) ? 0 : getUnsignedByte(offset + 6);
+    }
+
+    /**
+     * @return the dates on which a repeating event doesn't occur. Entries that aren't valid dates, and entries past
+     * the end of a truncated record, are left out.
+     */
+    public List<LocalDate> getExceptions() {
+        int offset = sectionOffsets()[EXCEPTIONS];
+        if (offset == ABSENT) {
+            return Collections.emptyList();
+        }
+        int count = exceptionCount(offset);
+        List<LocalDate> exceptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate exception = PalmDateUtil.localDateFromPackedDate(getUnsignedShort(offset + 2 + i * 2));
+            if (exception != null) {
+                exceptions.add(exception);
+            }
+        }
+        return exceptions;
+    }
+
+    /**
+     * @return the event's description, or an empty string if it has none
+     */
+    public String getDescription() {
+        String result = description;
+        if (result == null) {
+            result = decodeSection(DESCRIPTION);
+            description = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the event's note, or an empty string if it has none
+     */
+    public String getNote() {
+        String result = note;
+        if (result == null) {
+            result = decodeSection(NOTE);
+            note = result;
+        }
+        return result;
+    }
+
+    private String decodeSection(int section) {
+        int offset = sectionOffsets()[section];
+        String result = (offset == ABSENT) ? null : decodeString(offset);
+        return (result == null) ? "" : result;
+    }
+
+    private LocalTime getTime(int offset) {
+        if (isUntimed()) {
+            return null;
+        }
+        int hour = getUnsignedByte(offset);
+        int minute = getUnsignedByte(offset + 1);
+        if (hour > 23 || minute > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute);
+    }
+
+    /**
+     * Get the number of exception dates that are actually in the record, which is less than the stored count if the
+     * record is truncated.
+     */
+    private int exceptionCount(int offset) {
+        int available = Math.max(0, (getData().length - offset - 2) / 2);
+        return Math.min(getUnsignedShort(offset), available);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (getUnsignedByte(FLAGS_OFFSET) & flag) != 0;
+    }
+
+    private int[] sectionOffsets() {
+        int[] offsets = sectionOffsets;
+        if (offsets == null) {
+            offsets = new int[NOTE + 1];
+            int offset = FIRST_SECTION_OFFSET;
+            offsets[ALARM] = hasFlag(ALARM_FLAG) ? offset : ABSENT;
+            offset += hasFlag(ALARM_FLAG) ? ALARM_LENGTH : 0;
+            offsets[REPEAT] = hasFlag(REPEAT_FLAG) ? offset : ABSENT;
+            offset += hasFlag(REPEAT_FLAG) ? REPEAT_LENGTH : 0;
+            offsets[EXCEPTIONS] = hasFlag(EXCEPTIONS_FLAG) ? offset : ABSENT;
+            offset += hasFlag(EXCEPTIONS_FLAG) ? 2 + exceptionCount(offset) * 2 : 0;
+            offsets[DESCRIPTION] = hasFlag(DESCRIPTION_FLAG) ? offset : ABSENT;
+            offset = hasFlag(DESCRIPTION_FLAG) ? findStringEnd(offset) + 1 : offset;
+            offsets[NOTE] = hasFlag(NOTE_FLAG) ? offset : ABSENT;
+            sectionOffsets = offsets;
+        }
+        return offsets;
+    }
+}
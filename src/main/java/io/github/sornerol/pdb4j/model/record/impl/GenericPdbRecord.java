@@ -35,4 +35,9 @@ public class GenericPdbRecord extends AbstractPdbRecord {
     public byte[] toBytes() {
         return data;
     }
+
+    @Override
+    public int serializedSize() {
+        return (data == null) ? 0 : data.length;
+    }
 }
@@ -0,0 +1,40 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * A record from the Memo Pad database (MemoDB). The record holds a single null-terminated string, which is decoded on
+ * first access.
+ */
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class MemoRecord extends AbstractLazyPdbRecord {
+    private String text;
+
+    public MemoRecord(byte attributes, byte[] data) {
+        super(attributes, data);
+    }
+
+    /**
+     * @return the memo's text
+     */
+    public String getText() {
+        String result = text;
+        if (result == null) {
+            result = decodeString(0);
+            text = (result == null) ? "" : result;
+            result = text;
+        }
+        return result;
+    }
+
+    /**
+     * Get the memo's title, which is its first line.
+     *
+     * @return the first line of the memo's text
+     */
+    public String getTitle() {
+        String memo = getText();
+        int newline = memo.indexOf('\n');
+        return (newline < 0) ? memo : memo.substring(0, newline);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The 16-byte header stored in record 0 of a PalmDOC e-text.
+ */
+@Data
+public class PalmDocHeader {
+    public static final String DATABASE_TYPE = "TEXt";
+    public static final String CREATOR_ID = "REAd";
+
+    public static final short COMPRESSION_NONE = 1;
+    public static final short COMPRESSION_PALMDOC = 2;
+
+    /**
+     * The usual amount of uncompressed text in each text record.
+     */
+    public static final int DEFAULT_RECORD_SIZE = 4096;
+
+    public static final int HEADER_LENGTH_BYTES = 16;
+
+    /**
+     * {@link #COMPRESSION_NONE} or {@link #COMPRESSION_PALMDOC}
+     */
+    private short compression = COMPRESSION_PALMDOC;
+
+    /**
+     * Uncompressed length of the whole text
+     */
+    private int textLength;
+
+    /**
+     * Number of text records
+     */
+    private int recordCount;
+
+    /**
+     * Maximum uncompressed size of a text record
+     */
+    private int recordSize = DEFAULT_RECORD_SIZE;
+
+    /**
+     * The reader's current position in the text
+     */
+    private int currentPosition;
+
+    public boolean isCompressed() {
+        return compression == COMPRESSION_PALMDOC;
+    }
+
+    /**
+     * Read a header from the first 16 bytes of record 0. The buffer's position is not modified.
+     *
+     * @param data Record 0's data
+     * @return the header
+     * @throws IllegalArgumentException if the data is too short or uses an unknown compression type
+     */
+    public static PalmDocHeader fromBytes(ByteBuffer data) {
+        if (data.remaining() < HEADER_LENGTH_BYTES) {
+            throw new IllegalArgumentException("PalmDOC header is " + data.remaining() + " byte(s), expected "
+                    + HEADER_LENGTH_BYTES + ".");
+        }
+        int start = data.position();
+        PalmDocHeader header = new PalmDocHeader();
+        header.setCompression(data.getShort(start));
+        if (header.getCompression() != COMPRESSION_NONE && header.getCompression() != COMPRESSION_PALMDOC) {
+            throw new IllegalArgumentException("Unsupported PalmDOC compression type " + header.getCompression()
+                    + ".");
+        }
+        header.setTextLength(data.getInt(start + 4));
+        header.setRecordCount(data.getShort(start + 8) & 0xFFFF);
+        header.setRecordSize(data.getShort(start + 10) & 0xFFFF);
+        header.setCurrentPosition(data.getInt(start + 12));
+        return header;
+    }
+
+    /**
+     * Read a header from record 0.
+     *
+     * @param record Record 0 of a PalmDOC database
+     * @return the header
+     */
+    public static PalmDocHeader fromRecord(PalmDocRecord record) {
+        return fromBytes(ByteBuffer.wrap(record.getData()));
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH_BYTES);
+        buffer.putShort(compression);
+        buffer.putShort((short) 0);
+        buffer.putInt(textLength);
+        buffer.putShort((short) recordCount);
+        buffer.putShort((short) recordSize);
+        buffer.putInt(currentPosition);
+        return buffer.array();
+    }
+
+    /**
+     * Create record 0 for a database with this header.
+     *
+     * @return the header record
+     */
+    public PalmDocRecord toRecord() {
+        return new PalmDocRecord(toBytes());
+    }
+}
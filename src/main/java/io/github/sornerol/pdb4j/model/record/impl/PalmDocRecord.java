@@ -0,0 +1,95 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import io.github.sornerol.pdb4j.util.PalmDocCompression;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.Arrays;
+
+/**
+ * A record in a PalmDOC e-text (type {@code TEXt}, creator {@code REAd}). The record's data is kept as it is stored in
+ * the file, so reading and writing a database doesn't compress or decompress anything.
+ *
+ * Record 0 of a PalmDOC database holds the {@link PalmDocHeader}; the following records hold the text, each one
+ * compressed separately if the header says the text is compressed.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PalmDocRecord extends AbstractPdbRecord {
+
+    /**
+     * The record's data as stored in the file
+     */
+    private byte[] data;
+
+    public PalmDocRecord(byte attributes, byte[] data) {
+        super(attributes);
+        this.data = data;
+    }
+
+    public PalmDocRecord(byte[] data) {
+        this.data = data;
+    }
+
+    public PalmDocRecord() {
+    }
+
+    /**
+     * Create a text record, compressing the text if requested.
+     *
+     * @param text The text, in the database's character set
+     * @param offset Where the text starts
+     * @param length The length of the text
+     * @param compress If true, compress the text with PalmDOC compression
+     * @return the record
+     */
+    public static PalmDocRecord ofText(byte[] text, int offset, int length, boolean compress) {
+        byte[] data = compress
+                ? PalmDocCompression.compress(text, offset, length)
+                : Arrays.copyOfRange(text, offset, offset + length);
+        return new PalmDocRecord(data);
+    }
+
+    /**
+     * Get the text stored in this record.
+     *
+     * @param header The database's header, which says whether the text is compressed
+     * @return the record's text, in the database's character set
+     */
+    public byte[] getText(PalmDocHeader header) {
+        if (data == null) {
+            return new byte[0];
+        }
+        return header.isCompressed() ? PalmDocCompression.decompress(data) : data.clone();
+    }
+
+    /**
+     * Write the text stored in this record into an array, without allocating.
+     *
+     * @param header The database's header, which says whether the text is compressed
+     * @param destination The array to write into; {@link PalmDocCompression#maxDecompressedLength(int)} bytes from
+     *                    the offset are always enough
+     * @param destinationOffset Where in the array to start writing
+     * @return the number of bytes written
+     */
+    public int getText(PalmDocHeader header, byte[] destination, int destinationOffset) {
+        if (data == null) {
+            return 0;
+        }
+        if (header.isCompressed()) {
+            return PalmDocCompression.decompress(data, 0, data.length, destination, destinationOffset);
+        }
+        System.arraycopy(data, 0, destination, destinationOffset, data.length);
+        return data.length;
+    }
+
+    @Override
+    public byte[] toBytes() {
+        return data;
+    }
+
+    @Override
+    public int serializedSize() {
+        return (data == null) ? 0 : data.length;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * A record from the To Do List database (ToDoDB).
+ *
+ * The record starts with a packed due date and a priority byte, followed by the description and the note as
+ * null-terminated strings. Each field is decoded on first access.
+ */
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class ToDoRecord extends AbstractLazyPdbRecord {
+    private static final int DUE_DATE_OFFSET = 0;
+    private static final int PRIORITY_OFFSET = 2;
+    private static final int DESCRIPTION_OFFSET = 3;
+    private static final int COMPLETE_FLAG = 0x80;
+
+    private String description;
+    private String note;
+
+    public ToDoRecord(byte attributes, byte[] data) {
+        super(attributes, data);
+    }
+
+    /**
+     * @return the due date as a packed Palm OS date, or 0xFFFF if there is no due date
+     */
+    public int getPackedDueDate() {
+        return getUnsignedShort(DUE_DATE_OFFSET);
+    }
+
+    /**
+     * @return the due date, or null if there is no due date or the stored date isn't a valid date
+     */
+    public LocalDate getDueDate() {
+        return PalmDateUtil.localDateFromPackedDate(getPackedDueDate());
+    }
+
+    /**
+     * @return the priority (normally 1-5)
+     */
+    public int getPriority() {
+        return getUnsignedByte(PRIORITY_OFFSET) & ~COMPLETE_FLAG;
+    }
+
+    public boolean isComplete() {
+        return (getUnsignedByte(PRIORITY_OFFSET) & COMPLETE_FLAG) != 0;
+    }
+
+    /**
+     * @return the item's description
+     */
+    public String getDescription() {
+        String result = description;
+        if (result == null) {
+            result = decodeString(DESCRIPTION_OFFSET);
+            description = (result == null) ? "" : result;
+            result = description;
+        }
+        return result;
+    }
+
+    /**
+     * @return the item's note, or an empty string if it has none
+     */
+    public String getNote() {
+        String result = note;
+        if (result == null) {
+            result = decodeString(findStringEnd(DESCRIPTION_OFFSET) + 1);
+            note = (result == null) ? "" : result;
+            result = note;
+        }
+        return result;
+    }
+}
@@ -20,4 +20,9 @@ public class GenericSortInfo implements SortInfo {
     public byte[] toBytes() {
         return data;
     }
+
+    @Override
+    public int serializedSize() {
+        return (data == null) ? 0 : data.length;
+    }
 }
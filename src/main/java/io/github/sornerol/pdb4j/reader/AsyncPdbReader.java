@@ -0,0 +1,305 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.PdbHeader;
+import io.github.sornerol.pdb4j.model.RecordHeaderTable;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+import io.github.sornerol.pdb4j.reader.sortinfo.SortInfoReader;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Reads PDB files without blocking the calling thread. Files are read with positioned reads on an
+ * {@link AsynchronousFileChannel}, and every method returns a {@link CompletableFuture} that completes once the data
+ * has been read and decoded.
+ *
+ * The calling thread never waits on I/O: reads complete on the channel's thread pool, which is also where the result
+ * is decoded. On platforms without native asynchronous file I/O, such as Linux, the JDK implements the channel with
+ * blocking reads on that pool, so its threads do wait on the disk and the pool's size bounds the number of reads in
+ * progress at once. Like {@link PdbReader}, the header and record header table are checked against the
+ * {@link PdbReaderLimits} before any record data is read, and failures complete the future exceptionally with an
+ * {@link IOException} or a {@link PdbFormatException}.
+ *
+ * @param <R> The type of records in the databases
+ * @param <A> The type of app info in the databases
+ * @param <S> The type of sort info in the databases
+ */
+@Slf4j
+public class AsyncPdbReader<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+    private final ExecutorService executor;
+
+    /**
+     * The {@link RecordReader} to use to interpret data from individual records in the PDB database.
+     */
+    @Setter
+    private RecordReader<R> recordReader;
+
+    /**
+     * The {@link AppInfoReader} to use to interpret the file's app info area (if the file contains one).
+     */
+    @Setter
+    private AppInfoReader<A> appInfoReader;
+
+    /**
+     * The {@link SortInfoReader} to use to interpret the file's sort info area (if the file contains one).
+     */
+    @Setter
+    private SortInfoReader<S> sortInfoReader;
+
+    /**
+     * The limits every file is checked against before it is read. Defaults to {@link PdbReaderLimits#DEFAULT}.
+     */
+    @Setter
+    private PdbReaderLimits limits = PdbReaderLimits.DEFAULT;
+
+    /**
+     * Create a new AsyncPdbReader whose reads complete on the JVM's default thread pool for asynchronous channels.
+     */
+    public AsyncPdbReader() {
+        this(null);
+    }
+
+    /**
+     * Create a new AsyncPdbReader whose reads complete, and whose results are decoded, on the provided executor.
+     *
+     * @param executor The executor to complete reads on, or null to use the default thread pool
+     */
+    public AsyncPdbReader(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Read a whole PDB file into a {@link PdbDatabase}. The header and record header table are read and checked first;
+     * the rest of the file is then read with a single positioned read and decoded as by {@link PdbReader#read()}.
+     *
+     * @param path PDB file to read
+     * @return a future that completes with the imported {@link PdbDatabase}
+     */
+    public CompletableFuture<PdbDatabase<R, A, S>> readAsync(Path path) {
+        return withChannel(path, channel -> {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("File " + path + " is too large to be a PDB database (" + fileSize + " bytes).");
+            }
+            return readHeaderBuffer(channel, fileSize)
+                    .thenCompose(header -> readRecordHeaderTable(channel, header, fileSize)
+                            .thenCompose(recordHeaders -> readFile(channel, header, fileSize)))
+                    .thenApply(fileData -> {
+                        PdbReader<R, A, S> reader = new PdbReader<>(fileData, limits);
+                        reader.setRecordReader(recordReader);
+                        reader.setAppInfoReader(appInfoReader);
+                        reader.setSortInfoReader(sortInfoReader);
+                        return reader.read();
+                    });
+        });
+    }
+
+    /**
+     * Read only the header of a PDB file and, optionally, its record header table. See
+     * {@link PdbReader#readHeader(Path, boolean)}.
+     *
+     * @param path PDB file to read
+     * @param includeRecordHeaders If true, also read the record header table
+     * @return a future that completes with the file's header
+     */
+    public CompletableFuture<PdbHeader> readHeaderAsync(Path path, boolean includeRecordHeaders) {
+        return withChannel(path, channel -> {
+            long fileSize = channel.size();
+            return readHeaderBuffer(channel, fileSize).thenCompose(header -> {
+                if (!includeRecordHeaders) {
+                    return CompletableFuture.completedFuture(PdbHeader.parse(header, null));
+                }
+                return readRecordHeaderTable(channel, header, fileSize)
+                        .thenApply(recordHeaders -> PdbHeader.parse(header, recordHeaders));
+            });
+        });
+    }
+
+    /**
+     * Read and decode a single record. Only the header, two record header table entries and the record's own data are
+     * read from the file.
+     *
+     * @param path PDB file to read
+     * @param index Index of the record to read
+     * @return a future that completes with the decoded record
+     */
+    public CompletableFuture<R> readRecordAsync(Path path, int index) {
+        if (recordReader == null) {
+            return failedFuture(new IllegalStateException("No RecordReader provided."));
+        }
+        final RecordReader<R> reader = recordReader;
+        return withChannel(path, channel -> {
+            long fileSize = channel.size();
+            return readHeaderBuffer(channel, fileSize).thenCompose(header -> {
+                PdbValidator.checkRecordDatabase(header);
+                int numberOfRecords = header.getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF;
+                if (index < 0 || index >= numberOfRecords) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfRecords);
+                }
+                // The record's entry, plus the next one to find where the record ends.
+                int entries = (index + 1 < numberOfRecords) ? 2 : 1;
+                ByteBuffer entryData = ByteBuffer.allocate(entries * RECORD_HEADER_SIZE_BYTES);
+                long entryOffset = RECORD_HEADERS_OFFSET + (long) index * RECORD_HEADER_SIZE_BYTES;
+                return readFully(channel, entryData, entryOffset).thenCompose(entry -> {
+                    int offset = entry.getInt(0);
+                    int attributesAndUniqueId = entry.getInt(4);
+                    long endOffset = (entries == 2) ? entry.getInt(RECORD_HEADER_SIZE_BYTES) : fileSize;
+                    checkRecordBounds(index, offset, endOffset, fileSize, header);
+                    log.debug("Reading record at offset {} (size: {}).", offset, endOffset - offset);
+                    ByteBuffer recordData = ByteBuffer.allocate((int) (endOffset - offset));
+                    return readFully(channel, recordData, offset).thenApply(data -> {
+                        R record = reader.read((byte) (attributesAndUniqueId >>> 24), data.asReadOnlyBuffer());
+                        record.setUniqueId(attributesAndUniqueId & 0xFFFFFF);
+                        return record;
+                    });
+                });
+            });
+        });
+    }
+
+    private void checkRecordBounds(int index, int offset, long endOffset, long fileSize, ByteBuffer header) {
+        long recordHeadersEnd = RECORD_HEADERS_OFFSET
+                + (long) (header.getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF) * RECORD_HEADER_SIZE_BYTES;
+        if (offset < recordHeadersEnd || offset > endOffset || endOffset > fileSize) {
+            throw new PdbFormatException("Record " + index + " spans offsets " + offset + " to " + endOffset
+                    + ", which is out of order or out of bounds (expected " + recordHeadersEnd + " to " + fileSize
+                    + ").");
+        }
+        if (endOffset - offset > limits.getMaxRecordSize()) {
+            throw new PdbFormatException("Record " + index + " is " + (endOffset - offset)
+                    + " byte(s), which exceeds the limit of " + limits.getMaxRecordSize() + " byte(s).");
+        }
+    }
+
+    /**
+     * Read and check the 78-byte header. The returned buffer is flipped, ready to be read.
+     */
+    private CompletableFuture<ByteBuffer> readHeaderBuffer(AsynchronousFileChannel channel, long fileSize) {
+        if (fileSize < FILE_HEADER_LENGTH_BYTES) {
+            return failedFuture(new EOFException("File ends before the end of its PDB header."));
+        }
+        return readFully(channel, ByteBuffer.allocate(FILE_HEADER_LENGTH_BYTES), 0).thenApply(header -> {
+            PdbValidator.checkHeader(header, fileSize, limits);
+            return header;
+        });
+    }
+
+    /**
+     * Read the rest of the file after its header. The record header table is small, so it is read again along with the
+     * data rather than copied.
+     */
+    private static CompletableFuture<ByteBuffer> readFile(AsynchronousFileChannel channel, ByteBuffer header,
+                                                          long fileSize) {
+        ByteBuffer fileData = ByteBuffer.allocate((int) fileSize);
+        fileData.put(header);
+        ((Buffer) header).rewind();
+        return readFully(channel, fileData, fileData.position());
+    }
+
+    private CompletableFuture<RecordHeaderTable> readRecordHeaderTable(AsynchronousFileChannel channel,
+                                                                       ByteBuffer header, long fileSize) {
+        PdbValidator.checkRecordDatabase(header);
+        int numberOfRecords = header.getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF;
+        ByteBuffer table = ByteBuffer.allocate(RECORD_HEADERS_OFFSET + numberOfRecords * RECORD_HEADER_SIZE_BYTES);
+        table.put(header);
+        ((Buffer) header).rewind();
+        return readFully(channel, table, RECORD_HEADERS_OFFSET).thenApply(data -> {
+            RecordHeaderTable recordHeaders = PdbReader.parseRecordHeaders(data, numberOfRecords, (int) fileSize);
+            PdbValidator.checkRecordHeaders(recordHeaders, (int) fileSize, header.getInt(APP_INFO_OFFSET),
+                    header.getInt(SORT_INFO_OFFSET), limits);
+            return recordHeaders;
+        });
+    }
+
+    /**
+     * Open a channel, run an asynchronous operation on it, and close the channel once the operation completes.
+     */
+    private <T> CompletableFuture<T> withChannel(Path path, ChannelOperation<T> operation) {
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, Collections.singleton(StandardOpenOption.READ), executor);
+        } catch (IOException | RuntimeException e) {
+            return failedFuture(e);
+        }
+        CompletableFuture<T> result;
+        try {
+            result = operation.apply(channel);
+        } catch (IOException | RuntimeException e) {
+            result = failedFuture(e);
+        }
+        return result.whenComplete((value, error) -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close {}.", path, e);
+            }
+        });
+    }
+
+    /**
+     * Fill the remaining space in a buffer from the channel, starting at a file position, with as many positioned
+     * reads as it takes. The returned buffer is flipped, ready to be read.
+     */
+    static CompletableFuture<ByteBuffer> readFully(AsynchronousFileChannel channel, ByteBuffer buffer, long position) {
+        CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+        if (!buffer.hasRemaining()) {
+            ((Buffer) buffer).flip();
+            result.complete(buffer);
+            return result;
+        }
+        channel.read(buffer, position, position, new CompletionHandler<Integer, Long>() {
+            @Override
+            public void completed(Integer bytesRead, Long readPosition) {
+                if (bytesRead < 0) {
+                    result.completeExceptionally(new EOFException("Unexpected end of file at offset "
+                            + readPosition + "."));
+                } else if (buffer.hasRemaining()) {
+                    long nextPosition = readPosition + bytesRead;
+                    try {
+                        channel.read(buffer, nextPosition, nextPosition, this);
+                    } catch (RuntimeException e) {
+                        // Thrown on the channel's thread, where nothing else would complete the future.
+                        result.completeExceptionally(e);
+                    }
+                } else {
+                    ((Buffer) buffer).flip();
+                    result.complete(buffer);
+                }
+            }
+
+            @Override
+            public void failed(Throwable exception, Long readPosition) {
+                result.completeExceptionally(exception);
+            }
+        });
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable exception) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(exception);
+        return result;
+    }
+
+    private interface ChannelOperation<T> {
+        CompletableFuture<T> apply(AsynchronousFileChannel channel) throws IOException;
+    }
+}
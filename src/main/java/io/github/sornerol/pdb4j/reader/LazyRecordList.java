@@ -0,0 +1,51 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only list of records that decodes each record the first time it is accessed.
+ *
+ * When caching is enabled, a decoded record is kept and returned on later accesses. Without caching, every access
+ * decodes the record again, so only the records currently in use are kept in memory.
+ *
+ * @param <R> The type of records in the list
+ */
+class LazyRecordList<R extends PdbRecord> extends AbstractList<R> implements RandomAccess {
+    private final int size;
+    private final IntFunction<R> decoder;
+    private final AtomicReferenceArray<R> cache;
+
+    LazyRecordList(int size, IntFunction<R> decoder, boolean cacheRecords) {
+        this.size = size;
+        this.decoder = decoder;
+        this.cache = cacheRecords ? new AtomicReferenceArray<>(size) : null;
+    }
+
+    @Override
+    public R get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (cache == null) {
+            return decoder.apply(index);
+        }
+        R record = cache.get(index);
+        if (record == null) {
+            record = decoder.apply(index);
+            if (!cache.compareAndSet(index, null, record)) {
+                record = cache.get(index);
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+
+import java.nio.file.Path;
+
+/**
+ * Receives the results of a {@link PdbBatchReader}. Methods are called from the reader's worker threads, in the order
+ * files finish reading, so implementations must be thread-safe.
+ *
+ * @param <R> The type of records in the databases
+ * @param <A> The type of app info in the databases
+ * @param <S> The type of sort info in the databases
+ */
+public interface PdbBatchListener<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+    /**
+     * Called when a file has been read.
+     *
+     * @param path The file that was read
+     * @param database The database read from the file
+     */
+    void onDatabase(Path path, PdbDatabase<R, A, S> database);
+
+    /**
+     * Called when a file couldn't be read. The batch continues with the remaining files.
+     *
+     * @param path The file that failed
+     * @param exception The reason it failed
+     */
+    void onError(Path path, Exception exception);
+}
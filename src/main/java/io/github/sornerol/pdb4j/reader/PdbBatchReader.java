@@ -0,0 +1,180 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+import io.github.sornerol.pdb4j.reader.sortinfo.SortInfoReader;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Reads every PDB file in a directory tree concurrently, with a cap on the number of bytes being read at once.
+ *
+ * Each file is read onto the heap by a {@link PdbReader} on the provided {@link Executor}, rather than through a
+ * memory mapping, so a long run doesn't pile up mappings that are only released when they are garbage collected.
+ * Before a file is handed to the executor, its size is reserved against
+ * {@link #setMaxInFlightBytes(long) the in-flight limit}; the directory walk blocks until enough earlier files have
+ * finished. A file larger than the limit is read on its own. Results and per-file errors are delivered to a
+ * {@link PdbBatchListener} as each file finishes.
+ *
+ * The record, app info and sort info readers are shared by all worker threads, so they must be thread-safe.
+ *
+ * @param <R> The type of records in the databases
+ * @param <A> The type of app info in the databases
+ * @param <S> The type of sort info in the databases
+ */
+@Slf4j
+public class PdbBatchReader<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    private final Executor executor;
+
+    /**
+     * The {@link RecordReader} to use for every file.
+     */
+    @Setter
+    private RecordReader<R> recordReader;
+
+    /**
+     * The {@link AppInfoReader} to use for every file.
+     */
+    @Setter
+    private AppInfoReader<A> appInfoReader;
+
+    /**
+     * The {@link SortInfoReader} to use for every file.
+     */
+    @Setter
+    private SortInfoReader<S> sortInfoReader;
+
+    /**
+     * The limits every file is checked against before it is read. Defaults to {@link PdbReaderLimits#DEFAULT}.
+     */
+    @Setter
+    private PdbReaderLimits limits = PdbReaderLimits.DEFAULT;
+
+    /**
+     * The maximum total size of the files being read at once. Defaults to 256 MiB.
+     */
+    @Setter
+    private long maxInFlightBytes = 256L * 1024 * 1024;
+
+    /**
+     * Selects which files in the directory tree are read. Defaults to files with a {@code .pdb} extension, ignoring
+     * case.
+     */
+    @Setter
+    private Predicate<Path> fileFilter = path -> path.getFileName().toString().toLowerCase().endsWith(".pdb");
+
+    /**
+     * Create a new PdbBatchReader that reads files on the provided executor.
+     *
+     * @param executor The executor to read files on
+     */
+    public PdbBatchReader(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Read every matching file in a directory tree. Returns once every file has been read and its result delivered to
+     * the listener.
+     *
+     * @param directory The root of the directory tree
+     * @param listener Receives each database or error
+     * @return the number of files submitted for reading
+     * @throws IOException if the directory can't be walked. Files already submitted are still read, and their results
+     * delivered, before the exception is thrown.
+     * @throws InterruptedException if the calling thread is interrupted. The walk stops, but files already submitted
+     * are still read, and their results delivered, before the exception is thrown.
+     */
+    public int readDirectory(Path directory, PdbBatchListener<R, A, S> listener)
+            throws IOException, InterruptedException {
+        final int totalPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes / BYTES_PER_PERMIT));
+        final Semaphore inFlight = new Semaphore(totalPermits);
+        final int[] submitted = {0};
+        final InterruptedException[] interrupted = {null};
+
+        try {
+            walk(directory, listener, totalPermits, inFlight, submitted, interrupted);
+        } finally {
+            // Every permit is back once all submitted files have finished.
+            inFlight.acquireUninterruptibly(totalPermits);
+            inFlight.release(totalPermits);
+        }
+        if (interrupted[0] != null) {
+            throw interrupted[0];
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return submitted[0];
+    }
+
+    private void walk(Path directory, PdbBatchListener<R, A, S> listener, int totalPermits, Semaphore inFlight,
+                      int[] submitted, InterruptedException[] interrupted) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (!attributes.isRegularFile() || !fileFilter.test(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                long permitsForFile = (attributes.size() + BYTES_PER_PERMIT - 1) / BYTES_PER_PERMIT;
+                int permits = (int) Math.max(1, Math.min(totalPermits, permitsForFile));
+                try {
+                    inFlight.acquire(permits);
+                } catch (InterruptedException e) {
+                    interrupted[0] = e;
+                    return FileVisitResult.TERMINATE;
+                }
+                try {
+                    executor.execute(() -> readFile(file, listener, inFlight, permits));
+                    submitted[0]++;
+                } catch (RejectedExecutionException e) {
+                    inFlight.release(permits);
+                    listener.onError(file, e);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                listener.onError(file, exception);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void readFile(Path file, PdbBatchListener<R, A, S> listener, Semaphore inFlight, int permits) {
+        try {
+            PdbDatabase<R, A, S> database;
+            try {
+                PdbReader<R, A, S> reader = new PdbReader<>(file.toFile(), limits);
+                reader.setRecordReader(recordReader);
+                reader.setAppInfoReader(appInfoReader);
+                reader.setSortInfoReader(sortInfoReader);
+                database = reader.read();
+            } catch (Exception e) {
+                log.debug("Failed to read {}.", file, e);
+                listener.onError(file, e);
+                return;
+            }
+            listener.onDatabase(file, database);
+        } finally {
+            inFlight.release(permits);
+        }
+    }
+}
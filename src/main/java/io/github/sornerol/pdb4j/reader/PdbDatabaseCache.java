@@ -0,0 +1,288 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+import io.github.sornerol.pdb4j.reader.sortinfo.SortInfoReader;
+import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe cache of parsed PDB databases, keyed by file path, modification time and size.
+ *
+ * Each lookup checks the file's attributes, so a file that has been replaced or modified since it was cached is read
+ * again. Entries are weighed by an estimate of the memory their database retains, and the least recently used entries
+ * are evicted once the total exceeds {@link #PdbDatabaseCache(long) the limit}. A database that is larger than the
+ * limit on its own is returned but not cached.
+ *
+ * When several threads miss on the same file at once, one of them reads it and the others wait for its result, so a
+ * hot file is only read once. If the read fails, every waiting thread gets the same exception or error.
+ *
+ * Every caller gets the same {@link PdbDatabase} instance for a cached file, so callers must not modify it. The record,
+ * app info and sort info readers are shared by all threads, so they must be thread-safe.
+ *
+ * @param <R> The type of records in the databases
+ * @param <A> The type of app info in the databases
+ * @param <S> The type of sort info in the databases
+ */
+@Slf4j
+public class PdbDatabaseCache<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+    /*
+      Rough heap cost of a decoded record beyond its data: the record object, its byte array header and its slot in the
+      record list.
+    */
+    private static final long RECORD_OVERHEAD_BYTES = 64;
+
+    private final long maxRetainedBytes;
+
+    /*
+      Guarded by itself. Access-ordered, so iteration starts at the least recently used entry.
+    */
+    private final LinkedHashMap<Path, Entry<R, A, S>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long retainedBytes;
+
+    private final ConcurrentHashMap<FileKey, CompletableFuture<Entry<R, A, S>>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The {@link RecordReader} to use for every file.
+     */
+    @Setter
+    private RecordReader<R> recordReader;
+
+    /**
+     * The {@link AppInfoReader} to use for every file.
+     */
+    @Setter
+    private AppInfoReader<A> appInfoReader;
+
+    /**
+     * The {@link SortInfoReader} to use for every file.
+     */
+    @Setter
+    private SortInfoReader<S> sortInfoReader;
+
+    /**
+     * The limits every file is checked against before it is read. Defaults to {@link PdbReaderLimits#DEFAULT}.
+     */
+    @Setter
+    private PdbReaderLimits limits = PdbReaderLimits.DEFAULT;
+
+    /**
+     * Create a new, empty cache.
+     *
+     * @param maxRetainedBytes The most memory, as estimated by the cache, that cached databases may retain
+     */
+    public PdbDatabaseCache(long maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("Maximum retained bytes must not be negative, but was "
+                    + maxRetainedBytes + ".");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Get the database in a file, reading it if it isn't cached or has changed since it was cached.
+     *
+     * @param path PDB file to read
+     * @return the database; callers must not modify it
+     * @throws IOException if the file doesn't exist or can't be read
+     * @throws PdbFormatException if the file is malformed or exceeds the cache's limits
+     */
+    public PdbDatabase<R, A, S> get(Path path) throws IOException {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(normalizedPath, BasicFileAttributes.class);
+        FileKey key = new FileKey(normalizedPath, attributes.lastModifiedTime(), attributes.size());
+
+        Entry<R, A, S> cachedEntry = getEntry(key);
+        if (cachedEntry != null) {
+            hitCount.increment();
+            return cachedEntry.database;
+        }
+        missCount.increment();
+
+        CompletableFuture<Entry<R, A, S>> newLoad = new CompletableFuture<>();
+        CompletableFuture<Entry<R, A, S>> load = loads.putIfAbsent(key, newLoad);
+        if (load == null) {
+            load = newLoad;
+            try {
+                // Another thread may have finished loading the file since the first check.
+                Entry<R, A, S> entry = getEntry(key);
+                if (entry == null) {
+                    entry = load(key);
+                    put(entry);
+                }
+                newLoad.complete(entry);
+            } catch (Throwable e) {
+                // Errors too, or the threads waiting on this load would never return.
+                newLoad.completeExceptionally(e);
+            } finally {
+                loads.remove(key, newLoad);
+            }
+        }
+        try {
+            return load.join().database;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Remove a file's database from the cache, if it is cached.
+     *
+     * @param path The file to remove
+     */
+    public void invalidate(Path path) {
+        synchronized (entries) {
+            Entry<R, A, S> entry = entries.remove(path.toAbsolutePath().normalize());
+            if (entry != null) {
+                retainedBytes -= entry.retainedBytes;
+            }
+        }
+    }
+
+    /**
+     * Remove every database from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            retainedBytes = 0;
+        }
+    }
+
+    /**
+     * @return the number of cached databases
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the estimated memory retained by the cached databases, in bytes
+     */
+    public long getRetainedBytes() {
+        synchronized (entries) {
+            return retainedBytes;
+        }
+    }
+
+    /**
+     * @return the number of lookups that returned a cached database
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to read the file, or wait for another thread reading it
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of databases evicted to stay within the size limit
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Entry<R, A, S> getEntry(FileKey key) {
+        synchronized (entries) {
+            Entry<R, A, S> entry = entries.get(key.getPath());
+            return (entry != null && entry.key.equals(key)) ? entry : null;
+        }
+    }
+
+    private Entry<R, A, S> load(FileKey key) throws IOException {
+        log.debug("Reading {} into the cache.", key.getPath());
+        PdbReader<R, A, S> reader = new PdbReader<>(key.getPath(), limits);
+        reader.setRecordReader(recordReader);
+        reader.setAppInfoReader(appInfoReader);
+        reader.setSortInfoReader(sortInfoReader);
+        PdbDatabase<R, A, S> database = reader.read();
+        int numberOfRecords = (database.getRecords() == null) ? 0 : database.getRecords().size();
+        return new Entry<>(key, database, key.getSize() + numberOfRecords * RECORD_OVERHEAD_BYTES);
+    }
+
+    private void put(Entry<R, A, S> entry) {
+        if (entry.retainedBytes > maxRetainedBytes) {
+            log.debug("Not caching {}: {} byte(s) exceeds the cache size.", entry.key.getPath(), entry.retainedBytes);
+            // An older version of the file may still be cached; it is stale now.
+            invalidate(entry.key.getPath());
+            return;
+        }
+        synchronized (entries) {
+            Entry<R, A, S> previous = entries.put(entry.key.getPath(), entry);
+            if (previous != null) {
+                retainedBytes -= previous.retainedBytes;
+            }
+            retainedBytes += entry.retainedBytes;
+            Iterator<Map.Entry<Path, Entry<R, A, S>>> iterator = entries.entrySet().iterator();
+            while (retainedBytes > maxRetainedBytes && iterator.hasNext()) {
+                Entry<R, A, S> eldest = iterator.next().getValue();
+                if (eldest == entry) {
+                    continue;
+                }
+                iterator.remove();
+                retainedBytes -= eldest.retainedBytes;
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Identifies one version of a file.
+     */
+    @Value
+    private static class FileKey {
+        Path path;
+        FileTime lastModifiedTime;
+        long size;
+    }
+
+    private static final class Entry<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
+        private final FileKey key;
+        private final PdbDatabase<R, A, S> database;
+        private final long retainedBytes;
+
+        private Entry(FileKey key, PdbDatabase<R, A, S> database, long retainedBytes) {
+            this.key = key;
+            this.database = database;
+            this.retainedBytes = retainedBytes;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.sornerol.pdb4j.reader;
+
+/**
+ * Thrown when a PDB file is structurally invalid, or exceeds the {@link PdbReaderLimits} it is being read with.
+ */
+public class PdbFormatException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PdbFormatException(String message) {
+        super(message);
+    }
+}
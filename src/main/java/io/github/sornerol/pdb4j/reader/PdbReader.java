@@ -1,29 +1,50 @@
 package io.github.sornerol.pdb4j.reader;
 
+import io.github.sornerol.pdb4j.metrics.PdbMetrics;
+import io.github.sornerol.pdb4j.metrics.PdbMetricsListener;
 import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.PdbHeader;
+import io.github.sornerol.pdb4j.model.RecordAttributeIndex;
+import io.github.sornerol.pdb4j.model.RecordHeaderTable;
+import io.github.sornerol.pdb4j.model.UniqueIdIndex;
 import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
 import io.github.sornerol.pdb4j.model.record.PdbRecord;
 import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
 import io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader;
 import io.github.sornerol.pdb4j.reader.record.RecordReader;
 import io.github.sornerol.pdb4j.reader.sortinfo.SortInfoReader;
-import io.github.sornerol.pdb4j.util.PalmDateUtil;
-import io.github.sornerol.pdb4j.util.PalmStringUtil;
+import io.github.sornerol.pdb4j.util.ByteBufferUtil;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
-import java.util.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
 
 /**
- * Reads a PDB database from either a file or byte array into a {@link PdbDatabase}.
+ * Reads a PDB database from a file, memory-mapped file, byte array or {@link ByteBuffer} into a {@link PdbDatabase}.
+ *
+ * A reader keeps no parse state between calls, so once it is configured, its read methods can be called from several
+ * threads at once, provided its {@link RecordReader}, {@link AppInfoReader} and {@link SortInfoReader} are thread-safe.
  *
  * @param <R>
  * @param <A>
@@ -32,11 +53,12 @@ import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
 @Slf4j
 public class PdbReader<R extends PdbRecord, A extends AppInfo, S extends SortInfo> {
 
-    private final byte[] fileData;
+    private static final int TASKS_PER_PROCESSOR = 4;
+    private static final int HEADER_READ_SIZE_BYTES = 4096;
+
+    private final ByteBuffer fileData;
+    private final PdbReaderLimits limits;
 
-    private int appInfoOffset;
-    private int sortInfoOffset;
-    private int numberOfRecords;
     /**
      * The {@link RecordReader} to use to interpret data from individual records in the PDB database.
      */
@@ -56,163 +78,533 @@ public class PdbReader<R extends PdbRecord, A extends AppInfo, S extends SortInf
     private SortInfoReader<S> sortInfoReader;
 
     /**
-     * Create a new PdbReader to read in the provided file.
+     * If true, {@link #read()} only parses the record header table, and each record is decoded by the
+     * {@link RecordReader} the first time it is accessed through {@link PdbDatabase#getRecords()}. The returned record
+     * list is read-only and keeps a reference to this reader's data, so a memory-mapped file must stay unmodified for
+     * as long as the database is in use. Defaults to false.
+     */
+    @Setter
+    private boolean lazyRecords;
+
+    /**
+     * If true (the default), records decoded in lazy mode are kept and returned on later accesses. If false, a record
+     * is decoded again every time it is accessed.
+     */
+    @Setter
+    private boolean cacheLazyRecords = true;
+
+    private PdbMetricsListener metricsListener = PdbMetrics.getDefaultListener();
+
+    /**
+     * Create a new PdbReader to read in the provided file. The entire file is read onto the heap; use
+     * {@link #PdbReader(Path)} to read large files through a memory mapping instead.
      *
      * @param file PDB file to read
      * @throws IOException if the file doesn't exist or there is a problem reading the file
      */
     public PdbReader(File file) throws IOException {
+        this(file, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PdbReader to read in the provided file, enforcing the provided limits. The file's size is checked
+     * before it is read onto the heap.
+     *
+     * @param file PDB file to read
+     * @param limits The limits to enforce
+     * @throws IOException if the file doesn't exist or there is a problem reading the file
+     * @throws PdbFormatException if the file exceeds the maximum file size
+     */
+    public PdbReader(File file, PdbReaderLimits limits) throws IOException {
+        this.limits = limits;
         try (FileInputStream inputStream = new FileInputStream(file)) {
-            fileData = new byte[(int) file.length()];
-            int bytesRead = inputStream.read(fileData);
+            long fileLength = file.length();
+            if (fileLength > limits.getMaxFileSize()) {
+                throw new PdbFormatException("File is " + fileLength + " byte(s), which exceeds the limit of "
+                        + limits.getMaxFileSize() + " byte(s).");
+            }
+            byte[] bytes = new byte[(int) fileLength];
+            int bytesRead = 0;
+            while (bytesRead < bytes.length) {
+                int count = inputStream.read(bytes, bytesRead, bytes.length - bytesRead);
+                if (count < 0) {
+                    break;
+                }
+                bytesRead += count;
+            }
             if (bytesRead != file.length()) {
-                log.warn("File length is " + file.length() + " byte(s), but read " + bytesRead + " byte(s).");
+                log.warn("File length is {} byte(s), but read {} byte(s).", file.length(), bytesRead);
             }
+            fileData = ByteBuffer.wrap(bytes, 0, bytesRead).slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
         }
     }
 
+    /**
+     * Create a new PdbReader to read the provided file through a read-only memory mapping. The file's contents are
+     * never copied onto the heap as a whole; header fields are read directly from the mapping and only the areas
+     * handed to the {@link RecordReader}, {@link AppInfoReader} and {@link SortInfoReader} are copied.
+     *
+     * The file should not be modified while the reader or any lazily-read data from it is in use.
+     *
+     * @param path PDB file to read
+     * @throws IOException if the file doesn't exist or can't be mapped
+     */
+    public PdbReader(Path path) throws IOException {
+        this(path, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PdbReader to read the provided file through a read-only memory mapping, enforcing the provided
+     * limits. See {@link #PdbReader(Path)}.
+     *
+     * @param path PDB file to read
+     * @param limits The limits to enforce
+     * @throws IOException if the file doesn't exist or can't be mapped
+     */
+    public PdbReader(Path path, PdbReaderLimits limits) throws IOException {
+        this(ByteBufferUtil.mapReadOnly(path), limits);
+    }
+
     /**
      * Create a new PdbReader to read from the provided byte array
      *
      * @param fileData A PDB database as a byte array.
      */
     public PdbReader(byte[] fileData) {
-        this.fileData = fileData;
+        this(fileData, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PdbReader to read from the provided byte array, enforcing the provided limits.
+     *
+     * @param fileData A PDB database as a byte array.
+     * @param limits The limits to enforce
+     */
+    public PdbReader(byte[] fileData, PdbReaderLimits limits) {
+        this(ByteBuffer.wrap(fileData), limits);
+    }
+
+    /**
+     * Create a new PdbReader to read from the remaining bytes of the provided buffer. The buffer's contents are not
+     * copied, and its position and limit are not modified.
+     *
+     * @param fileData A PDB database in a {@link ByteBuffer}, such as a {@link java.nio.MappedByteBuffer}.
+     */
+    public PdbReader(ByteBuffer fileData) {
+        this(fileData, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PdbReader to read from the remaining bytes of the provided buffer, enforcing the provided limits.
+     * See {@link #PdbReader(ByteBuffer)}.
+     *
+     * @param fileData A PDB database in a {@link ByteBuffer}, such as a {@link java.nio.MappedByteBuffer}.
+     * @param limits The limits to enforce
+     */
+    public PdbReader(ByteBuffer fileData, PdbReaderLimits limits) {
+        this.fileData = fileData.slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+        this.limits = limits;
+    }
+
+    /**
+     * Set the {@link PdbMetricsListener} to report header, record, AppInfo and SortInfo timings to. Defaults to
+     * {@link PdbMetrics#getDefaultListener()} at the time the reader is created.
+     *
+     * @param metricsListener The listener, or null for {@link PdbMetricsListener#NOOP}
+     */
+    public void setMetricsListener(PdbMetricsListener metricsListener) {
+        this.metricsListener = (metricsListener == null) ? PdbMetricsListener.NOOP : metricsListener;
     }
 
     /**
      * Reads the PDB file data into a {@link PdbDatabase} object.
      *
+     * If {@link #setLazyRecords(boolean) lazy mode} is enabled, records are not decoded until they are accessed.
+     *
      * @return the imported {@link PdbDatabase}.
+     * @throws PdbFormatException if the file is malformed or exceeds this reader's limits
      */
     public PdbDatabase<R, A, S> read() {
+        return readDatabase(null);
+    }
+
+    /**
+     * Reads the PDB file data into a {@link PdbDatabase} object, decoding records concurrently on the provided
+     * {@link Executor}. Records are returned in file order. The {@link RecordReader} must be safe to call from multiple
+     * threads at once.
+     *
+     * This is worthwhile when decoding records is expensive (decompression, field parsing, character set
+     * conversion). If {@link #setLazyRecords(boolean) lazy mode} is enabled, records are decoded on access instead and
+     * the executor is not used.
+     *
+     * @param executor The executor to decode records on
+     * @return the imported {@link PdbDatabase}.
+     * @throws PdbFormatException if the file is malformed or exceeds this reader's limits
+     */
+    public PdbDatabase<R, A, S> read(Executor executor) {
+        return readDatabase(executor);
+    }
+
+    private PdbDatabase<R, A, S> readDatabase(Executor executor) {
+        PdbMetricsListener metrics = metricsListener;
+        Object databaseContext = begin(metrics);
+        Object headerContext = begin(metrics);
+        long startTime = startTimer(metrics);
+        RecordHeaderTable recordHeaders = parseRecordHeaders();
         PdbDatabase<R, A, S> database = new PdbDatabase<>();
-        readHeader(database);
+        PdbHeader header = readHeader(database);
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onHeaderRead(recordHeaders.size(), System.nanoTime() - startTime, headerContext);
+        }
 
-        Queue<RecordHeader> recordHeaders = readRecordHeaders();
         int firstRecordOffset = 0;
         if (recordHeaders.size() > 0) {
-            firstRecordOffset = recordHeaders.peek().offset;
+            firstRecordOffset = recordHeaders.getOffset(0);
         }
-        if (appInfoOffset > 0) {
-            readAppInfoArea(database, firstRecordOffset);
+        if (header.getAppInfoOffset() > 0) {
+            readAppInfoArea(database, header, firstRecordOffset);
         }
-        if (sortInfoOffset > 0) {
-            readSortInfoArea(database, firstRecordOffset);
+        if (header.getSortInfoOffset() > 0) {
+            readSortInfoArea(database, header, firstRecordOffset);
         }
 
-        database.setRecords(readRecords(recordHeaders));
+        if (recordHeaders.size() > 0 && recordReader == null) {
+            log.warn("PDB database has records, but no RecordReader provided.");
+        } else if (lazyRecords) {
+            final RecordReader<R> reader = recordReader;
+            database.setRecords(new LazyRecordList<>(recordHeaders.size(),
+                    index -> readRecord(reader, recordHeaders, index), cacheLazyRecords),
+                    UniqueIdIndex.of(recordHeaders));
+        } else if (executor != null) {
+            database.setRecords(readRecords(recordHeaders, executor), UniqueIdIndex.of(recordHeaders));
+        } else {
+            database.setRecords(readRecords(recordHeaders), UniqueIdIndex.of(recordHeaders));
+        }
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onDatabaseRead(recordHeaders.size(), fileData.limit(), System.nanoTime() - startTime,
+                    databaseContext);
+        }
         return database;
     }
 
-    private void readHeader(PdbDatabase<R, A, S> database) {
-        database.setName(getNullTerminatedString(Arrays.copyOfRange(fileData, NAME_OFFSET, NAME_LENGTH_BYTES)));
-        database.setFileAttributes(getShort(fileData, FILE_ATTRIBUTES_OFFSET));
-        database.setVersion(getShort(fileData, VERSION_OFFSET));
-        database.setCreationTime(PalmDateUtil.calendarFromPdbTime(getInt(fileData, CREATION_TIME_OFFSET)));
-        database.setModificationTime(PalmDateUtil.calendarFromPdbTime(getInt(fileData, MODIFICATION_TIME_OFFSET)));
-        database.setBackupTime(PalmDateUtil.calendarFromPdbTime(getInt(fileData, BACKUP_TIME_OFFSET)));
-        database.setModificationNumber(getInt(fileData, MODIFICATION_NUMBER_OFFSET));
-        appInfoOffset = getInt(fileData, APP_INFO_OFFSET);
-        sortInfoOffset = getInt(fileData, SORT_INFO_OFFSET);
-        database.setDatabaseType(getString(fileData, DATABASE_TYPE_OFFSET, 4));
-        database.setCreatorId(getString(fileData, CREATOR_ID_OFFSET, 4));
-        database.setUniqueIdSeed(getInt(fileData, UNIQUE_ID_SEED_OFFSET));
-        database.setNextRecordList(getInt(fileData, NEXT_RECORD_LIST_OFFSET));
-        numberOfRecords = getShort(fileData, NUMBER_OF_RECORDS_OFFSET);
-    }
-
-    private String getNullTerminatedString(byte[] array) {
-        int length = 0;
-        while (length < array.length) {
-            if (array[length] == 0) {
-                break;
-            }
-            length++;
-        }
-        log.debug("File name length is " + length + " byte(s).");
-        return getString(array, 0, length);
+    /**
+     * Check the file's header and record header table against the PDB format and this reader's limits, without reading
+     * any record, AppInfo or SortInfo data. The same checks run at the start of {@link #read()} and the other read
+     * methods, so calling this first is only needed to reject a file before doing anything else with it.
+     *
+     * The checks cover the file size, the record count, and that the AppInfo, SortInfo and record offsets are in
+     * bounds and in ascending order, and that no record or area exceeds the maximum record size.
+     *
+     * @throws PdbFormatException if the file is malformed or exceeds this reader's limits
+     */
+    public void validate() {
+        readRecordHeaders();
+    }
+
+    /**
+     * Stream the database's records, decoding one record at a time as the stream is consumed. Records are never
+     * collected into a list, so large databases can be processed in constant memory, and short-circuiting operations
+     * such as {@code findFirst} or {@code limit} only decode the records they need.
+     *
+     * The header and AppInfo/SortInfo areas are not read; use {@link #read()} for those.
+     *
+     * @return a sequential, ordered stream of the database's records
+     */
+    public Stream<R> records() {
+        return StreamSupport.stream(recordSpliterator(), false);
+    }
+
+    /**
+     * Stream the database's records in parallel on the common fork/join pool. The stream splits the record header
+     * table into ranges that are decoded concurrently; encounter order is still file order, so ordered terminal
+     * operations such as {@code collect(Collectors.toList())} return the records in the order they appear in the file.
+     * The {@link RecordReader} must be safe to call from multiple threads at once.
+     *
+     * @return a parallel, ordered stream of the database's records
+     */
+    public Stream<R> parallelRecords() {
+        return StreamSupport.stream(recordSpliterator(), true);
     }
 
-    private String getString(byte[] array, int offset, int length) {
-        return PalmStringUtil.palmToUnicode(new String(array, offset, length, StandardCharsets.ISO_8859_1));
+    /**
+     * Iterate over the database's records, decoding each record when {@link Iterator#next()} is called.
+     *
+     * @return an iterator over the database's records
+     */
+    public Iterator<R> recordIterator() {
+        return Spliterators.iterator(recordSpliterator());
     }
 
-    private short getShort(byte[] array, int offset) {
-        ByteBuffer byteBuffer = ByteBuffer.wrap(Arrays.copyOfRange(array, offset, offset + 2));
-        byteBuffer.order(ByteOrder.BIG_ENDIAN);
-        return byteBuffer.getShort();
+    /**
+     * Decode the database's records one at a time and pass each one to the provided action, in file order.
+     *
+     * @param action The action to perform on each record
+     */
+    public void forEachRecord(Consumer<? super R> action) {
+        recordSpliterator().forEachRemaining(action);
     }
 
-    private int getInt(byte[] array, int offset) {
-        ByteBuffer byteBuffer = ByteBuffer.wrap(Arrays.copyOfRange(array, offset, offset + 4));
-        byteBuffer.order(ByteOrder.BIG_ENDIAN);
-        return byteBuffer.getInt();
+    /**
+     * Create a {@link PdbRecordCursor} over the database's records. Only the record header table is read; the cursor
+     * gives access to each record's header fields and bytes without decoding records or allocating per record, and
+     * doesn't need a {@link RecordReader}.
+     *
+     * @return a cursor positioned before the first record
+     */
+    public PdbRecordCursor recordCursor() {
+        return new PdbRecordCursor(fileData, readRecordHeaders());
     }
 
-    private Queue<RecordHeader> readRecordHeaders() {
-        Queue<RecordHeader> recordHeaders = new LinkedList<>();
-        if (numberOfRecords > 0 && recordReader == null) {
+    private Spliterator<R> recordSpliterator() {
+        RecordHeaderTable recordHeaders = readRecordHeaders();
+        if (recordHeaders.size() > 0 && recordReader == null) {
             log.warn("PDB database has records, but no RecordReader provided.");
-            return recordHeaders;
+            return Spliterators.emptySpliterator();
         }
+        final RecordReader<R> reader = recordReader;
+        return new RecordSpliterator<>(index -> readRecord(reader, recordHeaders, index), 0, recordHeaders.size());
+    }
+
+    /**
+     * Build category and flag bitmap indexes from the record header table. Only the header and record header table are
+     * read; no records are decoded.
+     *
+     * @return the attribute index
+     */
+    public RecordAttributeIndex readAttributeIndex() {
+        return RecordAttributeIndex.of(readRecordHeaders());
+    }
+
+    /**
+     * Read only the 78-byte header of a PDB file, with a single positioned read. Nothing else in the file is read.
+     *
+     * @param path PDB file to read
+     * @return the file's header
+     * @throws IOException if the file can't be read or is shorter than a PDB header
+     * @throws PdbFormatException if the header is malformed
+     */
+    public static PdbHeader readHeader(Path path) throws IOException {
+        return readHeader(path, false);
+    }
+
+    /**
+     * Read the header of a PDB file and, optionally, its record header table. The header and table are normally read
+     * with a single positioned read; a second read is only needed for tables larger than
+     * {@value #HEADER_READ_SIZE_BYTES} bytes.
+     *
+     * @param path PDB file to read
+     * @param includeRecordHeaders If true, also read the record header table
+     * @return the file's header, including the record header table if requested
+     * @throws IOException if the file can't be read or is shorter than its header
+     * @throws PdbFormatException if the header or record header table is malformed
+     */
+    public static PdbHeader readHeader(Path path, boolean includeRecordHeaders) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(channel, includeRecordHeaders);
+        }
+    }
+
+    /**
+     * Read the header of the PDB database in a channel and, optionally, its record header table, as
+     * {@link #readHeader(Path, boolean)} does. The channel is read with positioned reads, so its position is unchanged,
+     * and it is not closed.
+     *
+     * @param channel Channel holding the PDB database
+     * @param includeRecordHeaders If true, also read the record header table
+     * @return the database's header, including the record header table if requested
+     * @throws IOException if the channel can't be read or is shorter than a PDB header
+     * @throws PdbFormatException if the header or record header table is malformed
+     */
+    public static PdbHeader readHeader(FileChannel channel, boolean includeRecordHeaders) throws IOException {
+        long fileSize = channel.size();
+        int readSize = includeRecordHeaders
+                ? (int) Math.min(fileSize, HEADER_READ_SIZE_BYTES)
+                : FILE_HEADER_LENGTH_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(readSize, FILE_HEADER_LENGTH_BYTES));
+        if (fileSize < FILE_HEADER_LENGTH_BYTES) {
+            throw new EOFException("File ends before the end of its PDB header.");
+        }
+        readFully(channel, buffer, 0);
+        int numberOfRecords = PdbValidator.checkHeader(buffer, fileSize, PdbReaderLimits.DEFAULT);
+        if (!includeRecordHeaders) {
+            return PdbHeader.parse(buffer, null);
+        }
+        PdbValidator.checkRecordDatabase(buffer);
+
+        int tableEnd = RECORD_HEADERS_OFFSET + numberOfRecords * RECORD_HEADER_SIZE_BYTES;
+        if (tableEnd > buffer.capacity()) {
+            ByteBuffer largerBuffer = ByteBuffer.allocate(tableEnd);
+            largerBuffer.put(buffer.array());
+            readFully(channel, largerBuffer, buffer.capacity());
+            buffer = largerBuffer;
+        }
+        RecordHeaderTable recordHeaders = parseRecordHeaders(buffer, numberOfRecords, (int) fileSize);
+        PdbValidator.checkRecordHeaders(recordHeaders, (int) fileSize, buffer.getInt(APP_INFO_OFFSET),
+                buffer.getInt(SORT_INFO_OFFSET), PdbReaderLimits.DEFAULT);
+        return PdbHeader.parse(buffer, recordHeaders);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position);
+            if (bytesRead < 0) {
+                throw new EOFException("File ends before the end of its PDB header.");
+            }
+            position += bytesRead;
+        }
+    }
+
+    private PdbHeader readHeader(PdbDatabase<R, A, S> database) {
+        PdbHeader header = PdbHeader.parse(fileData, null);
+        header.applyTo(database);
+        return header;
+    }
+
+    private ByteBuffer getSlice(int startOffset, int endOffset) {
+        return ByteBufferUtil.slice(fileData, startOffset, endOffset - startOffset);
+    }
+
+    private RecordHeaderTable readRecordHeaders() {
+        PdbMetricsListener metrics = metricsListener;
+        Object context = begin(metrics);
+        long startTime = startTimer(metrics);
+        RecordHeaderTable recordHeaders = parseRecordHeaders();
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onHeaderRead(recordHeaders.size(), System.nanoTime() - startTime, context);
+        }
+        return recordHeaders;
+    }
+
+    /**
+     * Validate the header and read the record header table. Every read path goes through here, so no record, AppInfo
+     * or SortInfo data is touched until the file has passed {@link PdbValidator}.
+     */
+    private RecordHeaderTable parseRecordHeaders() {
+        int fileSize = fileData.limit();
+        int numberOfRecords = PdbValidator.checkHeader(fileData, fileSize, limits);
+        PdbValidator.checkRecordDatabase(fileData);
+        RecordHeaderTable recordHeaders = parseRecordHeaders(fileData, numberOfRecords, fileSize);
+        PdbValidator.checkRecordHeaders(recordHeaders, fileSize, fileData.getInt(APP_INFO_OFFSET),
+                fileData.getInt(SORT_INFO_OFFSET), limits);
+        return recordHeaders;
+    }
+
+    static RecordHeaderTable parseRecordHeaders(ByteBuffer data, int numberOfRecords, int endOffset) {
+        int[] offsets = new int[numberOfRecords];
+        byte[] attributes = new byte[numberOfRecords];
+        int[] uniqueIds = new int[numberOfRecords];
         int currentOffset = RECORD_HEADERS_OFFSET;
         for (int i = 0; i < numberOfRecords; i++) {
-            byte[] recordHeader = Arrays.copyOfRange(fileData, currentOffset, currentOffset + RECORD_HEADER_SIZE_BYTES);
-            int recordOffset = getInt(recordHeader, 0);
-            byte recordAttributes = recordHeader[4];
-            recordHeaders.add(new RecordHeader(recordOffset, recordAttributes));
+            offsets[i] = data.getInt(currentOffset);
+            // The attribute byte and the 24-bit unique ID share the entry's second int.
+            int attributesAndUniqueId = data.getInt(currentOffset + 4);
+            attributes[i] = (byte) (attributesAndUniqueId >>> 24);
+            uniqueIds[i] = attributesAndUniqueId & 0xFFFFFF;
             currentOffset += RECORD_HEADER_SIZE_BYTES;
         }
-        return recordHeaders;
+        return new RecordHeaderTable(offsets, attributes, uniqueIds, endOffset);
     }
 
-    private List<R> readRecords(Queue<RecordHeader> recordHeaders) {
-        List<R> records = new ArrayList<>();
-        while (recordHeaders.peek() != null) {
-            RecordHeader currentRecord = recordHeaders.poll();
-            RecordHeader nextRecord = recordHeaders.peek();
-            int nextOffset = nextRecord != null ? nextRecord.offset : fileData.length;
-            log.debug("Reading record at offset " + currentRecord.offset + " (size: " + (nextOffset - currentRecord.offset) + ").");
-            byte[] recordData = Arrays.copyOfRange(fileData, currentRecord.offset, nextOffset);
-            records.add(recordReader.read(currentRecord.attributes, recordData));
+    private List<R> readRecords(RecordHeaderTable recordHeaders) {
+        List<R> records = new ArrayList<>(recordHeaders.size());
+        for (int i = 0; i < recordHeaders.size(); i++) {
+            records.add(readRecord(recordReader, recordHeaders, i));
         }
         return records;
     }
 
-    private void readAppInfoArea(PdbDatabase<R, A, S> database, int firstRecordOffset) {
+    @SuppressWarnings("unchecked")
+    private List<R> readRecords(RecordHeaderTable recordHeaders, Executor executor) {
+        final RecordReader<R> reader = recordReader;
+        final int numberOfRecords = recordHeaders.size();
+        final Object[] records = new Object[numberOfRecords];
+        int numberOfTasks = Math.min(numberOfRecords, Runtime.getRuntime().availableProcessors() * TASKS_PER_PROCESSOR);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(numberOfTasks);
+        for (int task = 0; task < numberOfTasks; task++) {
+            final int start = (int) ((long) numberOfRecords * task / numberOfTasks);
+            final int end = (int) ((long) numberOfRecords * (task + 1) / numberOfTasks);
+            tasks.add(CompletableFuture.runAsync(() -> {
+                for (int i = start; i < end; i++) {
+                    records[i] = readRecord(reader, recordHeaders, i);
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        List<R> recordList = new ArrayList<>(numberOfRecords);
+        for (Object record : records) {
+            recordList.add((R) record);
+        }
+        return recordList;
+    }
+
+    private R readRecord(RecordReader<R> reader, RecordHeaderTable recordHeaders, int index) {
+        int offset = recordHeaders.getOffset(index);
+        int nextOffset = recordHeaders.getEndOffset(index);
+        log.debug("Reading record at offset {} (size: {}).", offset, nextOffset - offset);
+        PdbMetricsListener metrics = metricsListener;
+        Object context = begin(metrics);
+        long startTime = startTimer(metrics);
+        R record = reader.read(recordHeaders.getAttributes(index), getSlice(offset, nextOffset));
+        record.setUniqueId(recordHeaders.getUniqueId(index));
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onRecordRead(reader.getClass(), index, nextOffset - offset, System.nanoTime() - startTime,
+                    context);
+        }
+        return record;
+    }
+
+    private static Object begin(PdbMetricsListener metrics) {
+        return (metrics == PdbMetricsListener.NOOP) ? null : metrics.begin();
+    }
+
+    private static long startTimer(PdbMetricsListener metrics) {
+        return (metrics == PdbMetricsListener.NOOP) ? 0L : System.nanoTime();
+    }
+
+    private void readAppInfoArea(PdbDatabase<R, A, S> database, PdbHeader header, int firstRecordOffset) {
         if (appInfoReader == null) {
             log.warn("File has AppInfoOffset, but no AppInfoReader provided.");
             return;
         }
-        final int startOffset = appInfoOffset;
-        int endOffset = (sortInfoOffset > 0) ? sortInfoOffset : firstRecordOffset;
+        final int startOffset = header.getAppInfoOffset();
+        int endOffset = (header.getSortInfoOffset() > 0) ? header.getSortInfoOffset() : firstRecordOffset;
         if (endOffset == 0) {
-            endOffset = fileData.length;
+            endOffset = fileData.limit();
         }
-        final byte[] appInfoData = Arrays.copyOfRange(fileData, startOffset, endOffset);
+        final ByteBuffer appInfoData = getSlice(startOffset, endOffset);
+        PdbMetricsListener metrics = metricsListener;
+        Object context = begin(metrics);
+        long startTime = startTimer(metrics);
         database.setAppInfo(appInfoReader.read(appInfoData));
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onAppInfoRead(appInfoReader.getClass(), endOffset - startOffset, System.nanoTime() - startTime,
+                    context);
+        }
     }
 
-    private void readSortInfoArea(PdbDatabase<R, A, S> database, int firstRecordOffset) {
+    private void readSortInfoArea(PdbDatabase<R, A, S> database, PdbHeader header, int firstRecordOffset) {
         if (sortInfoReader == null) {
             log.warn("File has SortInfoOffset, but no SortInfoReader provided.");
             return;
         }
-        final int startOffset = sortInfoOffset;
-        final int endOffset = (firstRecordOffset > 0) ? firstRecordOffset : fileData.length;
+        final int startOffset = header.getSortInfoOffset();
+        final int endOffset = (firstRecordOffset > 0) ? firstRecordOffset : fileData.limit();
 
-        final byte[] sortInfoData = Arrays.copyOfRange(fileData, startOffset, endOffset);
+        final ByteBuffer sortInfoData = getSlice(startOffset, endOffset);
+        PdbMetricsListener metrics = metricsListener;
+        Object context = begin(metrics);
+        long startTime = startTimer(metrics);
         database.setSortInfo(sortInfoReader.read(sortInfoData));
-    }
-
-    private static class RecordHeader {
-        int offset;
-        byte attributes;
-
-        RecordHeader(int offset, byte attributes) {
-            this.offset = offset;
-            this.attributes = attributes;
+        if (metrics != PdbMetricsListener.NOOP) {
+            metrics.onSortInfoRead(sortInfoReader.getClass(), endOffset - startOffset, System.nanoTime() - startTime,
+                    context);
         }
     }
 }
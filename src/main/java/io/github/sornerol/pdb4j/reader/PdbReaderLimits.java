@@ -0,0 +1,48 @@
+package io.github.sornerol.pdb4j.reader;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Limits on the size of the PDB files a {@link PdbReader} accepts. Files are checked against the limits before any
+ * record, AppInfo or SortInfo data is allocated, so untrusted input can't make the reader allocate more than the limits
+ * allow.
+ *
+ * The {@link #DEFAULT} limits only enforce what the format itself allows. For example, to accept uploads of up to
+ * 1 MiB:
+ *
+ * <pre>{@code
+ * PdbReaderLimits limits = PdbReaderLimits.builder()
+ *         .maxFileSize(1024 * 1024)
+ *         .maxRecords(5000)
+ *         .maxRecordSize(64 * 1024)
+ *         .build();
+ * }</pre>
+ */
+@Value
+@Builder(toBuilder = true)
+public class PdbReaderLimits {
+    /**
+     * Limits that accept any file the reader can represent.
+     */
+    public static final PdbReaderLimits DEFAULT = PdbReaderLimits.builder().build();
+
+    /**
+     * The maximum file size in bytes. Defaults to {@link Integer#MAX_VALUE}.
+     */
+    @Builder.Default
+    long maxFileSize = Integer.MAX_VALUE;
+
+    /**
+     * The maximum number of records. Defaults to 65535, the most the record count field can hold.
+     */
+    @Builder.Default
+    int maxRecords = 0xFFFF;
+
+    /**
+     * The maximum size in bytes of a single record, AppInfo area or SortInfo area. Defaults to
+     * {@link Integer#MAX_VALUE}.
+     */
+    @Builder.Default
+    int maxRecordSize = Integer.MAX_VALUE;
+}
@@ -0,0 +1,191 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.RecordHeaderTable;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * A flyweight over a database's records. The cursor sits on one record at a time and exposes that record's header
+ * fields and a view of its bytes; nothing is decoded, and moving the cursor allocates nothing.
+ *
+ * <pre>{@code
+ * MessageDigest digest = MessageDigest.getInstance("SHA-256");
+ * PdbRecordCursor cursor = reader.recordCursor();
+ * while (cursor.next()) {
+ *     if (!cursor.isDelete()) {
+ *         digest.update(cursor.getData());
+ *     }
+ * }
+ * }</pre>
+ *
+ * The buffer returned by {@link #getData()} is shared: it is repositioned over the new record every time the cursor
+ * moves, so copy anything that has to outlive the current position. A cursor is not thread-safe; give each thread its
+ * own cursor.
+ */
+public final class PdbRecordCursor {
+    private final RecordHeaderTable recordHeaders;
+
+    /*
+      Absolute reads go through fileData, whose limit is never changed; only view is narrowed to the current record.
+    */
+    private final ByteBuffer fileData;
+    private final ByteBuffer view;
+    private int index = -1;
+
+    PdbRecordCursor(ByteBuffer fileData, RecordHeaderTable recordHeaders) {
+        this.recordHeaders = recordHeaders;
+        this.fileData = fileData.duplicate().order(fileData.order());
+        this.view = fileData.duplicate().order(fileData.order());
+    }
+
+    /**
+     * Get the number of records in the database.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return recordHeaders.size();
+    }
+
+    /**
+     * Move to the next record.
+     *
+     * @return true if the cursor is on a record, or false if it has moved past the last one
+     */
+    public boolean next() {
+        if (index < recordHeaders.size()) {
+            index++;
+        }
+        return index < recordHeaders.size();
+    }
+
+    /**
+     * Move to a record.
+     *
+     * @param index Index of the record
+     */
+    public void moveTo(int index) {
+        if (index < 0 || index >= recordHeaders.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + recordHeaders.size());
+        }
+        this.index = index;
+    }
+
+    /**
+     * Move back to before the first record, so the next call to {@link #next()} moves to record 0.
+     */
+    public void reset() {
+        index = -1;
+    }
+
+    /**
+     * Get the index of the current record.
+     *
+     * @return the index, -1 before the first call to {@link #next()}, or {@link #size()} after the last record
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the current record's attribute byte
+     */
+    public byte getAttributes() {
+        return recordHeaders.getAttributes(checkIndex());
+    }
+
+    /**
+     * @return the current record's category (0-15)
+     */
+    public int getCategoryValue() {
+        return getAttributes() & AbstractPdbRecord.CATEGORY_MASK;
+    }
+
+    public boolean isSecret() {
+        return (getAttributes() & AbstractPdbRecord.SECRET_ATTRIBUTE) != 0;
+    }
+
+    public boolean isBusy() {
+        return (getAttributes() & AbstractPdbRecord.BUSY_ATTRIBUTE) != 0;
+    }
+
+    public boolean isDirty() {
+        return (getAttributes() & AbstractPdbRecord.DIRTY_ATTRIBUTE) != 0;
+    }
+
+    public boolean isDelete() {
+        return (getAttributes() & AbstractPdbRecord.DELETE_ATTRIBUTE) != 0;
+    }
+
+    /**
+     * @return the current record's 24-bit unique ID
+     */
+    public int getUniqueId() {
+        return recordHeaders.getUniqueId(checkIndex());
+    }
+
+    /**
+     * @return the offset of the current record's data in the file
+     */
+    public int getOffset() {
+        return recordHeaders.getOffset(checkIndex());
+    }
+
+    /**
+     * @return the length of the current record's data in bytes
+     */
+    public int getLength() {
+        return recordHeaders.getRecordLength(checkIndex());
+    }
+
+    /**
+     * Get a byte of the current record's data.
+     *
+     * @param position Position of the byte within the record
+     * @return the byte
+     */
+    public byte getByte(int position) {
+        if (position < 0 || position >= getLength()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Length: " + getLength());
+        }
+        return fileData.get(getOffset() + position);
+    }
+
+    /**
+     * Get a read-only view of the current record's data, from its position to its limit. The view is shared and is
+     * repositioned on every call, so it is only valid until the cursor moves or this method is called again.
+     *
+     * @return the record's data
+     */
+    public ByteBuffer getData() {
+        int offset = getOffset();
+        // Go through Buffer so the compiled calls link against the Java 8 signatures.
+        ((Buffer) view).limit(recordHeaders.getEndOffset(index));
+        ((Buffer) view).position(offset);
+        return view;
+    }
+
+    /**
+     * Copy the current record's data into an array.
+     *
+     * @param destination The array to copy into
+     * @param destinationOffset Where in the array to start copying
+     * @return the number of bytes copied, which is the record's length
+     */
+    public int copyData(byte[] destination, int destinationOffset) {
+        ByteBuffer data = getData();
+        int length = data.remaining();
+        data.get(destination, destinationOffset, length);
+        return length;
+    }
+
+    private int checkIndex() {
+        if (index < 0 || index >= recordHeaders.size()) {
+            throw new NoSuchElementException("The cursor is not on a record.");
+        }
+        return index;
+    }
+}
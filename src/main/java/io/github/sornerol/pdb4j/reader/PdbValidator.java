@@ -0,0 +1,166 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.RecordHeaderTable;
+import io.github.sornerol.pdb4j.model.ResourceHeaderTable;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntUnaryOperator;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Structural checks on a PDB header and record header table. Each check reads only the header fields and table entries
+ * it needs, and throws a {@link PdbFormatException} on the first problem found.
+ */
+final class PdbValidator {
+    private PdbValidator() {
+    }
+
+    /**
+     * Check the file size, record count and AppInfo/SortInfo offsets in a PDB header. The header table is sized for
+     * record or resource entries, depending on the resource database bit in the file attributes.
+     *
+     * @param data Buffer holding at least the file's header, starting at offset 0
+     * @param fileSize The size of the whole file
+     * @param limits The limits to enforce
+     * @return the number of records in the database
+     */
+    static int checkHeader(ByteBuffer data, long fileSize, PdbReaderLimits limits) {
+        if (fileSize < FILE_HEADER_LENGTH_BYTES) {
+            throw new PdbFormatException("File is " + fileSize + " byte(s), which is shorter than a PDB header.");
+        }
+        if (fileSize > limits.getMaxFileSize()) {
+            throw new PdbFormatException("File is " + fileSize + " byte(s), which exceeds the limit of "
+                    + limits.getMaxFileSize() + " byte(s).");
+        }
+        int numberOfRecords = data.getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF;
+        if (numberOfRecords > limits.getMaxRecords()) {
+            throw new PdbFormatException("File has " + numberOfRecords + " record(s), which exceeds the limit of "
+                    + limits.getMaxRecords() + ".");
+        }
+        boolean resourceDatabase = isResourceDatabase(data);
+        long recordHeadersEnd = resourceDatabase ? resourceHeadersEnd(numberOfRecords)
+                : recordHeadersEnd(numberOfRecords);
+        if (recordHeadersEnd > fileSize) {
+            throw new PdbFormatException((resourceDatabase ? "Resource" : "Record") + " header table for "
+                    + numberOfRecords + " entries ends at offset " + recordHeadersEnd + ", past the end of the file ("
+                    + fileSize + " byte(s)).");
+        }
+        int appInfoOffset = data.getInt(APP_INFO_OFFSET);
+        int sortInfoOffset = data.getInt(SORT_INFO_OFFSET);
+        checkAreaOffset("AppInfo", appInfoOffset, recordHeadersEnd, fileSize);
+        checkAreaOffset("SortInfo", sortInfoOffset, recordHeadersEnd, fileSize);
+        if (appInfoOffset != 0 && sortInfoOffset != 0 && sortInfoOffset < appInfoOffset) {
+            throw new PdbFormatException("SortInfo offset " + sortInfoOffset + " is before AppInfo offset "
+                    + appInfoOffset + ".");
+        }
+        return numberOfRecords;
+    }
+
+    /**
+     * Check that record offsets are in bounds and in ascending order, come after the AppInfo and SortInfo areas, and
+     * that no record or area exceeds the size limit. The header must already have passed
+     * {@link #checkHeader(ByteBuffer, long, PdbReaderLimits)}.
+     *
+     * @param recordHeaders The record header table
+     * @param fileSize The size of the whole file
+     * @param appInfoOffset The AppInfo offset from the header
+     * @param sortInfoOffset The SortInfo offset from the header
+     * @param limits The limits to enforce
+     */
+    static void checkRecordHeaders(RecordHeaderTable recordHeaders, int fileSize, int appInfoOffset,
+                                   int sortInfoOffset, PdbReaderLimits limits) {
+        checkEntries("Record", recordHeaders.size(), recordHeaders::getOffset, recordHeaders::getRecordLength,
+                recordHeadersEnd(recordHeaders.size()), fileSize, appInfoOffset, sortInfoOffset, limits);
+    }
+
+    /**
+     * Check a resource header table in the same way as {@link #checkRecordHeaders}.
+     *
+     * @param resourceHeaders The resource header table
+     * @param fileSize The size of the whole file
+     * @param appInfoOffset The AppInfo offset from the header
+     * @param sortInfoOffset The SortInfo offset from the header
+     * @param limits The limits to enforce
+     */
+    static void checkResourceHeaders(ResourceHeaderTable resourceHeaders, int fileSize, int appInfoOffset,
+                                     int sortInfoOffset, PdbReaderLimits limits) {
+        checkEntries("Resource", resourceHeaders.size(), resourceHeaders::getOffset,
+                resourceHeaders::getResourceLength, resourceHeadersEnd(resourceHeaders.size()), fileSize,
+                appInfoOffset, sortInfoOffset, limits);
+    }
+
+    /**
+     * Check that a header describes a record database, so its header table can be read as record entries.
+     *
+     * @param data Buffer holding at least the file's header, starting at offset 0
+     */
+    static void checkRecordDatabase(ByteBuffer data) {
+        if (isResourceDatabase(data)) {
+            throw new PdbFormatException("File is a resource database; read it with a PrcReader.");
+        }
+    }
+
+    /**
+     * Check that a header describes a resource database, so its header table can be read as resource entries.
+     *
+     * @param data Buffer holding at least the file's header, starting at offset 0
+     */
+    static void checkResourceDatabase(ByteBuffer data) {
+        if (!isResourceDatabase(data)) {
+            throw new PdbFormatException("File is not a resource database; read it with a PdbReader.");
+        }
+    }
+
+    static boolean isResourceDatabase(ByteBuffer data) {
+        return (data.getShort(FILE_ATTRIBUTES_OFFSET) & RESOURCE_DATABASE_ATTRIBUTE) != 0;
+    }
+
+    private static void checkEntries(String kind, int numberOfEntries, IntUnaryOperator offsets,
+                                     IntUnaryOperator lengths, long tableEnd, int fileSize, int appInfoOffset,
+                                     int sortInfoOffset, PdbReaderLimits limits) {
+        long previousOffset = Math.max(tableEnd, Math.max(appInfoOffset, sortInfoOffset));
+        for (int i = 0; i < numberOfEntries; i++) {
+            int offset = offsets.applyAsInt(i);
+            if (offset < previousOffset || offset > fileSize) {
+                throw new PdbFormatException(kind + " " + i + " has offset " + offset + ", which is out of order or "
+                        + "out of bounds (expected " + previousOffset + " to " + fileSize + ").");
+            }
+            previousOffset = offset;
+        }
+        for (int i = 0; i < numberOfEntries; i++) {
+            checkSize(kind + " " + i, lengths.applyAsInt(i), limits);
+        }
+
+        int firstEntryOffset = (numberOfEntries > 0) ? offsets.applyAsInt(0) : fileSize;
+        if (appInfoOffset != 0) {
+            int appInfoEnd = (sortInfoOffset != 0) ? sortInfoOffset : firstEntryOffset;
+            checkSize("AppInfo area", appInfoEnd - appInfoOffset, limits);
+        }
+        if (sortInfoOffset != 0) {
+            checkSize("SortInfo area", firstEntryOffset - sortInfoOffset, limits);
+        }
+    }
+
+    private static long recordHeadersEnd(int numberOfRecords) {
+        return RECORD_HEADERS_OFFSET + (long) numberOfRecords * RECORD_HEADER_SIZE_BYTES;
+    }
+
+    private static long resourceHeadersEnd(int numberOfResources) {
+        return RECORD_HEADERS_OFFSET + (long) numberOfResources * RESOURCE_HEADER_SIZE_BYTES;
+    }
+
+    private static void checkAreaOffset(String area, int offset, long recordHeadersEnd, long fileSize) {
+        if (offset != 0 && (offset < recordHeadersEnd || offset > fileSize)) {
+            throw new PdbFormatException(area + " offset " + offset + " is out of bounds (expected "
+                    + recordHeadersEnd + " to " + fileSize + ").");
+        }
+    }
+
+    private static void checkSize(String what, int size, PdbReaderLimits limits) {
+        if (size > limits.getMaxRecordSize()) {
+            throw new PdbFormatException(what + " is " + size + " byte(s), which exceeds the limit of "
+                    + limits.getMaxRecordSize() + " byte(s).");
+        }
+    }
+}
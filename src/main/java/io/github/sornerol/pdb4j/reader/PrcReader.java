@@ -0,0 +1,365 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbHeader;
+import io.github.sornerol.pdb4j.model.PdbResource;
+import io.github.sornerol.pdb4j.model.ResourceDatabase;
+import io.github.sornerol.pdb4j.model.ResourceHeaderTable;
+import io.github.sornerol.pdb4j.model.ResourceIndex;
+import io.github.sornerol.pdb4j.util.ByteBufferUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Reads a resource (PRC) database, such as a Palm OS application, from a memory-mapped file, byte array or
+ * {@link ByteBuffer}.
+ *
+ * Resource databases have the resource database bit set in their file attributes, and their header table holds 10-byte
+ * entries with each resource's four-character type, 16-bit ID and data offset. The table is parsed and indexed by type
+ * and ID on first use, and resource data is only touched when a resource is requested, so pulling a few resources out
+ * of a large database costs little more than reading its header table. {@link #read()} reads every resource.
+ *
+ * To extract resources from many files, the static {@link #readResource(Path, String, int)} and
+ * {@link #readResources(Path, String)} read just the header table and the requested data with positioned reads,
+ * without mapping the file.
+ */
+@Slf4j
+public class PrcReader {
+    private static final int HEADER_READ_SIZE_BYTES = 4096;
+
+    private final ByteBuffer fileData;
+    private final PdbReaderLimits limits;
+
+    /*
+      The file data never changes, so racing threads can only parse identical copies of the table and index.
+    */
+    private volatile ResourceHeaderTable resourceHeaders;
+    private volatile ResourceIndex resourceIndex;
+
+    /**
+     * Create a new PrcReader to read the provided file through a read-only memory mapping. The file should not be
+     * modified while the reader is in use.
+     *
+     * @param path PRC file to read
+     * @throws IOException if the file doesn't exist or can't be mapped
+     */
+    public PrcReader(Path path) throws IOException {
+        this(path, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PrcReader to read the provided file through a read-only memory mapping, enforcing the provided
+     * limits.
+     *
+     * @param path PRC file to read
+     * @param limits The limits to enforce
+     * @throws IOException if the file doesn't exist or can't be mapped
+     */
+    public PrcReader(Path path, PdbReaderLimits limits) throws IOException {
+        this(ByteBufferUtil.mapReadOnly(path), limits);
+    }
+
+    /**
+     * Create a new PrcReader to read from the provided byte array
+     *
+     * @param fileData A resource database as a byte array.
+     */
+    public PrcReader(byte[] fileData) {
+        this(fileData, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PrcReader to read from the provided byte array, enforcing the provided limits.
+     *
+     * @param fileData A resource database as a byte array.
+     * @param limits The limits to enforce
+     */
+    public PrcReader(byte[] fileData, PdbReaderLimits limits) {
+        this(ByteBuffer.wrap(fileData), limits);
+    }
+
+    /**
+     * Create a new PrcReader to read from the remaining bytes of the provided buffer. The buffer's contents are not
+     * copied, and its position and limit are not modified.
+     *
+     * @param fileData A resource database in a {@link ByteBuffer}
+     */
+    public PrcReader(ByteBuffer fileData) {
+        this(fileData, PdbReaderLimits.DEFAULT);
+    }
+
+    /**
+     * Create a new PrcReader to read from the remaining bytes of the provided buffer, enforcing the provided limits.
+     *
+     * @param fileData A resource database in a {@link ByteBuffer}
+     * @param limits The limits to enforce
+     */
+    public PrcReader(ByteBuffer fileData, PdbReaderLimits limits) {
+        this.fileData = fileData.slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+        this.limits = limits;
+    }
+
+    /**
+     * Read the whole file into a {@link ResourceDatabase}, copying every resource's data.
+     *
+     * @return the imported {@link ResourceDatabase}
+     * @throws PdbFormatException if the file is malformed, isn't a resource database, or exceeds this reader's limits
+     */
+    public ResourceDatabase read() {
+        ResourceHeaderTable table = readResourceHeaders();
+        PdbHeader header = PdbHeader.parse(fileData, null);
+        ResourceDatabase database = new ResourceDatabase();
+        header.applyTo(database);
+
+        int firstResourceOffset = (table.size() > 0) ? table.getOffset(0) : fileData.limit();
+        int appInfoOffset = header.getAppInfoOffset();
+        int sortInfoOffset = header.getSortInfoOffset();
+        if (appInfoOffset != 0) {
+            int appInfoEnd = (sortInfoOffset != 0) ? sortInfoOffset : firstResourceOffset;
+            database.setAppInfo(copy(appInfoOffset, appInfoEnd));
+        }
+        if (sortInfoOffset != 0) {
+            database.setSortInfo(copy(sortInfoOffset, firstResourceOffset));
+        }
+
+        List<PdbResource> resources = new ArrayList<>(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            resources.add(toResource(table, i));
+        }
+        database.setResources(resources, readResourceIndex());
+        return database;
+    }
+
+    /**
+     * Check the file's header and resource header table against the format and this reader's limits, without reading
+     * any resource data.
+     *
+     * @throws PdbFormatException if the file is malformed, isn't a resource database, or exceeds this reader's limits
+     */
+    public void validate() {
+        readResourceHeaders();
+    }
+
+    /**
+     * Read the file's 78-byte header.
+     *
+     * @return the header
+     */
+    public PdbHeader readHeader() {
+        return PdbHeader.parse(fileData, null);
+    }
+
+    /**
+     * Get the resource header table, parsing and validating it on first use.
+     *
+     * @return the resource header table
+     * @throws PdbFormatException if the file is malformed, isn't a resource database, or exceeds this reader's limits
+     */
+    public ResourceHeaderTable readResourceHeaders() {
+        ResourceHeaderTable table = resourceHeaders;
+        if (table == null) {
+            int fileSize = fileData.limit();
+            int numberOfResources = PdbValidator.checkHeader(fileData, fileSize, limits);
+            PdbValidator.checkResourceDatabase(fileData);
+            table = parseResourceHeaders(fileData, numberOfResources, fileSize);
+            PdbValidator.checkResourceHeaders(table, fileSize, fileData.getInt(APP_INFO_OFFSET),
+                    fileData.getInt(SORT_INFO_OFFSET), limits);
+            resourceHeaders = table;
+        }
+        return table;
+    }
+
+    /**
+     * Get the (type, ID) index of the resource header table, building it on first use.
+     *
+     * @return the index
+     */
+    public ResourceIndex readResourceIndex() {
+        ResourceIndex index = resourceIndex;
+        if (index == null) {
+            index = ResourceIndex.of(readResourceHeaders());
+            resourceIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Check whether the database has a resource.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return true if the resource exists
+     */
+    public boolean hasResource(String type, int id) {
+        return readResourceIndex().indexOf(type, id) >= 0;
+    }
+
+    /**
+     * Get a read-only view of a resource's data, without copying it. The view is only valid for as long as the
+     * underlying file or buffer is.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the resource's data, or null if there is no such resource
+     */
+    public ByteBuffer getResourceData(String type, int id) {
+        int index = readResourceIndex().indexOf(type, id);
+        if (index < 0) {
+            return null;
+        }
+        ResourceHeaderTable table = readResourceHeaders();
+        return ByteBufferUtil.slice(fileData, table.getOffset(index), table.getResourceLength(index));
+    }
+
+    /**
+     * Read a single resource.
+     *
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the resource, or null if there is no such resource
+     */
+    public PdbResource readResource(String type, int id) {
+        int index = readResourceIndex().indexOf(type, id);
+        return (index < 0) ? null : toResource(readResourceHeaders(), index);
+    }
+
+    /**
+     * Read every resource of a type, in file order.
+     *
+     * @param type The four-character resource type
+     * @return the resources, which may be empty
+     */
+    public List<PdbResource> readResources(String type) {
+        int typeCode = PdbResource.typeCode(type);
+        ResourceHeaderTable table = readResourceHeaders();
+        List<PdbResource> resources = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            if (table.getTypeCode(i) == typeCode) {
+                resources.add(toResource(table, i));
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * Read a single resource from a file. Only the header, the resource header table and the resource's own data are
+     * read, normally with two positioned reads. A one-off lookup scans the table rather than building an index.
+     *
+     * @param path PRC file to read
+     * @param type The resource's four-character type
+     * @param id The resource's ID
+     * @return the resource, or null if there is no such resource
+     * @throws IOException if the file can't be read
+     * @throws PdbFormatException if the file is malformed or isn't a resource database
+     */
+    public static PdbResource readResource(Path path, String type, int id) throws IOException {
+        int typeCode = PdbResource.typeCode(type);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ResourceHeaderTable table = readResourceHeaders(channel);
+            for (int i = 0; i < table.size(); i++) {
+                if (table.getTypeCode(i) == typeCode && table.getId(i) == (id & 0xFFFF)) {
+                    return readResource(channel, table, i);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Read every resource of a type from a file, in file order. Only the header, the resource header table and the
+     * matching resources' data are read.
+     *
+     * @param path PRC file to read
+     * @param type The four-character resource type
+     * @return the resources, which may be empty
+     * @throws IOException if the file can't be read
+     * @throws PdbFormatException if the file is malformed or isn't a resource database
+     */
+    public static List<PdbResource> readResources(Path path, String type) throws IOException {
+        int typeCode = PdbResource.typeCode(type);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ResourceHeaderTable table = readResourceHeaders(channel);
+            List<PdbResource> resources = new ArrayList<>();
+            for (int i = 0; i < table.size(); i++) {
+                if (table.getTypeCode(i) == typeCode) {
+                    resources.add(readResource(channel, table, i));
+                }
+            }
+            return resources;
+        }
+    }
+
+    static ResourceHeaderTable parseResourceHeaders(ByteBuffer data, int numberOfResources, int endOffset) {
+        int[] types = new int[numberOfResources];
+        int[] ids = new int[numberOfResources];
+        int[] offsets = new int[numberOfResources];
+        int currentOffset = RECORD_HEADERS_OFFSET;
+        for (int i = 0; i < numberOfResources; i++) {
+            types[i] = data.getInt(currentOffset);
+            ids[i] = data.getShort(currentOffset + 4) & 0xFFFF;
+            offsets[i] = data.getInt(currentOffset + 6);
+            currentOffset += RESOURCE_HEADER_SIZE_BYTES;
+        }
+        return new ResourceHeaderTable(types, ids, offsets, endOffset);
+    }
+
+    private PdbResource toResource(ResourceHeaderTable table, int index) {
+        return new PdbResource(table.getType(index), table.getId(index),
+                copy(table.getOffset(index), table.getEndOffset(index)));
+    }
+
+    private byte[] copy(int startOffset, int endOffset) {
+        return ByteBufferUtil.getBytes(fileData, startOffset, endOffset - startOffset);
+    }
+
+    private static ResourceHeaderTable readResourceHeaders(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < FILE_HEADER_LENGTH_BYTES) {
+            throw new EOFException("File ends before the end of its PDB header.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(fileSize, HEADER_READ_SIZE_BYTES));
+        readFully(channel, buffer, 0);
+        int numberOfResources = PdbValidator.checkHeader(buffer, fileSize, PdbReaderLimits.DEFAULT);
+        PdbValidator.checkResourceDatabase(buffer);
+        int tableEnd = RECORD_HEADERS_OFFSET + numberOfResources * RESOURCE_HEADER_SIZE_BYTES;
+        if (tableEnd > buffer.capacity()) {
+            ByteBuffer largerBuffer = ByteBuffer.allocate(tableEnd);
+            largerBuffer.put(buffer.array());
+            readFully(channel, largerBuffer, buffer.capacity());
+            buffer = largerBuffer;
+        }
+        ResourceHeaderTable table = parseResourceHeaders(buffer, numberOfResources, (int) fileSize);
+        PdbValidator.checkResourceHeaders(table, (int) fileSize, buffer.getInt(APP_INFO_OFFSET),
+                buffer.getInt(SORT_INFO_OFFSET), PdbReaderLimits.DEFAULT);
+        return table;
+    }
+
+    private static PdbResource readResource(FileChannel channel, ResourceHeaderTable table, int index)
+            throws IOException {
+        log.debug("Reading resource at offset {} (size: {}).", table.getOffset(index),
+                table.getResourceLength(index));
+        ByteBuffer data = ByteBuffer.allocate(table.getResourceLength(index));
+        readFully(channel, data, table.getOffset(index));
+        return new PdbResource(table.getType(index), table.getId(index), data.array());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position);
+            if (bytesRead < 0) {
+                throw new EOFException("Unexpected end of file at offset " + position + ".");
+            }
+            position += bytesRead;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterator that decodes one record at a time from a range of the record header table.
+ *
+ * The spliterator splits its range in half, so a parallel stream over it decodes records on the fork/join pool while
+ * keeping them in file order.
+ *
+ * @param <R> The type of records produced
+ */
+class RecordSpliterator<R extends PdbRecord> implements Spliterator<R> {
+    private final IntFunction<R> decoder;
+    private int index;
+    private final int end;
+
+    RecordSpliterator(IntFunction<R> decoder, int index, int end) {
+        this.decoder = decoder;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (index >= end) {
+            return false;
+        }
+        action.accept(decoder.apply(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        while (index < end) {
+            action.accept(decoder.apply(index++));
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        int middle = (index + end) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+        Spliterator<R> prefix = new RecordSpliterator<>(decoder, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+    }
+}
@@ -2,6 +2,21 @@ package io.github.sornerol.pdb4j.reader.appinfo;
 
 import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
 
+import java.nio.ByteBuffer;
+
 public interface AppInfoReader <T extends AppInfo > {
     T read(byte[] data);
+
+    /**
+     * Read the app info area from a read-only, big-endian view of the original PDB data, starting at position zero.
+     * The default implementation copies the data into a byte array and calls {@link #read(byte[])}.
+     *
+     * @param data The app info area
+     * @return the app info
+     */
+    default T read(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return read(bytes);
+    }
 }
@@ -0,0 +1,15 @@
+package io.github.sornerol.pdb4j.reader.appinfo.impl;
+
+import io.github.sornerol.pdb4j.model.appinfo.impl.CategoryAppInfo;
+import io.github.sornerol.pdb4j.reader.appinfo.AppInfoReader;
+
+/**
+ * An {@link AppInfoReader} for AppInfo areas that start with the standard category block, such as those of the Address
+ * Book, Date Book, Memo Pad and To Do List databases.
+ */
+public class CategoryAppInfoReader implements AppInfoReader<CategoryAppInfo> {
+    @Override
+    public CategoryAppInfo read(byte[] data) {
+        return new CategoryAppInfo(data);
+    }
+}
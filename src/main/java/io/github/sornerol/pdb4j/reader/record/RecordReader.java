@@ -2,6 +2,8 @@ package io.github.sornerol.pdb4j.reader.record;
 
 import io.github.sornerol.pdb4j.model.record.PdbRecord;
 
+import java.nio.ByteBuffer;
+
 /**
  * A RecordReader reads individual record data and stores it in an {@link PdbRecord}.
  * @param <T> The type of records produced by the RecordReader
@@ -9,4 +11,22 @@ import io.github.sornerol.pdb4j.model.record.PdbRecord;
 public interface RecordReader <T extends PdbRecord> {
     T read(byte[] data);
     T read(byte attributes, byte[] data);
+
+    /**
+     * Read a record from a view of the original PDB data.
+     *
+     * The buffer is a read-only, big-endian slice holding only this record's data, starting at position zero. It may
+     * be backed by a memory-mapped file, so implementations that keep the buffer beyond this call must not outlive the
+     * file. The default implementation copies the data into a byte array and calls {@link #read(byte, byte[])};
+     * readers that only need a few fields can override it to avoid the copy.
+     *
+     * @param attributes The record's attributes
+     * @param data The record's data
+     * @return the record
+     */
+    default T read(byte attributes, ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return read(attributes, bytes);
+    }
 }
@@ -0,0 +1,19 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.model.record.impl.AddressRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+/**
+ * A {@link RecordReader} for the Address Book database. Records keep their raw bytes and decode each field on first access.
+ */
+public class AddressRecordReader implements RecordReader<AddressRecord> {
+    @Override
+    public AddressRecord read(byte[] data) {
+        return new AddressRecord((byte) 0, data);
+    }
+
+    @Override
+    public AddressRecord read(byte attributes, byte[] data) {
+        return new AddressRecord(attributes, data);
+    }
+}
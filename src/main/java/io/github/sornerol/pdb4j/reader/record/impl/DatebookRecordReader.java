@@ -0,0 +1,19 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.model.record.impl.DatebookRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+/**
+ * A {@link RecordReader} for the Date Book database. Records keep their raw bytes and decode each field on first access.
+ */
+public class DatebookRecordReader implements RecordReader<DatebookRecord> {
+    @Override
+    public DatebookRecord read(byte[] data) {
+        return new DatebookRecord((byte) 0, data);
+    }
+
+    @Override
+    public DatebookRecord read(byte attributes, byte[] data) {
+        return new DatebookRecord(attributes, data);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.mapping.PdbField;
+import io.github.sornerol.pdb4j.mapping.RecordCodec;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link RecordReader} for record classes whose layout is described with {@link PdbField} annotations. Fields are
+ * decoded straight from the PDB data through the class's {@link RecordCodec}, without copying the record first.
+ *
+ * @param <T> The type of records produced by the RecordReader
+ */
+public class MappedRecordReader<T extends PdbRecord> implements RecordReader<T> {
+    private final RecordCodec<T> codec;
+
+    /**
+     * Create a new MappedRecordReader for a record class.
+     *
+     * @param type The record class
+     * @throws IllegalArgumentException if the class's annotations don't describe a valid layout
+     */
+    public MappedRecordReader(Class<T> type) {
+        this.codec = RecordCodec.forClass(type);
+    }
+
+    @Override
+    public T read(byte[] data) {
+        return codec.read((byte) 0, data);
+    }
+
+    @Override
+    public T read(byte attributes, byte[] data) {
+        return codec.read(attributes, data);
+    }
+
+    @Override
+    public T read(byte attributes, ByteBuffer data) {
+        return codec.read(attributes, data);
+    }
+}
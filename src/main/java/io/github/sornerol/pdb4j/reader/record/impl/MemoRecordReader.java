@@ -0,0 +1,19 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.model.record.impl.MemoRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+/**
+ * A {@link RecordReader} for the Memo Pad database. Records keep their raw bytes and decode each field on first access.
+ */
+public class MemoRecordReader implements RecordReader<MemoRecord> {
+    @Override
+    public MemoRecord read(byte[] data) {
+        return new MemoRecord((byte) 0, data);
+    }
+
+    @Override
+    public MemoRecord read(byte attributes, byte[] data) {
+        return new MemoRecord(attributes, data);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.model.record.impl.PalmDocRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+/**
+ * A {@link RecordReader} for PalmDOC e-texts. Records are kept as stored; text is only decompressed when it is asked
+ * for, through {@link PalmDocRecord#getText} or {@link io.github.sornerol.pdb4j.util.PalmDocUtil}.
+ */
+public class PalmDocRecordReader implements RecordReader<PalmDocRecord> {
+    @Override
+    public PalmDocRecord read(byte[] data) {
+        return new PalmDocRecord(data);
+    }
+
+    @Override
+    public PalmDocRecord read(byte attributes, byte[] data) {
+        return new PalmDocRecord(attributes, data);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.sornerol.pdb4j.reader.record.impl;
+
+import io.github.sornerol.pdb4j.model.record.impl.ToDoRecord;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+
+/**
+ * A {@link RecordReader} for the To Do List database. Records keep their raw bytes and decode each field on first access.
+ */
+public class ToDoRecordReader implements RecordReader<ToDoRecord> {
+    @Override
+    public ToDoRecord read(byte[] data) {
+        return new ToDoRecord((byte) 0, data);
+    }
+
+    @Override
+    public ToDoRecord read(byte attributes, byte[] data) {
+        return new ToDoRecord(attributes, data);
+    }
+}
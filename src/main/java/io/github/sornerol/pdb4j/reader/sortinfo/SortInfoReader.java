@@ -2,6 +2,21 @@ package io.github.sornerol.pdb4j.reader.sortinfo;
 
 import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
 
+import java.nio.ByteBuffer;
+
 public interface SortInfoReader<T extends SortInfo> {
     T read(byte[] data);
+
+    /**
+     * Read the sort info area from a read-only, big-endian view of the original PDB data, starting at position zero.
+     * The default implementation copies the data into a byte array and calls {@link #read(byte[])}.
+     *
+     * @param data The sort info area
+     * @return the sort info
+     */
+    default T read(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return read(bytes);
+    }
 }
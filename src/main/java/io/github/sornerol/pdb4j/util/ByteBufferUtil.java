@@ -0,0 +1,73 @@
+package io.github.sornerol.pdb4j.util;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper methods for working with PDB data held in a {@link ByteBuffer}
+ */
+public class ByteBufferUtil {
+
+    /**
+     * Copy a range of bytes out of a buffer without changing the buffer's position or limit.
+     *
+     * @param buffer The buffer to copy from
+     * @param offset Absolute offset of the first byte to copy
+     * @param length Number of bytes to copy
+     * @return a new byte array holding the requested range
+     */
+    public static byte[] getBytes(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        view(buffer, offset, length).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Create a read-only, big-endian view of a range of bytes in a buffer. The returned buffer's position is zero and
+     * its capacity is {@code length}. No data is copied.
+     *
+     * @param buffer The buffer to slice
+     * @param offset Absolute offset of the first byte of the slice
+     * @param length Number of bytes in the slice
+     * @return read-only view of the requested range
+     */
+    public static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer slice = view(buffer, offset, length).slice();
+        if (!slice.isReadOnly()) {
+            slice = slice.asReadOnlyBuffer();
+        }
+        return slice.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Map a file into memory as a read-only, big-endian buffer.
+     *
+     * @param path The file to map
+     * @return read-only buffer backed by the file's contents
+     * @throws IOException if the file can't be opened, or is too large to address with a PDB offset
+     */
+    public static ByteBuffer mapReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + path + " is too large to be a PDB database (" + size + " bytes).");
+            }
+            MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return mappedBuffer.order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+
+    private static ByteBuffer view(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        // Go through Buffer so the compiled calls link against the Java 8 signatures.
+        ((Buffer) view).limit(offset + length);
+        ((Buffer) view).position(offset);
+        return view;
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.sornerol.pdb4j.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * The Palm OS character set ("x-PalmOS"): ISO-8859-1 with Palm OS specific characters in the 0x18-0x19 and 0x80-0x9F
+ * ranges.
+ *
+ * Decoding and encoding are single table lookups per character, with no intermediate strings. The charset is
+ * registered through {@link PalmCharsetProvider}, so it is also available through {@code Charset.forName("x-PalmOS")}.
+ */
+public class PalmCharset extends Charset {
+    public static final String NAME = "x-PalmOS";
+
+    /**
+     * Shared instance of the charset.
+     */
+    public static final PalmCharset INSTANCE = new PalmCharset();
+
+    private static final int UNMAPPABLE = -1;
+
+    /**
+     * Unicode character for each Palm OS byte value.
+     */
+    static final char[] DECODE_TABLE = new char[256];
+
+    private static final int ENCODE_TABLE_SIZE = 0x2700;
+
+    /**
+     * Palm OS byte value for each Unicode character below {@link #ENCODE_TABLE_SIZE}, or {@link #UNMAPPABLE}.
+     */
+    private static final int[] ENCODE_TABLE = new int[ENCODE_TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < DECODE_TABLE.length; i++) {
+            DECODE_TABLE[i] = (char) i;
+        }
+        DECODE_TABLE[0x18] = '\u2026'; // Horizontal ellipsis
+        DECODE_TABLE[0x19] = '\u2007'; // Figure space
+        DECODE_TABLE[0x80] = '\u20AC'; // Euro sign
+        DECODE_TABLE[0x82] = '\u201A'; // Single low-9 quotation mark
+        DECODE_TABLE[0x83] = '\u0192'; // Latin small letter F with hook
+        DECODE_TABLE[0x84] = '\u201E'; // Double low-9 quotation mark
+        DECODE_TABLE[0x85] = '\u2026'; // Horizontal ellipsis
+        DECODE_TABLE[0x86] = '\u2020'; // Dagger
+        DECODE_TABLE[0x87] = '\u2021'; // Double dagger
+        DECODE_TABLE[0x88] = '\u0302'; // Combining circumflex accent
+        DECODE_TABLE[0x89] = '\u2030'; // Per mille sign
+        DECODE_TABLE[0x8A] = '\u0160'; // Latin capital letter S with caron
+        DECODE_TABLE[0x8B] = '\u2039'; // Single left-pointing angle quotation mark
+        DECODE_TABLE[0x8C] = '\u0152'; // Latin capital ligature oe
+        DECODE_TABLE[0x8D] = '\u2662'; // White diamond suit
+        DECODE_TABLE[0x8E] = '\u2663'; // Black club suit
+        DECODE_TABLE[0x8F] = '\u2661'; // White heart suit
+        DECODE_TABLE[0x90] = '\u2660'; // Black spade suit
+        DECODE_TABLE[0x91] = '\u2018'; // Left single quotation mark
+        DECODE_TABLE[0x92] = '\u2019'; // Right single quotation mark
+        DECODE_TABLE[0x93] = '\u201C'; // Left double quotation mark
+        DECODE_TABLE[0x94] = '\u201D'; // Right double quotation mark
+        DECODE_TABLE[0x95] = '\u2219'; // Bullet operator
+        DECODE_TABLE[0x96] = '\u2011'; // Non-breaking hyphen
+        DECODE_TABLE[0x97] = '\u2012'; // Figure dash
+        DECODE_TABLE[0x98] = '\u0303'; // Combining tilde
+        DECODE_TABLE[0x99] = '\u2122'; // Trade mark sign
+        DECODE_TABLE[0x9A] = '\u0161'; // Latin small letter s with caron
+        DECODE_TABLE[0x9B] = '\u203A'; // Single right-pointing angle quotation mark
+        DECODE_TABLE[0x9C] = '\u0153'; // Latin small ligature oe
+        DECODE_TABLE[0x9F] = '\u0178'; // Latin capital letter Y with diaeresis
+
+        // Characters up to U+00FF encode as themselves, as in ISO-8859-1. The Palm OS specific characters are all above
+        // U+00FF; where two byte values decode to the same character, the lowest one is used for encoding.
+        for (int i = 0; i < ENCODE_TABLE_SIZE; i++) {
+            ENCODE_TABLE[i] = (i <= 0xFF) ? i : UNMAPPABLE;
+        }
+        for (int i = DECODE_TABLE.length - 1; i >= 0; i--) {
+            if (DECODE_TABLE[i] > 0xFF) {
+                ENCODE_TABLE[DECODE_TABLE[i]] = i;
+            }
+        }
+    }
+
+    private PalmCharset() {
+        super(NAME, new String[]{"PalmOS"});
+    }
+
+    /**
+     * Get the Palm OS byte value for a character.
+     *
+     * @param c The character to encode
+     * @return the byte value (0-255), or -1 if the character can't be encoded
+     */
+    static int encode(char c) {
+        return (c < ENCODE_TABLE_SIZE) ? ENCODE_TABLE[c] : UNMAPPABLE;
+    }
+
+    @Override
+    public boolean contains(Charset cs) {
+        return cs instanceof PalmCharset;
+    }
+
+    @Override
+    public CharsetDecoder newDecoder() {
+        return new Decoder(this);
+    }
+
+    @Override
+    public CharsetEncoder newEncoder() {
+        return new Encoder(this);
+    }
+
+    private static class Decoder extends CharsetDecoder {
+        Decoder(Charset charset) {
+            super(charset, 1.0f, 1.0f);
+        }
+
+        @Override
+        protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+            int length = Math.min(in.remaining(), out.remaining());
+            if (in.hasArray() && out.hasArray()) {
+                byte[] source = in.array();
+                char[] destination = out.array();
+                int sourceOffset = in.arrayOffset() + in.position();
+                int destinationOffset = out.arrayOffset() + out.position();
+                for (int i = 0; i < length; i++) {
+                    destination[destinationOffset + i] = DECODE_TABLE[source[sourceOffset + i] & 0xFF];
+                }
+                ((Buffer) in).position(in.position() + length);
+                ((Buffer) out).position(out.position() + length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    out.put(DECODE_TABLE[in.get() & 0xFF]);
+                }
+            }
+            return in.hasRemaining() ? CoderResult.OVERFLOW : CoderResult.UNDERFLOW;
+        }
+    }
+
+    private static class Encoder extends CharsetEncoder {
+        Encoder(Charset charset) {
+            super(charset, 1.0f, 1.0f);
+        }
+
+        @Override
+        public boolean canEncode(char c) {
+            return PalmCharset.encode(c) != UNMAPPABLE;
+        }
+
+        @Override
+        protected CoderResult encodeLoop(CharBuffer in, ByteBuffer out) {
+            while (in.hasRemaining()) {
+                char c = in.get(in.position());
+                int b = PalmCharset.encode(c);
+                if (b == UNMAPPABLE) {
+                    if (!Character.isSurrogate(c)) {
+                        return CoderResult.unmappableForLength(1);
+                    }
+                    if (Character.isHighSurrogate(c)) {
+                        if (in.remaining() < 2) {
+                            return CoderResult.UNDERFLOW;
+                        }
+                        if (Character.isLowSurrogate(in.get(in.position() + 1))) {
+                            return CoderResult.unmappableForLength(2);
+                        }
+                    }
+                    return CoderResult.malformedForLength(1);
+                }
+                if (!out.hasRemaining()) {
+                    return CoderResult.OVERFLOW;
+                }
+                out.put((byte) b);
+                ((Buffer) in).position(in.position() + 1);
+            }
+            return CoderResult.UNDERFLOW;
+        }
+    }
+}
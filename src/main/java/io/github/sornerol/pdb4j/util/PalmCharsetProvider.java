@@ -0,0 +1,29 @@
+package io.github.sornerol.pdb4j.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.spi.CharsetProvider;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Makes {@link PalmCharset} available through {@link Charset#forName(String)}.
+ */
+public class PalmCharsetProvider extends CharsetProvider {
+    @Override
+    public Iterator<Charset> charsets() {
+        return Collections.<Charset>singletonList(PalmCharset.INSTANCE).iterator();
+    }
+
+    @Override
+    public Charset charsetForName(String charsetName) {
+        if (PalmCharset.INSTANCE.name().equalsIgnoreCase(charsetName)) {
+            return PalmCharset.INSTANCE;
+        }
+        for (String alias : PalmCharset.INSTANCE.aliases()) {
+            if (alias.equalsIgnoreCase(charsetName)) {
+                return PalmCharset.INSTANCE;
+            }
+        }
+        return null;
+    }
+}
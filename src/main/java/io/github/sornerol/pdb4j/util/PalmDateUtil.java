@@ -2,6 +2,11 @@ package io.github.sornerol.pdb4j.util;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.TimeZone;
 
@@ -10,9 +15,26 @@ import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.UNIX_EPOCH_YEAR
 
 /**
  * Helper methods for working with Palm OS timestamps
+ *
+ * Palm OS timestamps count seconds from midnight, local time, on the epoch base date. The epoch base for a time zone is
+ * computed once and cached, so the primitive and {@link Instant} conversions don't allocate any {@link Calendar}s. The
+ * overloads without a {@link ZoneId} use the system default time zone as it was when this class was first used; pass a
+ * {@link ZoneId} if the default can change while the application runs.
  */
 @Slf4j
 public class PalmDateUtil {
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final int NO_PACKED_DATE = 0xFFFF;
+    // The packed year field holds 7 bits.
+    private static final int MAX_PACKED_DATE_YEAR = PALM_EPOCH_YEAR + 0x7F;
+
+    /*
+      ZoneId.systemDefault() clones the default TimeZone on every call, so the default zone is resolved once.
+    */
+    private static final EpochBases DEFAULT_EPOCH_BASES = new EpochBases(ZoneId.systemDefault());
+
+    private static volatile EpochBases cachedEpochBases;
+
     /**
      * Translate a Palm OS timestamp to a Java Calendar.
      *
@@ -25,16 +47,67 @@ public class PalmDateUtil {
      * @return {@link Calendar} set to the corresponding time from the Palm OS timestamp
      */
     public static Calendar calendarFromPdbTime(int pdbTime) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getDefault());
+        calendar.setTimeInMillis(epochMillisFromPdbTime(pdbTime));
+        return calendar;
+    }
+
+    /**
+     * Translate a Palm OS timestamp to an {@link Instant}. See {@link #calendarFromPdbTime(int)} for how the epoch base
+     * is detected.
+     *
+     * @param pdbTime A Palm OS timestamp
+     * @return the corresponding instant
+     */
+    public static Instant instantFromPdbTime(int pdbTime) {
+        return Instant.ofEpochMilli(epochMillisFromPdbTime(pdbTime));
+    }
+
+    /**
+     * Translate a Palm OS timestamp to an {@link Instant}, relative to the epoch base in a specific time zone.
+     *
+     * @param pdbTime A Palm OS timestamp
+     * @param zone The time zone the timestamp is local to
+     * @return the corresponding instant
+     */
+    public static Instant instantFromPdbTime(int pdbTime, ZoneId zone) {
+        return Instant.ofEpochMilli(epochMillisFromPdbTime(pdbTime, zone));
+    }
+
+    /**
+     * Translate a Palm OS timestamp to milliseconds since 1970-01-01T00:00:00Z. See {@link #calendarFromPdbTime(int)}
+     * for how the epoch base is detected.
+     *
+     * @param pdbTime A Palm OS timestamp
+     * @return the corresponding time in milliseconds since the Java epoch
+     */
+    public static long epochMillisFromPdbTime(int pdbTime) {
+        return epochMillisFromPdbTime(pdbTime, DEFAULT_EPOCH_BASES);
+    }
+
+    /**
+     * Translate a Palm OS timestamp to milliseconds since 1970-01-01T00:00:00Z, relative to the epoch base in a
+     * specific time zone. Doesn't allocate once the epoch base for the zone is cached.
+     *
+     * @param pdbTime A Palm OS timestamp
+     * @param zone The time zone the timestamp is local to
+     * @return the corresponding time in milliseconds since the Java epoch
+     */
+    public static long epochMillisFromPdbTime(int pdbTime, ZoneId zone) {
+        return epochMillisFromPdbTime(pdbTime, epochBases(zone));
+    }
+
+    private static long epochMillisFromPdbTime(int pdbTime, EpochBases bases) {
         /*
           Some Palm applications use the Unix epoch base instead of the Palm epoch base.
           If the highest bit is not set in the timestamp, we can assume this is the case, since otherwise
           the date would be a date well before the PDB format was created.
         */
-        int epochYear = ((pdbTime & 0x80000000) == 0) ? UNIX_EPOCH_YEAR : PALM_EPOCH_YEAR;
-        log.debug("Epoch year detected as " + epochYear + ".");
-        Calendar calendar = getBase(epochYear);
-        calendar.setTimeInMillis(calendar.getTimeInMillis() + (Integer.toUnsignedLong(pdbTime) * 1000));
-        return calendar;
+        boolean useUnixEpoch = (pdbTime & 0x80000000) == 0;
+        if (log.isDebugEnabled()) {
+            log.debug("Epoch year detected as {}.", useUnixEpoch ? UNIX_EPOCH_YEAR : PALM_EPOCH_YEAR);
+        }
+        return bases.baseMillis(useUnixEpoch) + Integer.toUnsignedLong(pdbTime) * MILLIS_PER_SECOND;
     }
 
     /**
@@ -45,17 +118,135 @@ public class PalmDateUtil {
      * @return Palm OS timestamp
      */
     public static int pdbTimestampFromCalendar(Calendar calendar, boolean useUnixEpoch) {
-        int epochYear = useUnixEpoch ? UNIX_EPOCH_YEAR : PALM_EPOCH_YEAR;
-        Calendar offset = getBase(epochYear);
-        int calendarSeconds = Math.toIntExact(calendar.getTimeInMillis() / 1000);
-        int offsetSeconds = Math.toIntExact(offset.getTimeInMillis() / 1000);
-        return calendarSeconds - offsetSeconds;
+        return pdbTimestampFromEpochMillis(calendar.getTimeInMillis(), useUnixEpoch);
     }
 
-    private static Calendar getBase(int epochYear) {
-        Calendar calendar = Calendar.getInstance(TimeZone.getDefault());
-        calendar.clear();
-        calendar.set(epochYear, Calendar.JANUARY, 1, 0, 0, 0);
-        return calendar;
+    /**
+     * Get a Palm OS timestamp from an {@link Instant}.
+     *
+     * @param instant The instant to return a Palm OS timestamp from
+     * @param useUnixEpoch If true, create a timestamp relative to the Unix epoch date instead of the Palm OS epoch.
+     * @return Palm OS timestamp
+     */
+    public static int pdbTimestampFromInstant(Instant instant, boolean useUnixEpoch) {
+        return pdbTimestampFromEpochMillis(instant.toEpochMilli(), useUnixEpoch);
+    }
+
+    /**
+     * Get a Palm OS timestamp from an {@link Instant}, relative to the epoch base in a specific time zone.
+     *
+     * @param instant The instant to return a Palm OS timestamp from
+     * @param useUnixEpoch If true, create a timestamp relative to the Unix epoch date instead of the Palm OS epoch.
+     * @param zone The time zone the timestamp should be local to
+     * @return Palm OS timestamp
+     */
+    public static int pdbTimestampFromInstant(Instant instant, boolean useUnixEpoch, ZoneId zone) {
+        return pdbTimestampFromEpochMillis(instant.toEpochMilli(), useUnixEpoch, zone);
+    }
+
+    /**
+     * Get a Palm OS timestamp from milliseconds since 1970-01-01T00:00:00Z.
+     *
+     * @param epochMillis The time in milliseconds since the Java epoch
+     * @param useUnixEpoch If true, create a timestamp relative to the Unix epoch date instead of the Palm OS epoch.
+     * @return Palm OS timestamp
+     */
+    public static int pdbTimestampFromEpochMillis(long epochMillis, boolean useUnixEpoch) {
+        return pdbTimestampFromEpochMillis(epochMillis, useUnixEpoch, DEFAULT_EPOCH_BASES);
+    }
+
+    /**
+     * Get a Palm OS timestamp from milliseconds since 1970-01-01T00:00:00Z, relative to the epoch base in a specific
+     * time zone. Doesn't allocate once the epoch base for the zone is cached.
+     *
+     * @param epochMillis The time in milliseconds since the Java epoch
+     * @param useUnixEpoch If true, create a timestamp relative to the Unix epoch date instead of the Palm OS epoch.
+     * @param zone The time zone the timestamp should be local to
+     * @return Palm OS timestamp
+     */
+    public static int pdbTimestampFromEpochMillis(long epochMillis, boolean useUnixEpoch, ZoneId zone) {
+        return pdbTimestampFromEpochMillis(epochMillis, useUnixEpoch, epochBases(zone));
+    }
+
+    private static int pdbTimestampFromEpochMillis(long epochMillis, boolean useUnixEpoch, EpochBases bases) {
+        long baseSeconds = bases.baseMillis(useUnixEpoch) / MILLIS_PER_SECOND;
+        // Timestamps after 2040 don't fit in a signed int; truncating keeps the unsigned Palm OS value.
+        return (int) (epochMillis / MILLIS_PER_SECOND - baseSeconds);
+    }
+
+    /**
+     * Decode a packed Palm OS date, as stored by the ToDo and Datebook applications. Bits 15-9 hold the number of years
+     * since 1904, bits 8-5 the month and bits 4-0 the day of the month.
+     *
+     * The month and day fields can hold values that aren't dates, such as month 13 or February 30, which some
+     * applications write and which corrupt records may contain. Those decode to null, like the no-date value, rather
+     * than failing.
+     *
+     * @param packedDate A packed date in the lowest 16 bits
+     * @return the date, or null if the value is 0xFFFF (no date) or isn't a valid date
+     */
+    public static LocalDate localDateFromPackedDate(int packedDate) {
+        packedDate &= 0xFFFF;
+        if (packedDate == NO_PACKED_DATE) {
+            return null;
+        }
+        int year = PALM_EPOCH_YEAR + (packedDate >>> 9);
+        int month = (packedDate >>> 5) & 0x0F;
+        int day = packedDate & 0x1F;
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Encode a date as a packed Palm OS date. See {@link #localDateFromPackedDate(int)}.
+     *
+     * @param date The date to encode, or null for no date
+     * @return the packed date, or 0xFFFF if the date is null
+     * @throws IllegalArgumentException if the date's year is before 1904 or after 2031
+     */
+    public static int packedDateFromLocalDate(LocalDate date) {
+        if (date == null) {
+            return NO_PACKED_DATE;
+        }
+        int year = date.getYear();
+        if (year < PALM_EPOCH_YEAR || year > MAX_PACKED_DATE_YEAR) {
+            throw new IllegalArgumentException("Packed date year must be between " + PALM_EPOCH_YEAR + " and "
+                    + MAX_PACKED_DATE_YEAR + ", but was " + year + ".");
+        }
+        return ((year - PALM_EPOCH_YEAR) << 9) | (date.getMonthValue() << 5) | date.getDayOfMonth();
+    }
+
+    private static EpochBases epochBases(ZoneId zone) {
+        EpochBases bases = cachedEpochBases;
+        if (bases == null || !bases.zone.equals(zone)) {
+            bases = new EpochBases(zone);
+            cachedEpochBases = bases;
+        }
+        return bases;
+    }
+
+    /**
+     * Start of the Palm OS and Unix epoch base dates in one time zone.
+     */
+    private static final class EpochBases {
+        private final ZoneId zone;
+        private final long palmBaseMillis;
+        private final long unixBaseMillis;
+
+        private EpochBases(ZoneId zone) {
+            this.zone = zone;
+            palmBaseMillis = startOfYearMillis(PALM_EPOCH_YEAR, zone);
+            unixBaseMillis = startOfYearMillis(UNIX_EPOCH_YEAR, zone);
+        }
+
+        private long baseMillis(boolean useUnixEpoch) {
+            return useUnixEpoch ? unixBaseMillis : palmBaseMillis;
+        }
+
+        private static long startOfYearMillis(int year, ZoneId zone) {
+            return LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
     }
 }
@@ -0,0 +1,247 @@
+package io.github.sornerol.pdb4j.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Codec for the PalmDOC variant of LZ77 used by PalmDOC e-texts.
+ *
+ * Each byte of compressed data is one of:
+ * <ul>
+ *     <li>0x00 or 0x09-0x7F: a literal byte</li>
+ *     <li>0x01-0x08: a count of literal bytes that follow</li>
+ *     <li>0x80-0xBF: with the next byte, a back-reference of 3-10 bytes up to 2047 bytes back</li>
+ *     <li>0xC0-0xFF: a space followed by the byte XOR 0x80</li>
+ * </ul>
+ *
+ * The decompressor works directly on arrays and doesn't allocate per token. The compressor finds back-references with
+ * hash chains over 3-byte sequences.
+ */
+public class PalmDocCompression {
+    /**
+     * The most bytes a single compressed byte can expand to; a 2-byte back-reference copies up to 10 bytes.
+     */
+    public static final int MAX_EXPANSION = 5;
+
+    private static final int MIN_MATCH = 3;
+    private static final int MAX_MATCH = 10;
+    private static final int MAX_DISTANCE = 2047;
+    private static final int MAX_LITERAL_RUN = 8;
+    private static final int HASH_BITS = 12;
+    private static final int MAX_CHAIN_LENGTH = 64;
+
+    /**
+     * Get an upper bound for the decompressed size of compressed data.
+     *
+     * @param compressedLength The length of the compressed data
+     * @return the most bytes the data can decompress to
+     */
+    public static int maxDecompressedLength(int compressedLength) {
+        return compressedLength * MAX_EXPANSION;
+    }
+
+    /**
+     * Decompress PalmDOC data.
+     *
+     * @param source The compressed data
+     * @return the decompressed data
+     */
+    public static byte[] decompress(byte[] source) {
+        byte[] destination = new byte[maxDecompressedLength(source.length)];
+        int length = decompress(source, 0, source.length, destination, 0);
+        return Arrays.copyOf(destination, length);
+    }
+
+    /**
+     * Decompress the remaining bytes of a buffer into an array. The buffer's position is not modified.
+     *
+     * @param source The compressed data
+     * @param destination The array to decompress into
+     * @param destinationOffset Where in the array to start writing
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the data is malformed or doesn't fit in the destination
+     */
+    public static int decompress(ByteBuffer source, byte[] destination, int destinationOffset) {
+        if (source.hasArray()) {
+            return decompress(source.array(), source.arrayOffset() + source.position(), source.remaining(),
+                    destination, destinationOffset);
+        }
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        return decompress(bytes, 0, bytes.length, destination, destinationOffset);
+    }
+
+    /**
+     * Decompress part of an array into another array.
+     *
+     * @param source The compressed data
+     * @param sourceOffset Where the compressed data starts
+     * @param sourceLength The length of the compressed data
+     * @param destination The array to decompress into
+     * @param destinationOffset Where in the array to start writing
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if the data is malformed or doesn't fit in the destination
+     */
+    public static int decompress(byte[] source, int sourceOffset, int sourceLength,
+                                 byte[] destination, int destinationOffset) {
+        int in = sourceOffset;
+        int inEnd = sourceOffset + sourceLength;
+        int out = destinationOffset;
+        int outEnd = destination.length;
+        try {
+            while (in < inEnd) {
+                int c = source[in++] & 0xFF;
+                if (c >= 0x01 && c <= 0x08) {
+                    if (in + c > inEnd) {
+                        throw malformed("literal run at offset " + (in - 1 - sourceOffset) + " is truncated");
+                    }
+                    System.arraycopy(source, in, destination, out, c);
+                    in += c;
+                    out += c;
+                } else if (c < 0x80) {
+                    destination[out++] = (byte) c;
+                } else if (c >= 0xC0) {
+                    destination[out++] = ' ';
+                    destination[out++] = (byte) (c ^ 0x80);
+                } else {
+                    if (in >= inEnd) {
+                        throw malformed("back-reference at offset " + (in - 1 - sourceOffset) + " is truncated");
+                    }
+                    int pair = (c << 8) | (source[in++] & 0xFF);
+                    int distance = (pair >> 3) & 0x7FF;
+                    int length = (pair & 0x07) + MIN_MATCH;
+                    int from = out - distance;
+                    if (distance == 0 || from < destinationOffset) {
+                        throw malformed("back-reference at offset " + (in - 2 - sourceOffset)
+                                + " points before the start of the data");
+                    }
+                    if (out + length > outEnd) {
+                        throw new ArrayIndexOutOfBoundsException(out + length);
+                    }
+                    if (distance >= length) {
+                        System.arraycopy(destination, from, destination, out, length);
+                        out += length;
+                    } else {
+                        // Overlapping copy: the reference repeats bytes it is still producing.
+                        for (int i = 0; i < length; i++) {
+                            destination[out++] = destination[from + i];
+                        }
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Decompressed PalmDOC data doesn't fit in "
+                    + (outEnd - destinationOffset) + " byte(s).", e);
+        }
+        return out - destinationOffset;
+    }
+
+    /**
+     * Compress data with PalmDOC compression.
+     *
+     * @param source The data to compress
+     * @return the compressed data
+     */
+    public static byte[] compress(byte[] source) {
+        return compress(source, 0, source.length);
+    }
+
+    /**
+     * Compress part of an array with PalmDOC compression.
+     *
+     * @param source The data to compress
+     * @param offset Where the data starts
+     * @param length The length of the data
+     * @return the compressed data
+     */
+    public static byte[] compress(byte[] source, int offset, int length) {
+        // Worst case, every other byte needs its own literal run count.
+        byte[] destination = new byte[length * 2];
+        int[] head = new int[1 << HASH_BITS];
+        int[] previous = new int[length];
+        Arrays.fill(head, -1);
+
+        int end = offset + length;
+        int out = 0;
+        int i = offset;
+        while (i < end) {
+            int bestLength = 0;
+            int bestDistance = 0;
+            if (i + MIN_MATCH <= end) {
+                int maxLength = Math.min(MAX_MATCH, end - i);
+                int candidate = head[hash(source, i)];
+                int chain = MAX_CHAIN_LENGTH;
+                while (candidate >= 0 && i - (offset + candidate) <= MAX_DISTANCE && chain-- > 0) {
+                    int start = offset + candidate;
+                    int matchLength = 0;
+                    while (matchLength < maxLength && source[start + matchLength] == source[i + matchLength]) {
+                        matchLength++;
+                    }
+                    if (matchLength > bestLength) {
+                        bestLength = matchLength;
+                        bestDistance = i - start;
+                        if (matchLength == maxLength) {
+                            break;
+                        }
+                    }
+                    candidate = previous[candidate];
+                }
+            }
+
+            if (bestLength >= MIN_MATCH) {
+                int pair = 0x8000 | (bestDistance << 3) | (bestLength - MIN_MATCH);
+                destination[out++] = (byte) (pair >>> 8);
+                destination[out++] = (byte) pair;
+                insert(source, offset, end, i, bestLength, head, previous);
+                i += bestLength;
+                continue;
+            }
+
+            int c = source[i] & 0xFF;
+            if (c == ' ' && i + 1 < end && (source[i + 1] & 0xFF) >= 0x40 && (source[i + 1] & 0xFF) <= 0x7F) {
+                destination[out++] = (byte) (source[i + 1] ^ 0x80);
+                insert(source, offset, end, i, 2, head, previous);
+                i += 2;
+            } else if (!needsEscape(c)) {
+                destination[out++] = (byte) c;
+                insert(source, offset, end, i, 1, head, previous);
+                i++;
+            } else {
+                int run = 1;
+                while (run < MAX_LITERAL_RUN && i + run < end && needsEscape(source[i + run] & 0xFF)) {
+                    run++;
+                }
+                destination[out++] = (byte) run;
+                System.arraycopy(source, i, destination, out, run);
+                out += run;
+                insert(source, offset, end, i, run, head, previous);
+                i += run;
+            }
+        }
+        return Arrays.copyOf(destination, out);
+    }
+
+    private static boolean needsEscape(int c) {
+        return (c >= 0x01 && c <= 0x08) || c >= 0x80;
+    }
+
+    private static void insert(byte[] source, int offset, int end, int position, int count,
+                               int[] head, int[] previous) {
+        int last = Math.min(position + count, end - MIN_MATCH + 1);
+        for (int i = position; i < last; i++) {
+            int h = hash(source, i);
+            previous[i - offset] = head[h];
+            head[h] = i - offset;
+        }
+    }
+
+    private static int hash(byte[] source, int position) {
+        int key = ((source[position] & 0xFF) << 16) | ((source[position + 1] & 0xFF) << 8)
+                | (source[position + 2] & 0xFF);
+        return (key * 0x9E3779B1) >>> (32 - HASH_BITS);
+    }
+
+    private static IllegalArgumentException malformed(String problem) {
+        return new IllegalArgumentException("Malformed PalmDOC data: " + problem + ".");
+    }
+}
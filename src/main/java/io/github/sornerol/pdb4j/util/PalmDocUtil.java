@@ -0,0 +1,215 @@
+package io.github.sornerol.pdb4j.util;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.PalmDocHeader;
+import io.github.sornerol.pdb4j.model.record.impl.PalmDocRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helper methods for reading and creating PalmDOC e-texts.
+ *
+ * The text methods take a database's records, with the {@link PalmDocHeader} in record 0, and decompress one record at
+ * a time into a reusable buffer, so the whole text is never held in memory unless it is asked for. Records after the
+ * header's record count, such as bookmarks, are ignored.
+ */
+public class PalmDocUtil {
+    private static final int CHAR_BUFFER_SIZE = 8192;
+
+    /**
+     * Decompress the whole text into an {@link OutputStream}.
+     *
+     * @param records The database's records
+     * @param outputStream The stream to write the text to
+     * @return the number of bytes written
+     * @throws IOException if the stream can't be written to
+     */
+    public static long writeText(List<? extends PalmDocRecord> records, OutputStream outputStream)
+            throws IOException {
+        PalmDocHeader header = PalmDocHeader.fromRecord(records.get(0));
+        int lastRecord = lastTextRecord(records, header);
+        long written = 0;
+        byte[] scratch = new byte[0];
+        for (int i = 1; i <= lastRecord; i++) {
+            PalmDocRecord record = records.get(i);
+            byte[] data = record.getData();
+            if (data == null) {
+                continue;
+            }
+            if (!header.isCompressed()) {
+                outputStream.write(data);
+                written += data.length;
+                continue;
+            }
+            scratch = ensureCapacity(scratch, 0, PalmDocCompression.maxDecompressedLength(data.length));
+            int length = record.getText(header, scratch, 0);
+            outputStream.write(scratch, 0, length);
+            written += length;
+        }
+        return written;
+    }
+
+    /**
+     * Decompress the whole text into a {@link Writer}, decoding it with the Palm OS character set.
+     *
+     * @param records The database's records
+     * @param writer The writer to write the text to
+     * @return the number of characters written
+     * @throws IOException if the writer can't be written to
+     */
+    public static long writeText(List<? extends PalmDocRecord> records, Writer writer) throws IOException {
+        return writeText(records, writer, PalmCharset.INSTANCE);
+    }
+
+    /**
+     * Decompress the whole text into a {@link Writer}, decoding it with the provided character set. Multi-byte
+     * characters that are split across records are decoded correctly; malformed input is replaced.
+     *
+     * @param records The database's records
+     * @param writer The writer to write the text to
+     * @param charset The text's character set
+     * @return the number of characters written
+     * @throws IOException if the writer can't be written to
+     */
+    public static long writeText(List<? extends PalmDocRecord> records, Writer writer, Charset charset)
+            throws IOException {
+        PalmDocHeader header = PalmDocHeader.fromRecord(records.get(0));
+        int lastRecord = lastTextRecord(records, header);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+        byte[] scratch = new byte[0];
+        int carried = 0;
+        long written = 0;
+        for (int i = 1; i <= lastRecord; i++) {
+            PalmDocRecord record = records.get(i);
+            byte[] data = record.getData();
+            if (data == null) {
+                continue;
+            }
+            scratch = ensureCapacity(scratch, carried, PalmDocCompression.maxDecompressedLength(data.length));
+            int length = carried + record.getText(header, scratch, carried);
+            ByteBuffer bytes = ByteBuffer.wrap(scratch, 0, length);
+            written += decode(decoder, bytes, chars, writer, false);
+            // Keep the start of a character that continues in the next record.
+            carried = bytes.remaining();
+            System.arraycopy(scratch, bytes.position(), scratch, 0, carried);
+        }
+        written += decode(decoder, ByteBuffer.wrap(scratch, 0, carried), chars, writer, true);
+        CoderResult result;
+        do {
+            result = decoder.flush(chars);
+            written += drain(chars, writer);
+        } while (result.isOverflow());
+        return written;
+    }
+
+    /**
+     * Decompress the whole text into a byte array.
+     *
+     * @param records The database's records
+     * @return the text, in the database's character set
+     */
+    public static byte[] readText(List<? extends PalmDocRecord> records) {
+        PalmDocHeader header = PalmDocHeader.fromRecord(records.get(0));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(0, header.getTextLength()));
+        try {
+            writeText(records, outputStream);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Create a PalmDOC database holding a text. The text is split into {@value PalmDocHeader#DEFAULT_RECORD_SIZE}-byte
+     * records, each one compressed separately if requested.
+     *
+     * @param name The database name
+     * @param text The text, in the character set the database should use
+     * @param compress If true, compress the text with PalmDOC compression
+     * @param <A> The type of app info in the database
+     * @param <S> The type of sort info in the database
+     * @return the database
+     */
+    public static <A extends AppInfo, S extends SortInfo> PdbDatabase<PalmDocRecord, A, S> createDatabase(
+            String name, byte[] text, boolean compress) {
+        int recordSize = PalmDocHeader.DEFAULT_RECORD_SIZE;
+        int textRecords = (text.length + recordSize - 1) / recordSize;
+
+        PalmDocHeader header = new PalmDocHeader();
+        header.setCompression(compress ? PalmDocHeader.COMPRESSION_PALMDOC : PalmDocHeader.COMPRESSION_NONE);
+        header.setTextLength(text.length);
+        header.setRecordCount(textRecords);
+        header.setRecordSize(recordSize);
+
+        List<PalmDocRecord> records = new ArrayList<>(textRecords + 1);
+        records.add(header.toRecord());
+        for (int offset = 0; offset < text.length; offset += recordSize) {
+            records.add(PalmDocRecord.ofText(text, offset, Math.min(recordSize, text.length - offset), compress));
+        }
+        for (int i = 0; i < records.size(); i++) {
+            records.get(i).setUniqueId(i + 1);
+        }
+
+        Instant now = Instant.now();
+        PdbDatabase<PalmDocRecord, A, S> database = new PdbDatabase<>();
+        database.setName(name);
+        database.setDatabaseType(PalmDocHeader.DATABASE_TYPE);
+        database.setCreatorId(PalmDocHeader.CREATOR_ID);
+        database.setCreationInstant(now);
+        database.setModificationInstant(now);
+        database.setBackupInstant(now);
+        database.setUniqueIdSeed(records.size() + 1);
+        database.setRecords(records);
+        return database;
+    }
+
+    private static int lastTextRecord(List<? extends PalmDocRecord> records, PalmDocHeader header) {
+        return Math.min(header.getRecordCount(), records.size() - 1);
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int used, int additional) {
+        if (buffer.length - used >= additional) {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(used + additional, buffer.length * 2));
+    }
+
+    private static long decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, Writer writer,
+                               boolean endOfInput) throws IOException {
+        long written = 0;
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            written += drain(chars, writer);
+        } while (result.isOverflow());
+        return written;
+    }
+
+    private static int drain(CharBuffer chars, Writer writer) throws IOException {
+        // Go through Buffer so the compiled calls link against the Java 8 signatures.
+        ((Buffer) chars).flip();
+        int length = chars.remaining();
+        writer.write(chars.array(), chars.arrayOffset(), length);
+        ((Buffer) chars).clear();
+        return length;
+    }
+}
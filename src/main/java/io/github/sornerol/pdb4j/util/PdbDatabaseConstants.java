@@ -22,6 +22,13 @@ public class PdbDatabaseConstants {
     public static final int RECORD_HEADERS_OFFSET = 78;
 
     public static final int RECORD_HEADER_SIZE_BYTES = 8;
+    public static final int RESOURCE_HEADER_SIZE_BYTES = 10;
+
+    // The record count is a 16-bit field, so this is also the most resources a resource database can hold
+    public static final int MAX_RECORDS = 0xFFFF;
+
+    // File attributes
+    public static final int RESOURCE_DATABASE_ATTRIBUTE = 0x0001;
 
     public static final int PALM_EPOCH_YEAR = 1904;
     public static final int UNIX_EPOCH_YEAR = 1970;
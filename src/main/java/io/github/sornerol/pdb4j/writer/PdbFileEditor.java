@@ -0,0 +1,379 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.model.RecordHeaderTable;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+import io.github.sornerol.pdb4j.reader.PdbFormatException;
+import io.github.sornerol.pdb4j.reader.PdbReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Edits an existing PDB file in place, without reading the whole database or rewriting the whole file.
+ *
+ * Attribute changes are written straight into the record header table. A record replaced with data of the same size
+ * is overwritten in place. Only when a record changes size, or a record is appended, is the data after it moved and
+ * the offsets in the record header table rewritten.
+ *
+ * The header and record header table are validated when the editor is opened, as {@link PdbReader} validates them,
+ * so a malformed file is rejected before anything is written to it. The editor keeps a copy of the record header
+ * table in memory, so the file must not be modified by anything else while the editor is open.
+ */
+@Slf4j
+public class PdbFileEditor implements Closeable {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private ByteBuffer recordHeaders;
+    private int numberOfRecords;
+    private long fileSize;
+
+    /**
+     * Open a PDB file for editing.
+     *
+     * @param path The PDB file to edit
+     * @throws IOException if the file can't be opened or its header can't be read
+     * @throws PdbFormatException if the header or record header table is malformed
+     */
+    public PdbFileEditor(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Edit the PDB database in the provided channel. The channel must be open for both reading and writing, and is
+     * closed when the editor is closed, or if the editor can't be created.
+     *
+     * @param channel Channel holding the PDB database
+     * @throws IOException if the database's header can't be read, or the file is a resource database
+     * @throws PdbFormatException if the header or record header table is malformed
+     */
+    public PdbFileEditor(FileChannel channel) throws IOException {
+        this.channel = channel;
+        try {
+            fileSize = channel.size();
+            ByteBuffer attributesBuffer = readFully(FILE_ATTRIBUTES_OFFSET, 2);
+            if ((attributesBuffer.getShort(0) & RESOURCE_DATABASE_ATTRIBUTE) != 0) {
+                throw new IOException("File is a resource database, whose entries PdbFileEditor can't edit.");
+            }
+            // Every edit trusts the record offsets, so they are checked before anything is written.
+            RecordHeaderTable table = PdbReader.readHeader(channel, true).getRecordHeaders();
+            numberOfRecords = table.size();
+            recordHeaders = ByteBuffer.allocate(numberOfRecords * RECORD_HEADER_SIZE_BYTES);
+            recordHeaders.order(ByteOrder.BIG_ENDIAN);
+            for (int i = 0; i < numberOfRecords; i++) {
+                recordHeaders.putInt(table.getOffset(i));
+                recordHeaders.putInt((table.getAttributes(i) << 24) | (table.getUniqueId(i) & 0xFFFFFF));
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of records in the database
+     *
+     * @return the number of records
+     */
+    public int getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    /**
+     * Get a record's attributes
+     *
+     * @param index Index of the record
+     * @return the record's attribute byte
+     */
+    public byte getAttributes(int index) {
+        checkIndex(index);
+        return recordHeaders.get(index * RECORD_HEADER_SIZE_BYTES + 4);
+    }
+
+    /**
+     * Get a record's unique ID
+     *
+     * @param index Index of the record
+     * @return the record's 24-bit unique ID
+     */
+    public int getUniqueId(int index) {
+        checkIndex(index);
+        return recordHeaders.getInt(index * RECORD_HEADER_SIZE_BYTES + 4) & 0xFFFFFF;
+    }
+
+    /**
+     * Overwrite a record's attribute byte in the record header table.
+     *
+     * @param index Index of the record
+     * @param attributes The new attributes
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void setAttributes(int index, byte attributes) throws IOException {
+        checkIndex(index);
+        int entryOffset = index * RECORD_HEADER_SIZE_BYTES + 4;
+        recordHeaders.put(entryOffset, attributes);
+        writeFully(RECORD_HEADERS_OFFSET + entryOffset, ByteBuffer.wrap(new byte[]{attributes}));
+    }
+
+    /**
+     * Set or clear a record's dirty flag.
+     *
+     * @param index Index of the record
+     * @param dirty true to set the flag, false to clear it
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void setDirty(int index, boolean dirty) throws IOException {
+        setFlag(index, AbstractPdbRecord.DIRTY_ATTRIBUTE, dirty);
+    }
+
+    /**
+     * Set or clear a record's delete flag.
+     *
+     * @param index Index of the record
+     * @param delete true to set the flag, false to clear it
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void setDelete(int index, boolean delete) throws IOException {
+        setFlag(index, AbstractPdbRecord.DELETE_ATTRIBUTE, delete);
+    }
+
+    /**
+     * Set or clear a record's secret flag.
+     *
+     * @param index Index of the record
+     * @param secret true to set the flag, false to clear it
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void setSecret(int index, boolean secret) throws IOException {
+        setFlag(index, AbstractPdbRecord.SECRET_ATTRIBUTE, secret);
+    }
+
+    /**
+     * Change a record's category, keeping its flags.
+     *
+     * @param index Index of the record
+     * @param category The new category value (0-15)
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void setCategory(int index, int category) throws IOException {
+        if (category < 0 || category > AbstractPdbRecord.CATEGORY_MASK) {
+            throw new IllegalArgumentException("Category must be between 0 and 15, but was " + category + ".");
+        }
+        int attributes = getAttributes(index) & ~AbstractPdbRecord.CATEGORY_MASK;
+        setAttributes(index, (byte) (attributes | category));
+    }
+
+    /**
+     * Read a record's data from the file.
+     *
+     * @param index Index of the record
+     * @return the record's data
+     * @throws IOException if there is a problem reading the file
+     */
+    public byte[] readRecord(int index) throws IOException {
+        checkIndex(index);
+        ByteBuffer data = readFully(getOffset(index), getRecordLength(index));
+        return data.array();
+    }
+
+    /**
+     * Replace a record's data. If the new data is the same size as the old data, it is written in place. Otherwise the
+     * records after it are moved and their offsets in the record header table are updated.
+     *
+     * @param index Index of the record
+     * @param data The record's new data
+     * @throws IOException if there is a problem writing to the file
+     */
+    public void replaceRecord(int index, byte[] data) throws IOException {
+        checkIndex(index);
+        int offset = getOffset(index);
+        int delta = data.length - getRecordLength(index);
+        if (delta != 0) {
+            log.debug("Record {} changed size by {} byte(s); moving following data.", index, delta);
+            shift(offset + getRecordLength(index), delta);
+            for (int i = index + 1; i < numberOfRecords; i++) {
+                setOffset(i, getOffset(i) + delta);
+            }
+            int firstChangedEntry = (index + 1) * RECORD_HEADER_SIZE_BYTES;
+            writeRecordHeaders(firstChangedEntry, recordHeaders.capacity() - firstChangedEntry);
+        }
+        writeFully(offset, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Append a record to the end of the database. The record header table grows by one entry, so everything after the
+     * table is moved and every offset in the file is updated.
+     *
+     * @param attributes The new record's attributes
+     * @param data The new record's data
+     * @throws IOException if there is a problem writing to the file
+     * @throws IllegalStateException if the database already has 65535 records
+     */
+    public void appendRecord(byte attributes, byte[] data) throws IOException {
+        appendRecord(attributes, 0, data);
+    }
+
+    /**
+     * Append a record with a unique ID to the end of the database. See {@link #appendRecord(byte, byte[])}.
+     *
+     * @param attributes The new record's attributes
+     * @param uniqueId The new record's 24-bit unique ID
+     * @param data The new record's data
+     * @throws IOException if there is a problem writing to the file
+     * @throws IllegalStateException if the database already has 65535 records
+     */
+    public void appendRecord(byte attributes, int uniqueId, byte[] data) throws IOException {
+        if (numberOfRecords >= MAX_RECORDS) {
+            throw new IllegalStateException("Database already has " + numberOfRecords
+                    + " records, the most a PDB file can hold.");
+        }
+        int tableEnd = RECORD_HEADERS_OFFSET + recordHeaders.capacity();
+        shift(tableEnd, RECORD_HEADER_SIZE_BYTES);
+        shiftHeaderOffset(APP_INFO_OFFSET);
+        shiftHeaderOffset(SORT_INFO_OFFSET);
+
+        ByteBuffer newRecordHeaders = ByteBuffer.allocate(recordHeaders.capacity() + RECORD_HEADER_SIZE_BYTES);
+        newRecordHeaders.order(ByteOrder.BIG_ENDIAN);
+        newRecordHeaders.put(recordHeaders.array());
+        recordHeaders = newRecordHeaders;
+        for (int i = 0; i < numberOfRecords; i++) {
+            setOffset(i, getOffset(i) + RECORD_HEADER_SIZE_BYTES);
+        }
+        int recordOffset = (int) fileSize;
+        numberOfRecords++;
+        setOffset(numberOfRecords - 1, recordOffset);
+        int entryOffset = (numberOfRecords - 1) * RECORD_HEADER_SIZE_BYTES;
+        recordHeaders.putInt(entryOffset + 4, (attributes << 24) | (uniqueId & 0xFFFFFF));
+
+        ByteBuffer count = ByteBuffer.allocate(2);
+        count.putShort(0, (short) numberOfRecords);
+        writeFully(NUMBER_OF_RECORDS_OFFSET, count);
+        writeRecordHeaders(0, recordHeaders.capacity());
+        writeFully(recordOffset, ByteBuffer.wrap(data));
+        fileSize += data.length;
+    }
+
+    /**
+     * Flush changes to the file and close it.
+     *
+     * @throws IOException if there is a problem closing the file
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void setFlag(int index, int flag, boolean value) throws IOException {
+        int attributes = getAttributes(index);
+        attributes = value ? (attributes | flag) : (attributes & ~flag);
+        setAttributes(index, (byte) attributes);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= numberOfRecords) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfRecords);
+        }
+    }
+
+    private int getOffset(int index) {
+        return recordHeaders.getInt(index * RECORD_HEADER_SIZE_BYTES);
+    }
+
+    private void setOffset(int index, int offset) {
+        recordHeaders.putInt(index * RECORD_HEADER_SIZE_BYTES, offset);
+    }
+
+    private int getRecordLength(int index) {
+        long endOffset = (index + 1 < numberOfRecords) ? getOffset(index + 1) : fileSize;
+        return (int) (endOffset - getOffset(index));
+    }
+
+    private void shiftHeaderOffset(int headerOffset) throws IOException {
+        ByteBuffer buffer = readFully(headerOffset, 4);
+        int offset = buffer.getInt(0);
+        if (offset > 0) {
+            buffer.putInt(0, offset + RECORD_HEADER_SIZE_BYTES);
+            writeFully(headerOffset, buffer);
+        }
+    }
+
+    private void writeRecordHeaders(int start, int length) throws IOException {
+        ByteBuffer entries = ByteBuffer.wrap(recordHeaders.array(), start, length);
+        writeFully(RECORD_HEADERS_OFFSET + start, entries);
+    }
+
+    /**
+     * Move everything from {@code start} to the end of the file by {@code delta} bytes, growing or truncating the file.
+     */
+    private void shift(long start, int delta) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        if (delta > 0) {
+            long position = fileSize;
+            while (position > start) {
+                int length = (int) Math.min(COPY_BUFFER_SIZE, position - start);
+                position -= length;
+                copy(buffer, position, length, delta);
+            }
+        } else if (delta < 0) {
+            long position = start;
+            while (position < fileSize) {
+                int length = (int) Math.min(COPY_BUFFER_SIZE, fileSize - position);
+                copy(buffer, position, length, delta);
+                position += length;
+            }
+            channel.truncate(fileSize + delta);
+        }
+        fileSize += delta;
+    }
+
+    private void copy(ByteBuffer buffer, long position, int length, int delta) throws IOException {
+        // Go through Buffer so the compiled calls link against the Java 8 signatures.
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(length);
+        readFully(position, buffer);
+        ((Buffer) buffer).flip();
+        writeFully(position + delta, buffer);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        readFully(position, buffer);
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    private void readFully(long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position);
+            if (bytesRead < 0) {
+                throw new EOFException("Unexpected end of file at offset " + position + ".");
+            }
+            position += bytesRead;
+        }
+    }
+
+    private void writeFully(long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
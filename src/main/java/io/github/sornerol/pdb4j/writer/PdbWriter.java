@@ -0,0 +1,354 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.metrics.PdbMetrics;
+import io.github.sornerol.pdb4j.metrics.PdbMetricsListener;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.PdbHeader;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Writes a {@link PdbDatabase} to an {@link OutputStream}, {@link WritableByteChannel} or file in a single pass.
+ *
+ * The offsets of the AppInfo area, SortInfo area and every record are computed up front from the size of each
+ * component, so the header and record header table can be written first and each component can then be streamed
+ * straight to the destination. The database is never assembled in memory as a whole.
+ *
+ * Each component is encoded at most once per write. The AppInfo and SortInfo areas are encoded while computing the
+ * layout and reused when writing. Record offsets come from {@link PdbRecord#serializedSize()}, and each record is
+ * encoded once, when it is written. Records that inherit the default {@link PdbRecord#serializedSize()}, which would
+ * encode the record just to measure it, are encoded while computing the layout instead, and those bytes are kept until
+ * the record is written.
+ */
+@Slf4j
+public class PdbWriter {
+    private static final int MAX_BUFFERS_PER_WRITE = 64;
+
+    private static final ClassValue<Boolean> USES_DEFAULT_SERIALIZED_SIZE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("serializedSize").getDeclaringClass() == PdbRecord.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
+
+    private final PdbDatabase<?, ?, ?> database;
+    private PdbMetricsListener metricsListener = PdbMetrics.getDefaultListener();
+
+    /**
+     * Create a new PdbWriter for the provided database.
+     *
+     * @param database The database to write
+     */
+    public PdbWriter(PdbDatabase<?, ?, ?> database) {
+        this.database = database;
+    }
+
+    /**
+     * Set the {@link PdbMetricsListener} to report record, AppInfo and SortInfo encoding times and bytes written to.
+     * Defaults to {@link PdbMetrics#getDefaultListener()} at the time the writer is created.
+     *
+     * @param metricsListener The listener, or null for {@link PdbMetricsListener#NOOP}
+     */
+    public void setMetricsListener(PdbMetricsListener metricsListener) {
+        this.metricsListener = (metricsListener == null) ? PdbMetricsListener.NOOP : metricsListener;
+    }
+
+    /**
+     * Write the database to an output stream. The stream is not closed.
+     *
+     * @param outputStream Stream to write the database to
+     * @throws IOException if there is a problem writing to the stream
+     * @throws IllegalStateException if the database has more than 65535 records
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        Object context = begin();
+        long startTime = startTimer();
+        Layout layout = new Layout();
+        outputStream.write(headerToByteArray(layout));
+        outputStream.write(recordHeadersToByteArray(layout));
+        if (layout.appInfoOffset > 0) {
+            outputStream.write(layout.appInfoData);
+        }
+        if (layout.sortInfoOffset > 0) {
+            outputStream.write(layout.sortInfoData);
+        }
+        List<? extends PdbRecord> records = records();
+        for (int i = 0; i < layout.numberOfRecords; i++) {
+            outputStream.write(encodeRecord(layout, records, i));
+        }
+        reportDatabaseWritten(layout, startTime, context);
+    }
+
+    /**
+     * Write the database to a channel. If the channel is a {@link GatheringByteChannel} (such as a
+     * {@link FileChannel}), records are written in batches with gathering writes. The channel is not closed.
+     *
+     * @param channel Channel to write the database to
+     * @throws IOException if there is a problem writing to the channel
+     * @throws IllegalStateException if the database has more than 65535 records
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        Object context = begin();
+        long startTime = startTimer();
+        Layout layout = new Layout();
+        ByteBuffer[] buffers = new ByteBuffer[MAX_BUFFERS_PER_WRITE];
+        int count = 0;
+        buffers[count++] = ByteBuffer.wrap(headerToByteArray(layout));
+        buffers[count++] = ByteBuffer.wrap(recordHeadersToByteArray(layout));
+        if (layout.appInfoOffset > 0) {
+            buffers[count++] = ByteBuffer.wrap(layout.appInfoData);
+        }
+        if (layout.sortInfoOffset > 0) {
+            buffers[count++] = ByteBuffer.wrap(layout.sortInfoData);
+        }
+        List<? extends PdbRecord> records = records();
+        for (int i = 0; i < layout.numberOfRecords; i++) {
+            if (count == buffers.length) {
+                writeFully(channel, buffers, count);
+                count = 0;
+            }
+            buffers[count++] = ByteBuffer.wrap(encodeRecord(layout, records, i));
+        }
+        writeFully(channel, buffers, count);
+        reportDatabaseWritten(layout, startTime, context);
+    }
+
+    /**
+     * Write the database to a file, replacing the file if it already exists.
+     *
+     * @param path Path to write the file to
+     * @throws IOException if there is a problem writing the file
+     * @throws IllegalStateException if the database has more than 65535 records
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel);
+        }
+    }
+
+    /**
+     * Convert the database to a byte array. The array is allocated at its final size and filled directly.
+     *
+     * @return byte array representation of the PDB database
+     * @throws IllegalStateException if the database has more than 65535 records
+     */
+    public byte[] toByteArray() {
+        Object context = begin();
+        long startTime = startTimer();
+        Layout layout = new Layout();
+        ByteBuffer buffer = ByteBuffer.allocate(layout.totalSize);
+        buffer.put(headerToByteArray(layout));
+        buffer.put(recordHeadersToByteArray(layout));
+        if (layout.appInfoOffset > 0) {
+            buffer.put(layout.appInfoData);
+        }
+        if (layout.sortInfoOffset > 0) {
+            buffer.put(layout.sortInfoData);
+        }
+        List<? extends PdbRecord> records = records();
+        for (int i = 0; i < layout.numberOfRecords; i++) {
+            buffer.put(encodeRecord(layout, records, i));
+        }
+        reportDatabaseWritten(layout, startTime, context);
+        return buffer.array();
+    }
+
+    private byte[] encodeRecord(Layout layout, List<? extends PdbRecord> records, int index) {
+        byte[] data = layout.takeEncodedRecord(index);
+        if (data == null) {
+            data = encode(records.get(index), index);
+        }
+        int expectedSize = layout.getRecordSize(index);
+        if (data.length != expectedSize) {
+            throw new IllegalStateException("Record " + index + " encoded to " + data.length
+                    + " byte(s), but its serializedSize() is " + expectedSize + ".");
+        }
+        return data;
+    }
+
+    private byte[] encode(PdbRecord record, int index) {
+        Object context = begin();
+        long startTime = startTimer();
+        byte[] data = record.toBytes();
+        if (metricsListener != PdbMetricsListener.NOOP) {
+            metricsListener.onRecordWritten(record.getClass(), index, data.length, System.nanoTime() - startTime,
+                    context);
+        }
+        return data;
+    }
+
+    private Object begin() {
+        return (metricsListener == PdbMetricsListener.NOOP) ? null : metricsListener.begin();
+    }
+
+    private long startTimer() {
+        return (metricsListener == PdbMetricsListener.NOOP) ? 0L : System.nanoTime();
+    }
+
+    private void reportDatabaseWritten(Layout layout, long startTime, Object context) {
+        if (metricsListener != PdbMetricsListener.NOOP) {
+            metricsListener.onDatabaseWritten(layout.numberOfRecords, layout.totalSize, System.nanoTime() - startTime,
+                    context);
+        }
+    }
+
+    private void writeFully(WritableByteChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        if (channel instanceof GatheringByteChannel) {
+            GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+            int first = 0;
+            while (first < count) {
+                gatheringChannel.write(buffers, first, count - first);
+                while (first < count && !buffers[first].hasRemaining()) {
+                    first++;
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                while (buffers[i].hasRemaining()) {
+                    channel.write(buffers[i]);
+                }
+            }
+        }
+    }
+
+    private List<? extends PdbRecord> records() {
+        List<? extends PdbRecord> records = database.getRecords();
+        return (records == null) ? Collections.<PdbRecord>emptyList() : records;
+    }
+
+    private byte[] headerToByteArray(Layout layout) {
+        return PdbHeader.of(database, database.getFileAttributes(), layout.appInfoOffset, layout.sortInfoOffset,
+                layout.numberOfRecords).toByteArray();
+    }
+
+    private byte[] recordHeadersToByteArray(Layout layout) {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(layout.numberOfRecords * RECORD_HEADER_SIZE_BYTES);
+        byteBuffer.order(ByteOrder.BIG_ENDIAN);
+        List<? extends PdbRecord> records = records();
+        for (int i = 0; i < layout.numberOfRecords; i++) {
+            PdbRecord record = records.get(i);
+            byteBuffer.putInt(layout.recordOffsets[i]);
+            byteBuffer.putInt((record.getAttributes() << 24) | (record.getUniqueId() & 0xFFFFFF));
+        }
+        return byteBuffer.array();
+    }
+
+    /**
+     * Offsets of every component in the file, computed once per write.
+     */
+    private class Layout {
+        final int numberOfRecords;
+        final byte[] appInfoData;
+        final byte[] sortInfoData;
+        final int appInfoOffset;
+        final int sortInfoOffset;
+        final int[] recordOffsets;
+        /*
+          Records encoded while computing the layout, because they don't override serializedSize(). Null if there are
+          none. Each entry is released once the record has been written.
+        */
+        byte[][] encodedRecords;
+        final int totalSize;
+
+        Layout() {
+            List<? extends PdbRecord> records = records();
+            numberOfRecords = records.size();
+            if (numberOfRecords > MAX_RECORDS) {
+                throw new IllegalStateException("Database has " + numberOfRecords
+                        + " records, but a PDB file can hold at most " + MAX_RECORDS + ".");
+            }
+            appInfoData = encodeAppInfo();
+            sortInfoData = encodeSortInfo();
+            int appInfoSize = (appInfoData == null) ? 0 : appInfoData.length;
+            int sortInfoSize = (sortInfoData == null) ? 0 : sortInfoData.length;
+
+            int nextOffset = FILE_HEADER_LENGTH_BYTES + numberOfRecords * RECORD_HEADER_SIZE_BYTES;
+            appInfoOffset = (appInfoSize > 0) ? nextOffset : 0;
+            nextOffset += appInfoSize;
+            sortInfoOffset = (sortInfoSize > 0) ? nextOffset : 0;
+            nextOffset += sortInfoSize;
+
+            recordOffsets = new int[numberOfRecords];
+            for (int i = 0; i < numberOfRecords; i++) {
+                recordOffsets[i] = nextOffset;
+                PdbRecord record = records.get(i);
+                if (USES_DEFAULT_SERIALIZED_SIZE.get(record.getClass())) {
+                    if (encodedRecords == null) {
+                        encodedRecords = new byte[numberOfRecords][];
+                    }
+                    encodedRecords[i] = encode(record, i);
+                    nextOffset += encodedRecords[i].length;
+                } else {
+                    nextOffset += record.serializedSize();
+                }
+            }
+            totalSize = nextOffset;
+            log.debug("Computed layout for {} record(s), {} byte(s) total.", numberOfRecords, totalSize);
+        }
+
+        private byte[] encodeAppInfo() {
+            AppInfo appInfo = database.getAppInfo();
+            if (appInfo == null) {
+                return null;
+            }
+            Object context = begin();
+            long startTime = startTimer();
+            byte[] data = appInfo.toBytes();
+            if (metricsListener != PdbMetricsListener.NOOP) {
+                metricsListener.onAppInfoWritten(appInfo.getClass(), data.length, System.nanoTime() - startTime,
+                        context);
+            }
+            return data;
+        }
+
+        private byte[] encodeSortInfo() {
+            SortInfo sortInfo = database.getSortInfo();
+            if (sortInfo == null) {
+                return null;
+            }
+            Object context = begin();
+            long startTime = startTimer();
+            byte[] data = sortInfo.toBytes();
+            if (metricsListener != PdbMetricsListener.NOOP) {
+                metricsListener.onSortInfoWritten(sortInfo.getClass(), data.length, System.nanoTime() - startTime,
+                        context);
+            }
+            return data;
+        }
+
+        byte[] takeEncodedRecord(int index) {
+            if (encodedRecords == null) {
+                return null;
+            }
+            byte[] data = encodedRecords[index];
+            encodedRecords[index] = null;
+            return data;
+        }
+
+        int getRecordSize(int index) {
+            int endOffset = (index + 1 < numberOfRecords) ? recordOffsets[index + 1] : totalSize;
+            return endOffset - recordOffsets[index];
+        }
+    }
+}
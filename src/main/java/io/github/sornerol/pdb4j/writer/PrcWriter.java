@@ -0,0 +1,159 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.model.PdbHeader;
+import io.github.sornerol.pdb4j.model.PdbResource;
+import io.github.sornerol.pdb4j.model.ResourceDatabase;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+
+/**
+ * Writes a {@link ResourceDatabase} to an {@link OutputStream} or file in a single pass.
+ *
+ * The layout matches {@link PdbWriter}'s, except that the header table holds 10-byte resource entries (type, ID and
+ * offset) and the resource database bit is always set in the file attributes. Resource data is written as-is.
+ */
+@Slf4j
+public class PrcWriter {
+    private final ResourceDatabase database;
+
+    /**
+     * Create a new PrcWriter for the provided database.
+     *
+     * @param database The database to write
+     */
+    public PrcWriter(ResourceDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Write the database to an output stream. The stream is not closed.
+     *
+     * @param outputStream Stream to write the database to
+     * @throws IOException if there is a problem writing to the stream
+     * @throws IllegalStateException if the database has more than 65535 resources
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        Layout layout = new Layout();
+        outputStream.write(headerToByteArray(layout));
+        outputStream.write(resourceHeadersToByteArray(layout));
+        if (layout.appInfoOffset > 0) {
+            outputStream.write(database.getAppInfo());
+        }
+        if (layout.sortInfoOffset > 0) {
+            outputStream.write(database.getSortInfo());
+        }
+        for (PdbResource resource : resources()) {
+            if (resource.getData() != null) {
+                outputStream.write(resource.getData());
+            }
+        }
+    }
+
+    /**
+     * Write the database to a file, replacing the file if it already exists.
+     *
+     * @param path Path to write the file to
+     * @throws IOException if there is a problem writing the file
+     * @throws IllegalStateException if the database has more than 65535 resources
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(outputStream);
+        }
+    }
+
+    /**
+     * Convert the database to a byte array. The array is allocated at its final size and filled directly.
+     *
+     * @return byte array representation of the resource database
+     * @throws IllegalStateException if the database has more than 65535 resources
+     */
+    public byte[] toByteArray() {
+        Layout layout = new Layout();
+        ByteBuffer buffer = ByteBuffer.allocate(layout.totalSize);
+        buffer.put(headerToByteArray(layout));
+        buffer.put(resourceHeadersToByteArray(layout));
+        if (layout.appInfoOffset > 0) {
+            buffer.put(database.getAppInfo());
+        }
+        if (layout.sortInfoOffset > 0) {
+            buffer.put(database.getSortInfo());
+        }
+        for (PdbResource resource : resources()) {
+            if (resource.getData() != null) {
+                buffer.put(resource.getData());
+            }
+        }
+        return buffer.array();
+    }
+
+    private List<PdbResource> resources() {
+        List<PdbResource> resources = database.getResources();
+        return (resources == null) ? Collections.<PdbResource>emptyList() : resources;
+    }
+
+    private byte[] headerToByteArray(Layout layout) {
+        short fileAttributes = (short) (database.getFileAttributes() | RESOURCE_DATABASE_ATTRIBUTE);
+        return PdbHeader.of(database, fileAttributes, layout.appInfoOffset, layout.sortInfoOffset,
+                layout.resourceOffsets.length).toByteArray();
+    }
+
+    private byte[] resourceHeadersToByteArray(Layout layout) {
+        List<PdbResource> resources = resources();
+        ByteBuffer buffer = ByteBuffer.allocate(resources.size() * RESOURCE_HEADER_SIZE_BYTES);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < resources.size(); i++) {
+            PdbResource resource = resources.get(i);
+            buffer.putInt(resource.getTypeCode());
+            buffer.putShort((short) resource.getId());
+            buffer.putInt(layout.resourceOffsets[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Offsets of every component in the file, computed once per write.
+     */
+    private class Layout {
+        final int appInfoOffset;
+        final int sortInfoOffset;
+        final int[] resourceOffsets;
+        final int totalSize;
+
+        Layout() {
+            List<PdbResource> resources = resources();
+            if (resources.size() > MAX_RECORDS) {
+                throw new IllegalStateException("Database has " + resources.size()
+                        + " resources, but a PRC file can hold at most " + MAX_RECORDS + ".");
+            }
+            int appInfoSize = (database.getAppInfo() == null) ? 0 : database.getAppInfo().length;
+            int sortInfoSize = (database.getSortInfo() == null) ? 0 : database.getSortInfo().length;
+
+            int nextOffset = FILE_HEADER_LENGTH_BYTES + resources.size() * RESOURCE_HEADER_SIZE_BYTES;
+            appInfoOffset = (appInfoSize > 0) ? nextOffset : 0;
+            nextOffset += appInfoSize;
+            sortInfoOffset = (sortInfoSize > 0) ? nextOffset : 0;
+            nextOffset += sortInfoSize;
+
+            resourceOffsets = new int[resources.size()];
+            for (int i = 0; i < resourceOffsets.length; i++) {
+                resourceOffsets[i] = nextOffset;
+                byte[] data = resources.get(i).getData();
+                nextOffset += (data == null) ? 0 : data.length;
+            }
+            totalSize = nextOffset;
+            log.debug("Computed layout for {} resource(s), {} byte(s) total.", resourceOffsets.length, totalSize);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.sornerol.pdb4j;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.ResourceDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Databases for tests, with fixed header fields so their files are byte-for-byte reproducible.
+ */
+public final class TestDatabases {
+    private TestDatabases() {
+    }
+
+    /**
+     * Create an empty database of type DATA and creator TEST, with every timestamp at the Unix epoch.
+     *
+     * @param name The database name
+     * @return the database
+     */
+    public static <R extends PdbRecord, A extends AppInfo, S extends SortInfo> PdbDatabase<R, A, S> database(
+            String name) {
+        PdbDatabase<R, A, S> database = new PdbDatabase<>();
+        database.setName(name);
+        database.setDatabaseType("DATA");
+        database.setCreatorId("TEST");
+        database.setCreationInstant(Instant.EPOCH);
+        database.setModificationInstant(Instant.EPOCH);
+        database.setBackupInstant(Instant.EPOCH);
+        return database;
+    }
+
+    /**
+     * Create an empty resource database of type appl and creator TEST, with every timestamp at the Unix epoch.
+     *
+     * @param name The database name
+     * @return the database
+     */
+    public static ResourceDatabase resourceDatabase(String name) {
+        ResourceDatabase database = new ResourceDatabase();
+        database.setName(name);
+        database.setDatabaseType("appl");
+        database.setCreatorId("TEST");
+        database.setCreationInstant(Instant.EPOCH);
+        database.setModificationInstant(Instant.EPOCH);
+        database.setBackupInstant(Instant.EPOCH);
+        return database;
+    }
+
+    /**
+     * Write a database of zero-filled generic records to a file, named after the file.
+     *
+     * @param file The file to write
+     * @param numberOfRecords The number of records
+     * @param recordSize The size of each record in bytes
+     * @throws IOException if the file can't be written
+     */
+    public static void writeDatabase(Path file, int numberOfRecords, int recordSize) throws IOException {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database =
+                database(file.getFileName().toString());
+        for (int i = 0; i < numberOfRecords; i++) {
+            database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[recordSize]));
+        }
+        database.writeToFile(file.toString());
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.sornerol.pdb4j.mapping;
+
+import io.github.sornerol.pdb4j.model.record.impl.AbstractMappedPdbRecord;
+import io.github.sornerol.pdb4j.util.PalmDateUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordCodecTest {
+    @Test
+    void roundTripsEveryFieldType() {
+        Everything record = new Everything();
+        record.int8 = -5;
+        record.uint8 = 250;
+        record.int16 = -1234;
+        record.uint16 = 65000;
+        record.int32 = -123456789;
+        record.uint32 = 0xFEDCBA98L;
+        record.flag = true;
+        record.nibble = 9;
+        record.rest = 0x1FF;
+        record.date = LocalDate.of(2010, 7, 4);
+        record.timestamp = Instant.ofEpochSecond(1_300_000_000L);
+        record.code = "ABC";
+        record.tag = new byte[]{7, 8};
+        record.first = "first";
+        record.second = "";
+        record.tail = new byte[]{1, 2, 3};
+
+        RecordCodec<Everything> codec = RecordCodec.forClass(Everything.class);
+        assertEquals(34, codec.getFixedLength());
+        byte[] data = record.toBytes();
+        assertEquals(codec.serializedSize(record), data.length);
+        assertEquals(34 + 6 + 1 + 3, data.length);
+
+        Everything copy = codec.read((byte) 0x42, data);
+        assertEquals(0x42, copy.getAttributes());
+        assertEquals(record.int8, copy.int8);
+        assertEquals(record.uint8, copy.uint8);
+        assertEquals(record.int16, copy.int16);
+        assertEquals(record.uint16, copy.uint16);
+        assertEquals(record.int32, copy.int32);
+        assertEquals(record.uint32, copy.uint32);
+        assertTrue(copy.flag);
+        assertEquals(9, copy.nibble);
+        assertEquals(0x1FF, copy.rest);
+        assertEquals(record.date, copy.date);
+        assertEquals(record.timestamp, copy.timestamp);
+        assertEquals("ABC", copy.code);
+        assertArrayEquals(new byte[]{7, 8, 0, 0}, copy.tag);
+        assertEquals("first", copy.first);
+        assertEquals("", copy.second);
+        assertArrayEquals(new byte[]{1, 2, 3}, copy.tail);
+        assertArrayEquals(data, copy.toBytes());
+    }
+
+    @Test
+    void bitfieldsShareTheirContainer() {
+        Everything record = new Everything();
+        record.flag = true;
+        record.nibble = 0x0F;
+        record.rest = 0;
+        byte[] data = record.toBytes();
+        // flag is bit 15 and nibble bits 11-14 of the 2-byte container at offset 15.
+        assertEquals((byte) 0xF8, data[15]);
+        assertEquals(0, data[16]);
+
+        record.flag = false;
+        record.rest = 0x7FF;
+        data = record.toBytes();
+        assertEquals((byte) 0x7F, data[15]);
+        assertEquals((byte) 0xFF, data[16]);
+    }
+
+    @Test
+    void readsFromTheBufferPositionWithoutMovingIt() {
+        ToDo record = new ToDo();
+        record.dueDate = LocalDate.of(2004, 6, 15);
+        record.complete = true;
+        record.priority = 3;
+        record.description = "Call";
+        record.note = "Before noon";
+        byte[] data = record.toBytes();
+
+        byte[] padded = new byte[data.length + 5];
+        System.arraycopy(data, 0, padded, 3, data.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 3, data.length).asReadOnlyBuffer();
+        ToDo copy = RecordCodec.forClass(ToDo.class).read((byte) 0, buffer);
+
+        assertEquals(3, buffer.position());
+        assertEquals(record.dueDate, copy.dueDate);
+        assertTrue(copy.complete);
+        assertEquals(3, copy.priority);
+        assertEquals("Call", copy.description);
+        assertEquals("Before noon", copy.note);
+    }
+
+    @Test
+    void leavesFieldsPastTheEndOfATruncatedRecordAtTheirDefaults() {
+        RecordCodec<ToDo> codec = RecordCodec.forClass(ToDo.class);
+        ToDo empty = codec.read((byte) 0, new byte[0]);
+        assertNull(empty.dueDate);
+        assertFalse(empty.complete);
+        assertNull(empty.description);
+
+        ToDo unterminated = codec.read((byte) 0, new byte[]{(byte) 0xFF, (byte) 0xFF, 0x02, 'H', 'i'});
+        assertNull(unterminated.dueDate);
+        assertEquals(2, unterminated.priority);
+        assertEquals("Hi", unterminated.description);
+        assertNull(unterminated.note);
+    }
+
+    @Test
+    void readsFixedStringsAndBytesAsFarAsTheRecordGoes() {
+        Everything record = new Everything();
+        record.timestamp = Instant.ofEpochSecond(1_300_000_000L);
+        record.code = "ABCDEF";
+        record.tag = new byte[]{7, 8, 9, 10};
+        record.first = "first";
+        byte[] data = record.toBytes();
+        RecordCodec<Everything> codec = RecordCodec.forClass(Everything.class);
+
+        // Ends two bytes into the tag; the sequential fields start past the end.
+        Everything cutInTag = codec.read((byte) 0, ByteBuffer.wrap(data, 0, 32).slice());
+        assertEquals("ABCDEF", cutInTag.code);
+        assertArrayEquals(new byte[]{7, 8, 0, 0}, cutInTag.tag);
+        assertNull(cutInTag.first);
+        assertNull(cutInTag.tail);
+
+        // Ends two bytes into the code; the tag starts past the end.
+        Everything cutInCode = codec.read((byte) 0, ByteBuffer.wrap(data, 0, 25).slice());
+        assertEquals(record.timestamp, cutInCode.timestamp);
+        assertEquals("AB", cutInCode.code);
+        assertNull(cutInCode.tag);
+    }
+
+    @Test
+    void readsInvalidPackedDatesAsNull() {
+        int month13 = (100 << 9) | (13 << 5) | 1;
+        ToDo record = RecordCodec.forClass(ToDo.class).read((byte) 0,
+                new byte[]{(byte) (month13 >>> 8), (byte) month13, 0x01, 'A', 0, 'B', 0});
+        assertNull(record.dueDate);
+        assertEquals(1, record.priority);
+        assertEquals("A", record.description);
+        assertEquals("B", record.note);
+        assertEquals(0xFFFF, PalmDateUtil.packedDateFromLocalDate(record.dueDate));
+    }
+
+    @Test
+    void rejectsDatesThePackedDateCantHold() {
+        ToDo record = new ToDo();
+        record.dueDate = LocalDate.of(2032, 1, 1);
+        assertThrows(IllegalArgumentException.class, record::toBytes);
+    }
+
+    @Test
+    void cachesOneCodecPerClass() {
+        assertSame(RecordCodec.forClass(ToDo.class), RecordCodec.forClass(ToDo.class));
+        assertEquals(ToDo.class, RecordCodec.forClass(ToDo.class).getType());
+    }
+
+    @Test
+    void rejectsInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(OpenEndedBytesNotLast.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(UnsignedTooNarrow.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(BitsDontFit.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(FixedStringWithoutLength.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(WrongDateType.class));
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.forClass(NoDefaultConstructor.class));
+    }
+
+    static class Everything extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.INT8)
+        byte int8;
+        @PdbField(offset = 1, type = PdbFieldType.UINT8)
+        int uint8;
+        @PdbField(offset = 2, type = PdbFieldType.INT16)
+        short int16;
+        @PdbField(offset = 4, type = PdbFieldType.UINT16)
+        int uint16;
+        @PdbField(offset = 6, type = PdbFieldType.INT32)
+        int int32;
+        @PdbField(offset = 10, type = PdbFieldType.UINT32)
+        long uint32;
+        @PdbField(offset = 14, type = PdbFieldType.BITS, length = 1, bits = 8)
+        int unusedByte;
+        @PdbField(offset = 15, type = PdbFieldType.BITS, length = 2, shift = 15)
+        boolean flag;
+        @PdbField(offset = 15, type = PdbFieldType.BITS, length = 2, shift = 11, bits = 4)
+        int nibble;
+        @PdbField(offset = 15, type = PdbFieldType.BITS, length = 2, bits = 11)
+        int rest;
+        @PdbField(offset = 17, type = PdbFieldType.PALM_DATE)
+        LocalDate date;
+        @PdbField(offset = 19, type = PdbFieldType.PALM_TIMESTAMP)
+        Instant timestamp;
+        @PdbField(offset = 23, type = PdbFieldType.STRING, length = 7)
+        String code;
+        @PdbField(offset = 30, type = PdbFieldType.BYTES, length = 4)
+        byte[] tag;
+        @PdbField(type = PdbFieldType.STRING, order = 0)
+        String first;
+        @PdbField(type = PdbFieldType.STRING, order = 1)
+        String second;
+        @PdbField(type = PdbFieldType.BYTES, order = 2)
+        byte[] tail;
+    }
+
+    static class ToDo extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.PALM_DATE)
+        LocalDate dueDate;
+        @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, shift = 7)
+        boolean complete;
+        @PdbField(offset = 2, type = PdbFieldType.BITS, length = 1, bits = 7)
+        int priority;
+        @PdbField(type = PdbFieldType.STRING, order = 0)
+        String description;
+        @PdbField(type = PdbFieldType.STRING, order = 1)
+        String note;
+    }
+
+    static class OpenEndedBytesNotLast extends AbstractMappedPdbRecord {
+        @PdbField(type = PdbFieldType.BYTES, order = 0)
+        byte[] data;
+        @PdbField(type = PdbFieldType.STRING, order = 1)
+        String name;
+    }
+
+    static class UnsignedTooNarrow extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.UINT16)
+        short value;
+    }
+
+    static class BitsDontFit extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.BITS, length = 1, shift = 6, bits = 3)
+        int value;
+    }
+
+    static class FixedStringWithoutLength extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.STRING)
+        String value;
+    }
+
+    static class WrongDateType extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.PALM_DATE)
+        Instant value;
+    }
+
+    static class NoDefaultConstructor extends AbstractMappedPdbRecord {
+        @PdbField(offset = 0, type = PdbFieldType.INT8)
+        byte value;
+
+        NoDefaultConstructor(byte value) {
+            this.value = value;
+        }
+    }
+}
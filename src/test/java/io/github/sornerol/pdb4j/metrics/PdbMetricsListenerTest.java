@@ -0,0 +1,85 @@
+package io.github.sornerol.pdb4j.metrics;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.PdbReader;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import io.github.sornerol.pdb4j.writer.PdbWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PdbMetricsListenerTest {
+    @Test
+    void passesEachContextToTheMatchingCallback() {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Metrics");
+        for (int i = 0; i < 2; i++) {
+            database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{(byte) i}));
+        }
+
+        RecordingListener writeListener = new RecordingListener();
+        PdbWriter writer = new PdbWriter(database);
+        writer.setMetricsListener(writeListener);
+        byte[] data = writer.toByteArray();
+        // Records are encoded while the layout is computed, inside the database write.
+        assertEquals(Arrays.asList("begin 0", "begin 1", "record 1", "begin 2", "record 2", "database 0"),
+                writeListener.calls);
+
+        RecordingListener readListener = new RecordingListener();
+        PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = new PdbReader<>(data);
+        reader.setRecordReader(new GenericRecordReader());
+        reader.setMetricsListener(readListener);
+        reader.read();
+        assertEquals(Arrays.asList("begin 0", "begin 1", "header 1", "begin 2", "record 2", "begin 3", "record 3",
+                "database 0"), readListener.calls);
+    }
+
+    @Test
+    void doesntBeginAnythingForTheNoopListener() {
+        assertNull(PdbMetricsListener.NOOP.begin());
+    }
+
+    private static class RecordingListener implements PdbMetricsListener {
+        private final List<String> calls = new ArrayList<>();
+        private int nextContext;
+
+        @Override
+        public Object begin() {
+            calls.add("begin " + nextContext);
+            return nextContext++;
+        }
+
+        @Override
+        public void onHeaderRead(int numberOfRecords, long nanos, Object context) {
+            calls.add("header " + context);
+        }
+
+        @Override
+        public void onRecordRead(Class<?> readerType, int index, int size, long nanos, Object context) {
+            calls.add("record " + context);
+        }
+
+        @Override
+        public void onDatabaseRead(int numberOfRecords, long bytes, long nanos, Object context) {
+            calls.add("database " + context);
+        }
+
+        @Override
+        public void onRecordWritten(Class<?> recordType, int index, int size, long nanos, Object context) {
+            calls.add("record " + context);
+        }
+
+        @Override
+        public void onDatabaseWritten(int numberOfRecords, long bytes, long nanos, Object context) {
+            calls.add("database " + context);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PdbDatabaseSnapshotTest {
+    private static final int NUMBER_OF_RECORDS = 100;
+
+    private PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database;
+    private PdbDatabaseSnapshot<GenericPdbRecord, GenericAppInfo, GenericSortInfo> snapshot;
+
+    @BeforeEach
+    void createSnapshot() {
+        database = TestDatabases.database("Snapshot");
+        database.setAppInfo(new GenericAppInfo(new byte[]{1, 2}));
+        for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+            database.getRecords().add(record(i));
+        }
+        snapshot = PdbDatabaseSnapshot.of(database);
+    }
+
+    @Test
+    void editsMakeANewSnapshotAndLeaveTheOldOneUnchanged() {
+        GenericPdbRecord replacement = record(1000);
+        GenericPdbRecord added = record(1001);
+        PdbDatabaseSnapshot<GenericPdbRecord, GenericAppInfo, GenericSortInfo> edited = snapshot.toBuilder()
+                .setRecord(3, replacement)
+                .addRecord(added)
+                .removeRecord(50)
+                .modificationNumber(1)
+                .build();
+
+        assertEquals(NUMBER_OF_RECORDS, edited.getNumberOfRecords());
+        assertSame(replacement, edited.getRecords().get(3));
+        assertSame(added, edited.getRecords().get(NUMBER_OF_RECORDS - 1));
+        assertSame(database.getRecords().get(51), edited.getRecords().get(50));
+        assertEquals(1, edited.getModificationNumber());
+
+        assertEquals(NUMBER_OF_RECORDS, snapshot.getNumberOfRecords());
+        assertEquals(0, snapshot.getModificationNumber());
+        for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+            assertSame(database.getRecords().get(i), snapshot.getRecords().get(i));
+        }
+    }
+
+    @Test
+    void sharesUnchangedRecords() {
+        PdbDatabaseSnapshot<GenericPdbRecord, GenericAppInfo, GenericSortInfo> edited = snapshot.toBuilder()
+                .setRecord(10, record(1000))
+                .build();
+        for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+            if (i != 10) {
+                assertSame(snapshot.getRecords().get(i), edited.getRecords().get(i));
+            }
+        }
+        assertSame(snapshot.getAppInfo(), edited.getAppInfo());
+
+        PdbDatabaseSnapshot<GenericPdbRecord, GenericAppInfo, GenericSortInfo> renamed = snapshot.toBuilder()
+                .name("Renamed")
+                .build();
+        assertSame(snapshot.getRecords(), renamed.getRecords());
+    }
+
+    @Test
+    void findsRecordsByUniqueIdInEachVersion() {
+        assertEquals(42, snapshot.getRecordByUniqueId(42).getData()[0]);
+        assertNull(snapshot.getRecordByUniqueId(1000));
+
+        PdbDatabaseSnapshot<GenericPdbRecord, GenericAppInfo, GenericSortInfo> edited = snapshot.toBuilder()
+                .removeRecord(42)
+                .addRecord(record(1000))
+                .build();
+        assertNull(edited.getRecordByUniqueId(42));
+        assertSame(edited.getRecords().get(NUMBER_OF_RECORDS - 1), edited.getRecordByUniqueId(1000));
+        assertSame(snapshot.getRecords().get(42), snapshot.getRecordByUniqueId(42));
+    }
+
+    @Test
+    void writesTheSameBytesAsTheDatabase() throws IOException {
+        byte[] expected = database.toByteArray();
+        assertArrayEquals(expected, snapshot.toDatabase().toByteArray());
+        assertArrayEquals(expected, snapshot.toByteArray());
+    }
+
+    private static GenericPdbRecord record(int uniqueId) {
+        GenericPdbRecord record = new GenericPdbRecord((byte) 0, new byte[]{(byte) uniqueId, 7});
+        record.setUniqueId(uniqueId);
+        return record;
+    }
+}
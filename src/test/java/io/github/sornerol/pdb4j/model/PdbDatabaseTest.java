@@ -0,0 +1,132 @@
+package io.github.sornerol.pdb4j.model;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.PdbRecord;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.PdbReader;
+import io.github.sornerol.pdb4j.reader.record.RecordReader;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PdbDatabaseTest {
+    @Test
+    void findsRecordsByUniqueIdAfterReading() throws IOException {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> written = database();
+        for (int i = 0; i < 100; i++) {
+            GenericPdbRecord record = new GenericPdbRecord(new byte[]{(byte) i});
+            record.setUniqueId(1000 + i);
+            written.getRecords().add(record);
+        }
+
+        PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader =
+                new PdbReader<>(written.toByteArray());
+        reader.setRecordReader(new GenericRecordReader());
+        reader.setLazyRecords(true);
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = reader.read();
+
+        assertEquals(42, database.indexOfUniqueId(1042));
+        assertArrayEquals(new byte[]{42}, database.getRecordByUniqueId(1042).getData());
+        assertNull(database.getRecordByUniqueId(999));
+
+        database.getRecords().get(7).setUniqueId(5000);
+        database.rebuildUniqueIdIndex();
+        assertEquals(7, database.indexOfUniqueId(5000));
+        assertEquals(-1, database.indexOfUniqueId(1007));
+    }
+
+    @Test
+    void recordsWithoutUniqueIdsCanBeReadAndWritten() throws IOException {
+        PdbDatabase<PlainRecord, GenericAppInfo, GenericSortInfo> written = database();
+        written.getRecords().add(new PlainRecord(new byte[]{1, 2, 3}));
+        written.getRecords().add(new PlainRecord(new byte[]{4}));
+
+        PdbReader<PlainRecord, GenericAppInfo, GenericSortInfo> reader = new PdbReader<>(written.toByteArray());
+        reader.setRecordReader(new PlainRecordReader());
+        PdbDatabase<PlainRecord, GenericAppInfo, GenericSortInfo> database = reader.read();
+
+        assertEquals(2, database.getRecords().size());
+        assertArrayEquals(new byte[]{4}, database.getRecords().get(1).toBytes());
+        assertEquals(0, database.getRecords().get(1).getUniqueId());
+        assertSame(database.getRecords().get(0), database.getRecordByUniqueId(0));
+    }
+
+    private static <R extends PdbRecord> PdbDatabase<R, GenericAppInfo, GenericSortInfo> database() {
+        PdbDatabase<R, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Unique IDs");
+        return database;
+    }
+
+    /**
+     * A record written against the interface before it had unique IDs.
+     */
+    private static final class PlainRecord implements PdbRecord {
+        private byte attributes;
+        private final byte[] data;
+
+        private PlainRecord(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public void setAttributes(byte attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public byte getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public boolean isSecret() {
+            return false;
+        }
+
+        @Override
+        public boolean isBusy() {
+            return false;
+        }
+
+        @Override
+        public boolean isDirty() {
+            return false;
+        }
+
+        @Override
+        public boolean isDelete() {
+            return false;
+        }
+
+        @Override
+        public int getCategoryValue() {
+            return attributes & 0x0F;
+        }
+
+        @Override
+        public byte[] toBytes() {
+            return data;
+        }
+    }
+
+    private static final class PlainRecordReader implements RecordReader<PlainRecord> {
+        @Override
+        public PlainRecord read(byte[] data) {
+            return new PlainRecord(data);
+        }
+
+        @Override
+        public PlainRecord read(byte attributes, byte[] data) {
+            PlainRecord record = new PlainRecord(data);
+            record.setAttributes(attributes);
+            return record;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.sornerol.pdb4j.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentVectorTest {
+    /*
+      Sizes around the tail and trie boundaries. The trie holds 1024 elements at one level and 32768 at two, plus up to
+      32 in the tail, so the root grows when the 1057th and 32801st elements are appended.
+    */
+    private static final int[] SIZES = {0, 1, 31, 32, 33, 63, 64, 65, 1023, 1024, 1025, 1056, 1057, 1088, 32768, 32800,
+            32801, 40000};
+
+    @Test
+    void appendsAndBuildsEveryBoundarySize() {
+        for (int size : SIZES) {
+            List<Integer> expected = range(size);
+            PersistentVector<Integer> appended = PersistentVector.empty();
+            for (int i = 0; i < size; i++) {
+                appended = appended.append(i);
+            }
+            assertContents(expected, appended);
+            assertContents(expected, PersistentVector.of(expected));
+        }
+    }
+
+    @Test
+    void replacesElementsWithoutChangingTheOriginal() {
+        for (int size : SIZES) {
+            if (size == 0) {
+                continue;
+            }
+            List<Integer> expected = range(size);
+            PersistentVector<Integer> vector = PersistentVector.of(expected);
+            for (int index : new int[]{0, size / 2, size - 1, Math.max(0, size - 33)}) {
+                PersistentVector<Integer> changed = vector.with(index, -1);
+                List<Integer> changedExpected = new ArrayList<>(expected);
+                changedExpected.set(index, -1);
+                assertContents(changedExpected, changed);
+            }
+            assertContents(expected, vector);
+        }
+    }
+
+    @Test
+    void removesFromTheEndDownToEmpty() {
+        for (int size : SIZES) {
+            PersistentVector<Integer> vector = PersistentVector.of(range(size));
+            for (int remaining = size; remaining > 0; remaining--) {
+                assertEquals(remaining, vector.size());
+                assertEquals(remaining - 1, (int) vector.get(remaining - 1));
+                if (remaining % 1024 <= 1) {
+                    assertContents(range(remaining), vector);
+                } else if (remaining % 32 <= 1) {
+                    // The tail was just emptied or refilled from the trie.
+                    for (int i = Math.max(0, remaining - 64); i < remaining; i++) {
+                        assertEquals(i, (int) vector.get(i));
+                    }
+                }
+                vector = vector.removeLast();
+            }
+            assertSame(PersistentVector.empty(), vector);
+        }
+    }
+
+    @Test
+    void growsAndShrinksTheRootWithoutChangingOlderVersions() {
+        for (int boundary : new int[]{32, 1056, 32800}) {
+            PersistentVector<Integer> full = PersistentVector.of(range(boundary));
+            PersistentVector<Integer> grown = full.append(boundary);
+            PersistentVector<Integer> shrunk = grown.removeLast();
+            assertContents(range(boundary + 1), grown);
+            assertContents(range(boundary), shrunk);
+            assertContents(range(boundary), full);
+
+            // Appending to the shrunk vector grows the root again, from the same nodes.
+            assertContents(range(boundary + 1), shrunk.append(boundary));
+            assertContents(range(boundary - 1), shrunk.removeLast());
+            assertContents(range(boundary + 1), grown);
+        }
+    }
+
+    @Test
+    void removesElementsFromAnyIndex() {
+        for (int size : new int[]{1, 32, 33, 1057}) {
+            List<Integer> expected = range(size);
+            PersistentVector<Integer> vector = PersistentVector.of(expected);
+            for (int index : new int[]{0, 31, 32, size / 2, size - 1}) {
+                if (index >= size) {
+                    continue;
+                }
+                List<Integer> removedExpected = new ArrayList<>(expected);
+                removedExpected.remove(index);
+                assertContents(removedExpected, vector.without(index));
+            }
+            assertContents(expected, vector);
+        }
+    }
+
+    @Test
+    void matchesAnArrayListForRandomOperations() {
+        Random random = new Random(20240915L);
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<List<Integer>> savedLists = new ArrayList<>();
+        List<PersistentVector<Integer>> savedVectors = new ArrayList<>();
+
+        for (int step = 0; step < 20000; step++) {
+            int operation = random.nextInt(100);
+            if (expected.isEmpty() || operation < 45) {
+                // Appends and removals come in runs, so the size wanders across the tail and root boundaries.
+                int count = 1 + random.nextInt(80);
+                for (int i = 0; i < count; i++) {
+                    int value = random.nextInt();
+                    expected.add(value);
+                    vector = vector.append(value);
+                }
+            } else if (operation < 90) {
+                int count = 1 + random.nextInt(Math.min(expected.size(), 80));
+                for (int i = 0; i < count; i++) {
+                    expected.remove(expected.size() - 1);
+                    vector = vector.removeLast();
+                }
+            } else if (operation < 97) {
+                int index = random.nextInt(expected.size());
+                int value = random.nextInt();
+                expected.set(index, value);
+                vector = vector.with(index, value);
+            } else {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.without(index);
+            }
+
+            assertEquals(expected.size(), vector.size(), "size after step " + step);
+            if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), vector.get(index), "element " + index + " after step " + step);
+                assertEquals(expected.get(expected.size() - 1), vector.get(expected.size() - 1));
+            }
+            if (step % 500 == 0) {
+                assertContents(expected, vector);
+                savedLists.add(new ArrayList<>(expected));
+                savedVectors.add(vector);
+            }
+        }
+        assertContents(expected, vector);
+        for (int i = 0; i < savedVectors.size(); i++) {
+            assertContents(savedLists.get(i), savedVectors.get(i));
+        }
+    }
+
+    @Test
+    void rejectsInvalidOperations() {
+        PersistentVector<Integer> vector = PersistentVector.of(range(40));
+        assertThrows(NoSuchElementException.class, () -> PersistentVector.empty().removeLast());
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(40));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.with(40, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.without(40));
+        assertThrows(UnsupportedOperationException.class, () -> vector.add(0));
+        assertThrows(UnsupportedOperationException.class, () -> vector.set(0, 0));
+        assertThrows(UnsupportedOperationException.class, () -> vector.remove(0));
+        assertThrows(UnsupportedOperationException.class, vector::clear);
+
+        Iterator<Integer> iterator = PersistentVector.<Integer>empty().iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void reusesAnExistingVector() {
+        PersistentVector<Integer> vector = PersistentVector.of(range(100));
+        assertSame(vector, PersistentVector.of(vector));
+        assertSame(PersistentVector.empty(), PersistentVector.of(Collections.<Integer>emptyList()));
+    }
+
+    private static void assertContents(List<Integer> expected, PersistentVector<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i), "element " + i + " of " + expected.size());
+        }
+        Iterator<Integer> iterator = actual.iterator();
+        for (Integer element : expected) {
+            assertTrue(iterator.hasNext());
+            assertEquals(element, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.sornerol.pdb4j.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResourceIndexTest {
+    @Test
+    void findsResourcesByTypeAndId() {
+        ResourceIndex index = ResourceIndex.of(Arrays.asList(
+                new PdbResource("code", 0, null),
+                new PdbResource("code", 1, null),
+                new PdbResource("data", 0, null),
+                new PdbResource("tSTR", 0x8000, null),
+                new PdbResource("tSTR", 0xFFFF, null)));
+
+        assertEquals(5, index.size());
+        assertEquals(0, index.indexOf("code", 0));
+        assertEquals(1, index.indexOf("code", 1));
+        assertEquals(2, index.indexOf("data", 0));
+        assertEquals(3, index.indexOf("tSTR", 0x8000));
+        assertEquals(4, index.indexOf("tSTR", 0xFFFF));
+        assertEquals(4, index.indexOf(PdbResource.typeCode("tSTR"), 0xFFFF));
+        assertEquals(-1, index.indexOf("data", 1));
+        assertEquals(-1, index.indexOf("tSTR", 0x7FFF));
+        assertEquals(-1, index.indexOf("tAIB", 0));
+    }
+
+    @Test
+    void treatsIdsAsUnsigned16BitValues() {
+        ResourceIndex index = ResourceIndex.of(Arrays.asList(new PdbResource("tSTR", 0x8001, null)));
+        assertEquals(0, index.indexOf("tSTR", 0x8001));
+        assertEquals(0, index.indexOf("tSTR", (short) 0x8001));
+    }
+
+    @Test
+    void indexesTheFirstOfSeveralDuplicateResources() {
+        ResourceIndex index = ResourceIndex.of(Arrays.asList(
+                new PdbResource("tver", 1, null),
+                new PdbResource("code", 1, null),
+                new PdbResource("tver", 1, null)));
+        assertEquals(0, index.indexOf("tver", 1));
+        assertEquals(1, index.indexOf("code", 1));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void findsEveryResourceInALargeIndex() {
+        List<PdbResource> resources = new ArrayList<>();
+        for (int id = 0; id < 5000; id++) {
+            resources.add(new PdbResource((id % 2 == 0) ? "code" : "data", id * 13, null));
+        }
+        ResourceIndex index = ResourceIndex.of(resources);
+        for (int i = 0; i < resources.size(); i++) {
+            assertEquals(i, index.indexOf(resources.get(i).getType(), resources.get(i).getId()));
+        }
+        assertEquals(-1, index.indexOf("code", 13));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.sornerol.pdb4j.model.record.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DatebookRecordTest {
+    // 2024-03-15 and 2024-03-22 as packed dates.
+    private static final int MARCH_15 = (120 << 9) | (3 << 5) | 15;
+    private static final int MARCH_22 = (120 << 9) | (3 << 5) | 22;
+    private static final int MONTH_13 = (120 << 9) | (13 << 5) | 1;
+
+    @Test
+    void decodesEverySection() {
+        DatebookRecord record = new DatebookRecord((byte) 0, bytes(
+                9, 30, 10, 45, MARCH_15 >>> 8, MARCH_15, 0x40 | 0x20 | 0x10 | 0x08 | 0x04, 0,
+                5, 0,                                               // alarm: 5 minutes
+                2, 0, MARCH_22 >>> 8, MARCH_22, 1, 0x02, 0, 0,      // repeat: weekly until March 22, on Monday
+                0, 2, MARCH_15 >>> 8, MARCH_15, MARCH_22 >>> 8, MARCH_22,
+                'L', 'u', 'n', 'c', 'h', 0,
+                'N', 'o', 't', 'e', 0));
+
+        assertEquals(LocalDate.of(2024, 3, 15), record.getDate());
+        assertEquals(LocalTime.of(9, 30), record.getStartTime());
+        assertEquals(LocalTime.of(10, 45), record.getEndTime());
+        assertEquals(5, record.getAlarmAdvance());
+        assertEquals(DatebookRecord.REPEAT_WEEKLY, record.getRepeatType());
+        assertEquals(LocalDate.of(2024, 3, 22), record.getRepeatEndDate());
+        assertEquals(2, record.getRepeatOn());
+        assertEquals(Arrays.asList(LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 22)), record.getExceptions());
+        assertEquals("Lunch", record.getDescription());
+        assertEquals("Note", record.getNote());
+    }
+
+    @Test
+    void invalidDatesAndTimesDecodeToNull() {
+        DatebookRecord record = new DatebookRecord((byte) 0, bytes(
+                24, 0, 10, 60, MONTH_13 >>> 8, MONTH_13, 0x20 | 0x08, 0,
+                1, 0, MONTH_13 >>> 8, MONTH_13, 1, 0, 0, 0,
+                0, 3, MARCH_15 >>> 8, MARCH_15, MONTH_13 >>> 8, MONTH_13, 0, 0));
+
+        assertNull(record.getDate());
+        assertNull(record.getStartTime());
+        assertNull(record.getEndTime());
+        assertNull(record.getRepeatEndDate());
+        assertEquals(Collections.singletonList(LocalDate.of(2024, 3, 15)), record.getExceptions());
+    }
+
+    @Test
+    void truncatedExceptionsStopAtTheEndOfTheRecord() {
+        DatebookRecord record = new DatebookRecord((byte) 0, bytes(
+                0xFF, 0xFF, 0xFF, 0xFF, MARCH_15 >>> 8, MARCH_15, 0x08 | 0x04 | 0x10, 0,
+                0xFF, 0xFF, MARCH_22 >>> 8, MARCH_22));
+
+        assertNull(record.getStartTime());
+        assertEquals(Collections.singletonList(LocalDate.of(2024, 3, 22)), record.getExceptions());
+        assertEquals("", record.getDescription());
+        assertEquals("", record.getNote());
+    }
+
+    @Test
+    void toDoDueDateDecodesInvalidDatesToNull() {
+        assertEquals(LocalDate.of(2024, 3, 15),
+                new ToDoRecord((byte) 0, bytes(MARCH_15 >>> 8, MARCH_15, 1, 0, 0)).getDueDate());
+        assertNull(new ToDoRecord((byte) 0, bytes(MONTH_13 >>> 8, MONTH_13, 1, 0, 0)).getDueDate());
+        assertNull(new ToDoRecord((byte) 0, bytes(0xFF, 0xFF, 1, 0, 0)).getDueDate());
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
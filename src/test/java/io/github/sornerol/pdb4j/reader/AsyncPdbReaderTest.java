@@ -0,0 +1,178 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileLock;
+import java.nio.channels.ShutdownChannelGroupException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncPdbReaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readRecordAsyncPassesReadOnlyData() throws Exception {
+        Path file = directory.resolve("async.pdb");
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Async");
+        for (int i = 0; i < 3; i++) {
+            GenericPdbRecord record = new GenericPdbRecord((byte) 0x41, new byte[]{(byte) i, 2, 3});
+            record.setUniqueId(100 + i);
+            database.getRecords().add(record);
+        }
+        database.writeToFile(file.toString());
+
+        boolean[] readOnly = {false};
+        AsyncPdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = new AsyncPdbReader<>();
+        reader.setRecordReader(new GenericRecordReader() {
+            @Override
+            public GenericPdbRecord read(byte attributes, ByteBuffer data) {
+                readOnly[0] = data.isReadOnly();
+                return super.read(attributes, data);
+            }
+        });
+        GenericPdbRecord record = reader.readRecordAsync(file, 1).get();
+
+        assertTrue(readOnly[0]);
+        assertArrayEquals(new byte[]{1, 2, 3}, record.getData());
+        assertEquals(0x41, record.getAttributes());
+        assertEquals(101, record.getUniqueId());
+    }
+
+    @Test
+    void readAsyncMatchesPdbReader() throws Exception {
+        Path file = directory.resolve("whole.pdb");
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Whole");
+        for (int i = 0; i < 3; i++) {
+            database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{(byte) i, 5}));
+        }
+        database.writeToFile(file.toString());
+
+        AsyncPdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = new AsyncPdbReader<>();
+        reader.setRecordReader(new GenericRecordReader());
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> read = reader.readAsync(file).get();
+
+        assertEquals("Whole", read.getName());
+        assertEquals(3, read.getRecords().size());
+        assertArrayEquals(new byte[]{2, 5}, read.getRecords().get(2).getData());
+    }
+
+    @Test
+    void readAsyncRejectsAMalformedRecordHeaderTable() throws Exception {
+        Path file = directory.resolve("malformed.pdb");
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Bad");
+        database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{1}));
+        byte[] bytes = database.toByteArray();
+        ByteBuffer.wrap(bytes).putInt(RECORD_HEADERS_OFFSET, bytes.length + 1);
+        Files.write(file, bytes);
+
+        AsyncPdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader = new AsyncPdbReader<>();
+        reader.setRecordReader(new GenericRecordReader());
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> reader.readAsync(file).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(PdbFormatException.class, thrown.getCause());
+    }
+
+    @Test
+    void readFullyFailsWhenAFollowUpReadThrows() {
+        CompletableFuture<ByteBuffer> result = AsyncPdbReader.readFully(new OneByteThenShutdownChannel(),
+                ByteBuffer.allocate(4), 0);
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(ShutdownChannelGroupException.class, thrown.getCause());
+    }
+
+    /**
+     * A channel that completes its first read with one byte on another thread, as a real channel would, and whose
+     * group has shut down by the time of the next read.
+     */
+    private static class OneByteThenShutdownChannel extends AsynchronousFileChannel {
+        private boolean firstRead = true;
+
+        @Override
+        public <A> void read(ByteBuffer dst, long position, A attachment,
+                             CompletionHandler<Integer, ? super A> handler) {
+            if (!firstRead) {
+                throw new ShutdownChannelGroupException();
+            }
+            firstRead = false;
+            dst.put((byte) 1);
+            new Thread(() -> handler.completed(1, attachment)).start();
+        }
+
+        @Override
+        public Future<Integer> read(ByteBuffer dst, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            return 4;
+        }
+
+        @Override
+        public AsynchronousFileChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void force(boolean metaData) {
+        }
+
+        @Override
+        public <A> void lock(long position, long size, boolean shared, A attachment,
+                             CompletionHandler<FileLock, ? super A> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<FileLock> lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <A> void write(ByteBuffer src, long position, A attachment,
+                              CompletionHandler<Integer, ? super A> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<Integer> write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.appinfo.impl.GenericAppInfoReader;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import io.github.sornerol.pdb4j.reader.sortinfo.impl.GenericSortInfoReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sornerol.pdb4j.TestDatabases.writeDatabase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdbBatchReaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEveryMatchingFile() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            writeDatabase(directory.resolve("file" + i + ".pdb"), i, 100);
+        }
+        writeDatabase(directory.resolve("ignored.txt"), 1, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Map<Path, Integer> recordCounts = new ConcurrentHashMap<>();
+            PdbBatchReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> batchReader = batchReader(executor);
+            batchReader.setMaxInFlightBytes(2048);
+            int submitted = batchReader.readDirectory(directory, listener(recordCounts));
+
+            assertEquals(20, submitted);
+            assertEquals(20, recordCounts.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, recordCounts.get(directory.resolve("file" + i + ".pdb")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitsForSubmittedFilesWhenTheWalkFails() throws Exception {
+        writeDatabase(directory.resolve("a.pdb"), 3, 100);
+        writeDatabase(directory.resolve("b.pdb"), 4, 100);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Map<Path, Integer> recordCounts = new ConcurrentHashMap<>();
+            PdbBatchReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> batchReader = batchReader(executor);
+            int[] filesSeen = {0};
+            batchReader.setFileFilter(path -> {
+                if (filesSeen[0]++ > 0) {
+                    throw new IllegalStateException("Walk failed.");
+                }
+                return true;
+            });
+            // Keep the worker busy so the submitted file can't finish before the walk fails.
+            executor.execute(() -> sleep(200));
+
+            assertThrows(IllegalStateException.class,
+                    () -> batchReader.readDirectory(directory, listener(recordCounts)));
+            assertEquals(1, recordCounts.size());
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static PdbBatchReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> batchReader(
+            ExecutorService executor) {
+        PdbBatchReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> batchReader = new PdbBatchReader<>(executor);
+        batchReader.setRecordReader(new GenericRecordReader());
+        batchReader.setAppInfoReader(new GenericAppInfoReader());
+        batchReader.setSortInfoReader(new GenericSortInfoReader());
+        return batchReader;
+    }
+
+    private static PdbBatchListener<GenericPdbRecord, GenericAppInfo, GenericSortInfo> listener(
+            Map<Path, Integer> recordCounts) {
+        return new PdbBatchListener<GenericPdbRecord, GenericAppInfo, GenericSortInfo>() {
+            @Override
+            public void onDatabase(Path path, PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database) {
+                recordCounts.put(path, database.getRecords().size());
+            }
+
+            @Override
+            public void onError(Path path, Exception exception) {
+                throw new AssertionError("Failed to read " + path, exception);
+            }
+        };
+    }
+
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
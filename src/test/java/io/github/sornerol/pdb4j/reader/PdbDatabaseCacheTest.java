@@ -0,0 +1,187 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.sornerol.pdb4j.TestDatabases.writeDatabase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdbDatabaseCacheTest {
+    // Holds three one-record databases, but not a twenty-record one.
+    private static final long MAX_RETAINED_BYTES = 900;
+
+    @TempDir
+    Path directory;
+
+    private PdbDatabaseCache<GenericPdbRecord, GenericAppInfo, GenericSortInfo> cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new PdbDatabaseCache<>(MAX_RETAINED_BYTES);
+        cache.setRecordReader(new GenericRecordReader());
+    }
+
+    @Test
+    void returnsTheCachedDatabaseUntilTheFileChanges() throws IOException {
+        Path file = directory.resolve("a.pdb");
+        writeDatabase(file, 1, 100);
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> first = cache.get(file);
+        assertSame(first, cache.get(file));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        writeDatabase(file, 2, 100);
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> second = cache.get(file);
+        assertNotSame(first, second);
+        assertEquals(2, second.getRecords().size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void dropsTheOldVersionWhenAChangedFileIsTooLargeToCache() throws IOException {
+        Path file = directory.resolve("a.pdb");
+        writeDatabase(file, 1, 100);
+        cache.get(file);
+        assertEquals(1, cache.size());
+
+        writeDatabase(file, 20, 100);
+        assertEquals(20, cache.get(file).getRecords().size());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getRetainedBytes());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedDatabase() throws IOException {
+        Path[] files = new Path[4];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = directory.resolve("file" + i + ".pdb");
+            writeDatabase(files[i], 1, 100);
+        }
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> firstDatabase = cache.get(files[0]);
+        cache.get(files[1]);
+        cache.get(files[2]);
+        cache.get(files[0]);
+        cache.get(files[3]);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(firstDatabase, cache.get(files[0]));
+        long misses = cache.getMissCount();
+        cache.get(files[1]);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    void readsAFileOnceForConcurrentMisses() throws Exception {
+        Path file = directory.resolve("a.pdb");
+        writeDatabase(file, 1, 100);
+        AtomicInteger reads = new AtomicInteger();
+        cache.setRecordReader(readerThatWaitsForTwoMisses(reads, null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo>> first =
+                    executor.submit(() -> cache.get(file));
+            Future<PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo>> second =
+                    executor.submit(() -> cache.get(file));
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, reads.get());
+            assertEquals(2, cache.getMissCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void releasesEveryWaitingThreadWhenTheReadThrowsAnError() throws Exception {
+        Path file = directory.resolve("a.pdb");
+        writeDatabase(file, 1, 100);
+        AtomicInteger reads = new AtomicInteger();
+        AssertionError error = new AssertionError("Reader failed.");
+        cache.setRecordReader(readerThatWaitsForTwoMisses(reads, error));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> cache.get(file));
+            Future<?> second = executor.submit(() -> cache.get(file));
+            for (Future<?> future : new Future<?>[]{first, second}) {
+                ExecutionException thrown = assertThrows(ExecutionException.class,
+                        () -> future.get(10, TimeUnit.SECONDS));
+                assertSame(error, thrown.getCause());
+            }
+            assertEquals(1, reads.get());
+            assertEquals(0, cache.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidatesOneOrEveryDatabase() throws IOException {
+        Path first = directory.resolve("a.pdb");
+        Path second = directory.resolve("b.pdb");
+        writeDatabase(first, 1, 100);
+        writeDatabase(second, 1, 100);
+        cache.get(first);
+        cache.get(second);
+
+        cache.invalidate(first);
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getRetainedBytes());
+    }
+
+    /**
+     * Get a record reader that holds up the first read until a second thread has missed on the same file, then
+     * returns the record or throws the error.
+     */
+    private GenericRecordReader readerThatWaitsForTwoMisses(AtomicInteger reads, Error error) {
+        return new GenericRecordReader() {
+            @Override
+            public GenericPdbRecord read(byte attributes, ByteBuffer data) {
+                reads.incrementAndGet();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (cache.getMissCount() < 2 && System.nanoTime() < deadline) {
+                    Thread.yield();
+                }
+                assertTrue(cache.getMissCount() >= 2);
+                // Give the second thread time to find this load and wait on it.
+                sleep(100);
+                if (error != null) {
+                    throw error;
+                }
+                return super.read(attributes, data);
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdbRecordCursorTest {
+    private static final byte[][] RECORDS = {
+            {1, 2},
+            {10, 11, 12, 13, 14},
+            {},
+            {20, 21, 22},
+    };
+
+    private PdbRecordCursor cursor;
+
+    @BeforeEach
+    void createCursor() throws IOException {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Cursor");
+        for (int i = 0; i < RECORDS.length; i++) {
+            GenericPdbRecord record = new GenericPdbRecord((byte) (0x80 | i), RECORDS[i]);
+            record.setUniqueId(500 + i);
+            database.getRecords().add(record);
+        }
+        cursor = new PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo>(database.toByteArray())
+                .recordCursor();
+    }
+
+    @Test
+    void getByteAfterGetDataOnAnEarlierRecord() {
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getData().remaining());
+        assertTrue(cursor.next());
+        assertEquals(10, cursor.getByte(0));
+        assertEquals(14, cursor.getByte(4));
+    }
+
+    @Test
+    void walksEveryRecord() {
+        byte[] copy = new byte[8];
+        for (int i = 0; i < RECORDS.length; i++) {
+            assertTrue(cursor.next());
+            assertEquals(i, cursor.getIndex());
+            assertEquals(i, cursor.getCategoryValue());
+            assertTrue(cursor.isDelete());
+            assertEquals(500 + i, cursor.getUniqueId());
+            assertEquals(RECORDS[i].length, cursor.getLength());
+
+            ByteBuffer data = cursor.getData();
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            assertArrayEquals(RECORDS[i], bytes);
+
+            assertEquals(RECORDS[i].length, cursor.copyData(copy, 1));
+            for (int j = 0; j < RECORDS[i].length; j++) {
+                assertEquals(RECORDS[i][j], copy[j + 1]);
+                assertEquals(RECORDS[i][j], cursor.getByte(j));
+            }
+        }
+        assertFalse(cursor.next());
+        assertThrows(NoSuchElementException.class, cursor::getData);
+    }
+
+    @Test
+    void movesBackToAnEarlierRecord() {
+        cursor.moveTo(3);
+        assertEquals(3, cursor.getData().remaining());
+        cursor.moveTo(1);
+        assertEquals(5, cursor.getData().remaining());
+        cursor.moveTo(3);
+        assertEquals(22, cursor.getByte(2));
+        cursor.reset();
+        assertTrue(cursor.next());
+        assertEquals(2, cursor.getByte(1));
+    }
+
+    @Test
+    void getByteChecksTheRecordBounds() {
+        cursor.moveTo(0);
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getByte(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getByte(-1));
+        cursor.moveTo(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getByte(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.moveTo(4));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.sornerol.pdb4j.reader;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbResource;
+import io.github.sornerol.pdb4j.model.ResourceDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.record.impl.GenericRecordReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static io.github.sornerol.pdb4j.TestDatabases.writeDatabase;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrcReaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatAPrcWriterWrote() {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Round trip");
+        database.setVersion((short) 3);
+        database.setModificationNumber(42);
+        database.setCreationInstant(Instant.parse("2001-02-03T04:05:06Z"));
+        database.setModificationInstant(Instant.parse("2002-03-04T05:06:07Z"));
+        database.setBackupInstant(Instant.parse("2003-04-05T06:07:08Z"));
+        database.setUniqueIdSeed(7);
+        database.setAppInfo(new byte[]{1, 2, 3});
+        database.setSortInfo(new byte[]{4});
+        database.getResources().add(new PdbResource("code", 0, new byte[]{10, 11}));
+        database.getResources().add(new PdbResource("code", 1, new byte[0]));
+        database.getResources().add(new PdbResource("tSTR", 0x8000, new byte[]{12}));
+        byte[] data = database.toByteArray();
+
+        ResourceDatabase read = new PrcReader(data).read();
+        assertEquals("Round trip", read.getName());
+        assertEquals(database.getFileAttributes(), read.getFileAttributes());
+        assertEquals(3, read.getVersion());
+        assertEquals(42, read.getModificationNumber());
+        assertEquals(database.getCreationInstant(), read.getCreationInstant());
+        assertEquals(database.getModificationInstant(), read.getModificationInstant());
+        assertEquals("appl", read.getDatabaseType());
+        assertEquals("TEST", read.getCreatorId());
+        assertEquals(7, read.getUniqueIdSeed());
+        assertArrayEquals(new byte[]{1, 2, 3}, read.getAppInfo());
+        assertArrayEquals(new byte[]{4}, read.getSortInfo());
+        assertEquals(3, read.getResources().size());
+        assertArrayEquals(new byte[]{10, 11}, read.getResource("code", 0).getData());
+        assertArrayEquals(new byte[0], read.getResource("code", 1).getData());
+        assertArrayEquals(new byte[]{12}, read.getResource("tSTR", 0x8000).getData());
+        assertArrayEquals(data, read.toByteArray());
+    }
+
+    @Test
+    void looksUpResourcesByTypeAndId() {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Lookups");
+        database.getResources().add(new PdbResource("tver", 1, new byte[]{1}));
+        database.getResources().add(new PdbResource("tSTR", 0x8000, new byte[]{2}));
+        database.getResources().add(new PdbResource("tSTR", 0xFFFF, new byte[]{3}));
+        database.getResources().add(new PdbResource("tver", 1, new byte[]{4}));
+        PrcReader reader = new PrcReader(database.toByteArray());
+
+        assertTrue(reader.hasResource("tSTR", 0x8000));
+        assertFalse(reader.hasResource("tSTR", 0x7FFF));
+        assertArrayEquals(new byte[]{2}, reader.readResource("tSTR", 0x8000).getData());
+        assertArrayEquals(new byte[]{3}, reader.readResource("tSTR", 0xFFFF).getData());
+        assertEquals(1, reader.getResourceData("tSTR", 0xFFFF).remaining());
+        assertNull(reader.readResource("code", 0));
+        assertNull(reader.getResourceData("code", 0));
+
+        // Duplicates resolve to the first one in the file, but every copy is read by type.
+        assertArrayEquals(new byte[]{1}, reader.readResource("tver", 1).getData());
+        List<PdbResource> versions = reader.readResources("tver");
+        assertEquals(2, versions.size());
+        assertArrayEquals(new byte[]{4}, versions.get(1).getData());
+    }
+
+    @Test
+    void readsResourcesFromAFileWithATableLargerThanTheFirstRead() throws IOException {
+        // 500 entries make a 5000-byte table, larger than the 4096 bytes read first.
+        ResourceDatabase database = TestDatabases.resourceDatabase("Large table");
+        for (int id = 0; id < 500; id++) {
+            database.getResources().add(new PdbResource((id < 250) ? "code" : "data", 0x8000 + id,
+                    new byte[]{(byte) id}));
+        }
+        database.getResources().add(new PdbResource("tver", 1, new byte[]{1}));
+        database.getResources().add(new PdbResource("tver", 1, new byte[]{2}));
+        Path file = directory.resolve("large.prc");
+        database.writeToFile(file.toString());
+
+        assertArrayEquals(new byte[]{(byte) 499}, PrcReader.readResource(file, "data", 0x8000 + 499).getData());
+        assertArrayEquals(new byte[]{0}, PrcReader.readResource(file, "code", 0x8000).getData());
+        assertArrayEquals(new byte[]{1}, PrcReader.readResource(file, "tver", 1).getData());
+        assertNull(PrcReader.readResource(file, "code", 0x8000 + 250));
+        assertEquals(250, PrcReader.readResources(file, "data").size());
+        assertEquals(2, PrcReader.readResources(file, "tver").size());
+    }
+
+    @Test
+    void rejectsARecordDatabase() throws IOException {
+        Path file = directory.resolve("records.pdb");
+        writeDatabase(file, 2, 10);
+        byte[] data = Files.readAllBytes(file);
+
+        assertThrows(PdbFormatException.class, () -> new PrcReader(data).read());
+        assertThrows(PdbFormatException.class, () -> new PrcReader(data).validate());
+        assertThrows(PdbFormatException.class, () -> PrcReader.readResource(file, "code", 0));
+    }
+
+    @Test
+    void cantBeReadAsARecordDatabase() {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Resources");
+        database.getResources().add(new PdbResource("code", 0, new byte[]{1}));
+        PdbReader<GenericPdbRecord, GenericAppInfo, GenericSortInfo> reader =
+                new PdbReader<>(database.toByteArray());
+        reader.setRecordReader(new GenericRecordReader());
+
+        PdbFormatException thrown = assertThrows(PdbFormatException.class, reader::read);
+        assertTrue(thrown.getMessage().contains("PrcReader"));
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.sornerol.pdb4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PalmDateUtilTest {
+    @Test
+    void roundTripsPackedDates() {
+        for (LocalDate date : new LocalDate[]{
+                LocalDate.of(1904, 1, 1), LocalDate.of(2000, 2, 29), LocalDate.of(2024, 12, 31),
+                LocalDate.of(2031, 12, 31)}) {
+            assertEquals(date, PalmDateUtil.localDateFromPackedDate(PalmDateUtil.packedDateFromLocalDate(date)));
+        }
+        assertEquals(0xFFFF, PalmDateUtil.packedDateFromLocalDate(null));
+        assertNull(PalmDateUtil.localDateFromPackedDate(0xFFFF));
+    }
+
+    @Test
+    void invalidPackedDatesDecodeToNull() {
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(100, 0, 1)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(100, 13, 1)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(100, 15, 1)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(100, 1, 0)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(100, 4, 31)));
+        // 1904 + 100 = 2004 is a leap year, 2003 isn't.
+        assertEquals(LocalDate.of(2004, 2, 29), PalmDateUtil.localDateFromPackedDate(packed(100, 2, 29)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(packed(99, 2, 29)));
+        assertNull(PalmDateUtil.localDateFromPackedDate(0));
+    }
+
+    @Test
+    void rejectsYearsThePackedDateCantHold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDateUtil.packedDateFromLocalDate(LocalDate.of(1903, 12, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDateUtil.packedDateFromLocalDate(LocalDate.of(2032, 1, 1)));
+    }
+
+    @Test
+    void defaultZoneOverloadsMatchTheSystemDefaultZone() {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant instant = Instant.parse("2005-06-07T08:09:10Z");
+        for (boolean useUnixEpoch : new boolean[]{false, true}) {
+            int timestamp = PalmDateUtil.pdbTimestampFromInstant(instant, useUnixEpoch);
+            assertEquals(PalmDateUtil.pdbTimestampFromInstant(instant, useUnixEpoch, zone), timestamp);
+            assertEquals(PalmDateUtil.epochMillisFromPdbTime(timestamp, zone),
+                    PalmDateUtil.epochMillisFromPdbTime(timestamp));
+        }
+        assertEquals(instant, PalmDateUtil.instantFromPdbTime(PalmDateUtil.pdbTimestampFromInstant(instant, false)));
+    }
+
+    private static int packed(int yearsSince1904, int month, int day) {
+        return (yearsSince1904 << 9) | (month << 5) | day;
+    }
+}
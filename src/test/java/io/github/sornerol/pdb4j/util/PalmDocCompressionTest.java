@@ -0,0 +1,158 @@
+package io.github.sornerol.pdb4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PalmDocCompressionTest {
+    private static final byte[] ALPHABET = {' ', 'a', 'b', 'c', 'd', 'e', 0x01, (byte) 0xE9};
+
+    @Test
+    void decompressesEachTokenType() {
+        byte[] compressed = {
+                'a', 'b', 'c',
+                (byte) 0x80, 0x18,          // back-reference: distance 3, length 3
+                (byte) 0xC1,                // space + 'A'
+                0x02, (byte) 0x90, 0x01,    // two literal bytes
+                0x00,
+        };
+        byte[] expected = {'a', 'b', 'c', 'a', 'b', 'c', ' ', 'A', (byte) 0x90, 0x01, 0x00};
+        assertArrayEquals(expected, PalmDocCompression.decompress(compressed));
+    }
+
+    @Test
+    void decompressesOverlappingBackReferences() {
+        // 'a' then distance 1, length 10: the reference repeats the byte it is producing.
+        byte[] compressed = {'a', (byte) 0x80, 0x0F};
+        byte[] expected = new byte[11];
+        Arrays.fill(expected, (byte) 'a');
+        assertArrayEquals(expected, PalmDocCompression.decompress(compressed));
+    }
+
+    @Test
+    void roundTripsEmptyInput() {
+        assertEquals(0, PalmDocCompression.compress(new byte[0]).length);
+        assertEquals(0, PalmDocCompression.decompress(new byte[0]).length);
+    }
+
+    @Test
+    void roundTripsText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("The quick brown fox jumps over the lazy dog ").append(i).append(". ");
+        }
+        byte[] source = text.toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] compressed = PalmDocCompression.compress(source);
+        assertTrue(compressed.length < source.length / 2);
+        assertArrayEquals(source, PalmDocCompression.decompress(compressed));
+    }
+
+    @Test
+    void roundTripsBytesThatNeedEscaping() {
+        byte[] source = new byte[1000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) (0x80 + i % 9);
+        }
+        assertArrayEquals(source, PalmDocCompression.decompress(PalmDocCompression.compress(source)));
+
+        byte[] allValues = new byte[256 * 3];
+        for (int i = 0; i < allValues.length; i++) {
+            allValues[i] = (byte) (i / 3);
+        }
+        assertArrayEquals(allValues, PalmDocCompression.decompress(PalmDocCompression.compress(allValues)));
+    }
+
+    @Test
+    void roundTripsRandomData() {
+        Random random = new Random(20240601L);
+        for (int length : new int[]{1, 2, 3, 4, 9, 10, 11, 2047, 2048, 2049, 4096, 10000}) {
+            byte[] noise = new byte[length];
+            random.nextBytes(noise);
+            assertArrayEquals(noise, PalmDocCompression.decompress(PalmDocCompression.compress(noise)),
+                    "noise of length " + length);
+
+            // A small alphabet with spaces produces every token type.
+            byte[] words = new byte[length];
+            for (int i = 0; i < length; i++) {
+                words[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            assertArrayEquals(words, PalmDocCompression.decompress(PalmDocCompression.compress(words)),
+                    "words of length " + length);
+        }
+    }
+
+    @Test
+    void compressesPartOfAnArray() {
+        byte[] source = "xxxhello hello hello helloyyy".getBytes(StandardCharsets.US_ASCII);
+        byte[] compressed = PalmDocCompression.compress(source, 3, source.length - 6);
+        assertArrayEquals(Arrays.copyOfRange(source, 3, source.length - 3), PalmDocCompression.decompress(compressed));
+    }
+
+    @Test
+    void decompressesIntoAnOffsetDestination() {
+        byte[] source = "hello hello hello".getBytes(StandardCharsets.US_ASCII);
+        byte[] compressed = PalmDocCompression.compress(source);
+        byte[] destination = new byte[source.length + 4];
+        int length = PalmDocCompression.decompress(compressed, 0, compressed.length, destination, 4);
+        assertEquals(source.length, length);
+        assertArrayEquals(source, Arrays.copyOfRange(destination, 4, destination.length));
+    }
+
+    @Test
+    void decompressesBuffersWithoutMovingThem() {
+        byte[] source = "buffer buffer buffer".getBytes(StandardCharsets.US_ASCII);
+        byte[] compressed = PalmDocCompression.compress(source);
+
+        byte[] padded = new byte[compressed.length + 2];
+        System.arraycopy(compressed, 0, padded, 2, compressed.length);
+        ByteBuffer heap = ByteBuffer.wrap(padded);
+        ((Buffer) heap).position(2);
+        ByteBuffer slice = heap.slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(compressed.length);
+        direct.put(compressed);
+        ((Buffer) direct).flip();
+
+        for (ByteBuffer buffer : new ByteBuffer[]{slice, slice.asReadOnlyBuffer(), direct}) {
+            byte[] destination = new byte[PalmDocCompression.maxDecompressedLength(compressed.length)];
+            int length = PalmDocCompression.decompress(buffer, destination, 0);
+            assertArrayEquals(source, Arrays.copyOf(destination, length));
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    void rejectsMalformedData() {
+        // Literal run longer than the remaining input.
+        assertThrows(IllegalArgumentException.class, () -> PalmDocCompression.decompress(new byte[]{0x03, 'a'}));
+        // Back-reference missing its second byte.
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDocCompression.decompress(new byte[]{'a', (byte) 0x80}));
+        // Back-reference before the start of the data.
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDocCompression.decompress(new byte[]{'a', (byte) 0x80, 0x10}));
+        // Back-reference with a distance of zero.
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDocCompression.decompress(new byte[]{'a', (byte) 0x80, 0x00}));
+    }
+
+    @Test
+    void rejectsDataThatDoesntFitTheDestination() {
+        byte[] compressed = PalmDocCompression.compress(
+                "too long for the destination".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDocCompression.decompress(compressed, 0, compressed.length, new byte[10], 0));
+        // A back-reference that runs past the end of the destination.
+        byte[] backReference = {'a', (byte) 0x80, 0x0F};
+        assertThrows(IllegalArgumentException.class,
+                () -> PalmDocCompression.decompress(backReference, 0, backReference.length, new byte[5], 0));
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import io.github.sornerol.pdb4j.reader.PdbFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PdbFileEditorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void closesChannelWhenHeaderCantBeRead() throws IOException {
+        Path file = directory.resolve("truncated.pdb");
+        byte[] bytes = database(3).toByteArray();
+        Files.write(file, Arrays.copyOf(bytes, 40));
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        assertThrows(IOException.class, () -> new PdbFileEditor(channel));
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void rejectsMalformedRecordOffsetsBeforeWriting() throws IOException {
+        Path file = directory.resolve("malformed.pdb");
+        byte[] bytes = database(3).toByteArray();
+        // Point the second record past the end of the file.
+        ByteBuffer.wrap(bytes).putInt(RECORD_HEADERS_OFFSET + RECORD_HEADER_SIZE_BYTES, bytes.length + 100);
+        Files.write(file, bytes);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        assertThrows(PdbFormatException.class, () -> new PdbFileEditor(channel));
+        assertFalse(channel.isOpen());
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void rejectsARecordCountLargerThanTheFile() throws IOException {
+        Path file = directory.resolve("count.pdb");
+        byte[] bytes = database(3).toByteArray();
+        ByteBuffer.wrap(bytes).putShort(NUMBER_OF_RECORDS_OFFSET, (short) 1000);
+        Files.write(file, bytes);
+
+        assertThrows(PdbFormatException.class, () -> new PdbFileEditor(file));
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void appendRecordRejectsRecordCountOverflow() throws IOException {
+        Path file = directory.resolve("full.pdb");
+        database(0xFFFF).writeToFile(file.toString());
+        byte[] before = Files.readAllBytes(file);
+
+        try (PdbFileEditor editor = new PdbFileEditor(file)) {
+            assertThrows(IllegalStateException.class, () -> editor.appendRecord((byte) 0, new byte[]{1}));
+            assertEquals(0xFFFF, editor.getNumberOfRecords());
+        }
+        assertArrayEquals(before, Files.readAllBytes(file));
+    }
+
+    @Test
+    void appendRecordMatchesRewrittenDatabase() throws IOException {
+        Path file = directory.resolve("append.pdb");
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = database(10);
+        database.writeToFile(file.toString());
+
+        try (PdbFileEditor editor = new PdbFileEditor(file)) {
+            editor.appendRecord((byte) 3, 0x123456, new byte[]{9, 8, 7});
+        }
+        GenericPdbRecord appended = new GenericPdbRecord((byte) 3, new byte[]{9, 8, 7});
+        appended.setUniqueId(0x123456);
+        database.getRecords().add(appended);
+        assertArrayEquals(database.toByteArray(), Files.readAllBytes(file));
+    }
+
+    private static PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database(int numberOfRecords) {
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> database = TestDatabases.database("Editor");
+        database.setAppInfo(new GenericAppInfo(new byte[]{1, 2}));
+        for (int i = 0; i < numberOfRecords; i++) {
+            database.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{(byte) i}));
+        }
+        return database;
+    }
+}
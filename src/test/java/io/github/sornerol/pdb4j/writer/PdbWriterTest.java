@@ -0,0 +1,128 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.AppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.AbstractPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.SortInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PdbWriterTest {
+    private static final int NUMBER_OF_RECORDS = 100;
+
+    private PdbDatabase<CountingRecord, CountingAppInfo, CountingSortInfo> database;
+
+    @BeforeEach
+    void createDatabase() {
+        database = TestDatabases.database("Counting");
+        database.setAppInfo(new CountingAppInfo());
+        database.setSortInfo(new CountingSortInfo());
+        for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+            database.getRecords().add(new CountingRecord(i));
+        }
+    }
+
+    @Test
+    void toByteArrayEncodesEachComponentOnce() {
+        new PdbWriter(database).toByteArray();
+        assertEncodedOnce();
+    }
+
+    @Test
+    void writeToStreamEncodesEachComponentOnce() throws IOException {
+        new PdbWriter(database).write(new ByteArrayOutputStream());
+        assertEncodedOnce();
+    }
+
+    @Test
+    void writeToChannelEncodesEachComponentOnce() throws IOException {
+        new PdbWriter(database).write(Channels.newChannel(new ByteArrayOutputStream()));
+        assertEncodedOnce();
+    }
+
+    @Test
+    void allWriteMethodsProduceTheSameBytes() throws IOException {
+        byte[] expected = new PdbWriter(database).toByteArray();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new PdbWriter(database).write(stream);
+        assertArrayEquals(expected, stream.toByteArray());
+
+        Path file = Files.createTempFile("pdb4j", ".pdb");
+        try {
+            new PdbWriter(database).write(file);
+            assertArrayEquals(expected, Files.readAllBytes(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rejectsMoreRecordsThanTheCountFieldHolds() {
+        for (int i = NUMBER_OF_RECORDS; i < 0x10000; i++) {
+            database.getRecords().add(new CountingRecord(i));
+        }
+        assertThrows(IllegalStateException.class, () -> new PdbWriter(database).toByteArray());
+        assertThrows(IllegalStateException.class, () -> new PdbWriter(database).write(new ByteArrayOutputStream()));
+        assertEquals(0, database.getRecords().get(0).encodeCount);
+    }
+
+    private void assertEncodedOnce() {
+        for (CountingRecord record : database.getRecords()) {
+            assertEquals(1, record.encodeCount, "record " + record.value);
+        }
+        assertEquals(1, database.getAppInfo().encodeCount, "app info");
+        assertEquals(1, database.getSortInfo().encodeCount, "sort info");
+    }
+
+    /**
+     * A record that doesn't override serializedSize(), so measuring it means encoding it.
+     */
+    private static class CountingRecord extends AbstractPdbRecord {
+        private final int value;
+        private int encodeCount;
+
+        CountingRecord(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public byte[] toBytes() {
+            encodeCount++;
+            byte[] data = new byte[value % 7 + 1];
+            data[0] = (byte) value;
+            return data;
+        }
+    }
+
+    private static class CountingAppInfo implements AppInfo {
+        private int encodeCount;
+
+        @Override
+        public byte[] toBytes() {
+            encodeCount++;
+            return new byte[]{1, 2, 3};
+        }
+    }
+
+    private static class CountingSortInfo implements SortInfo {
+        private int encodeCount;
+
+        @Override
+        public byte[] toBytes() {
+            encodeCount++;
+            return new byte[]{4, 5};
+        }
+    }
+}
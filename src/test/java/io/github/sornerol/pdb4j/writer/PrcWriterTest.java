@@ -0,0 +1,103 @@
+package io.github.sornerol.pdb4j.writer;
+
+import io.github.sornerol.pdb4j.TestDatabases;
+import io.github.sornerol.pdb4j.model.PdbDatabase;
+import io.github.sornerol.pdb4j.model.PdbResource;
+import io.github.sornerol.pdb4j.model.ResourceDatabase;
+import io.github.sornerol.pdb4j.model.appinfo.impl.GenericAppInfo;
+import io.github.sornerol.pdb4j.model.record.impl.GenericPdbRecord;
+import io.github.sornerol.pdb4j.model.sortinfo.impl.GenericSortInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.sornerol.pdb4j.util.PdbDatabaseConstants.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrcWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesTheSameHeaderAsAPdbWriterWithTheResourceBitSet() {
+        ResourceDatabase resourceDatabase = TestDatabases.resourceDatabase("Header");
+        resourceDatabase.setFileAttributes((short) 0x0008);
+        resourceDatabase.getResources().add(new PdbResource("code", 0, new byte[]{1, 2, 3}));
+        PdbDatabase<GenericPdbRecord, GenericAppInfo, GenericSortInfo> recordDatabase =
+                TestDatabases.database("Header");
+        recordDatabase.setDatabaseType("appl");
+        recordDatabase.setFileAttributes((short) (0x0008 | RESOURCE_DATABASE_ATTRIBUTE));
+        recordDatabase.getRecords().add(new GenericPdbRecord((byte) 0, new byte[]{1, 2, 3}));
+
+        byte[] resourceHeader = Arrays.copyOf(new PrcWriter(resourceDatabase).toByteArray(), FILE_HEADER_LENGTH_BYTES);
+        byte[] recordHeader = Arrays.copyOf(new PdbWriter(recordDatabase).toByteArray(), FILE_HEADER_LENGTH_BYTES);
+        assertArrayEquals(recordHeader, resourceHeader);
+        assertEquals(0x0008 | RESOURCE_DATABASE_ATTRIBUTE,
+                ByteBuffer.wrap(resourceHeader).getShort(FILE_ATTRIBUTES_OFFSET));
+    }
+
+    @Test
+    void writesResourceHeadersAndDataInOrder() {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Layout");
+        database.setAppInfo(new byte[]{9, 9});
+        database.getResources().add(new PdbResource("code", 1, new byte[]{1, 2}));
+        database.getResources().add(new PdbResource("tSTR", 0x8000, new byte[]{3}));
+
+        ByteBuffer file = ByteBuffer.wrap(new PrcWriter(database).toByteArray());
+        int tableEnd = RECORD_HEADERS_OFFSET + 2 * RESOURCE_HEADER_SIZE_BYTES;
+        assertEquals(tableEnd + 2 + 2 + 1, file.limit());
+        assertEquals(2, file.getShort(NUMBER_OF_RECORDS_OFFSET));
+        assertEquals(tableEnd, file.getInt(APP_INFO_OFFSET));
+
+        assertEquals(PdbResource.typeCode("code"), file.getInt(RECORD_HEADERS_OFFSET));
+        assertEquals(1, file.getShort(RECORD_HEADERS_OFFSET + 4));
+        assertEquals(tableEnd + 2, file.getInt(RECORD_HEADERS_OFFSET + 6));
+        int second = RECORD_HEADERS_OFFSET + RESOURCE_HEADER_SIZE_BYTES;
+        assertEquals(PdbResource.typeCode("tSTR"), file.getInt(second));
+        assertEquals(0x8000, file.getShort(second + 4) & 0xFFFF);
+        assertEquals(tableEnd + 4, file.getInt(second + 6));
+        assertEquals(3, file.get(tableEnd + 4));
+    }
+
+    @Test
+    void allWriteMethodsProduceTheSameBytes() throws IOException {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Methods");
+        database.setSortInfo(new byte[]{7});
+        database.getResources().add(new PdbResource("code", 0, new byte[]{1, 2, 3}));
+        database.getResources().add(new PdbResource("data", 0, null));
+        byte[] expected = new PrcWriter(database).toByteArray();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new PrcWriter(database).write(stream);
+        assertArrayEquals(expected, stream.toByteArray());
+
+        Path file = directory.resolve("methods.prc");
+        new PrcWriter(database).write(file);
+        assertArrayEquals(expected, Files.readAllBytes(file));
+    }
+
+    @Test
+    void rejectsMoreResourcesThanTheCountFieldHolds() {
+        ResourceDatabase database = TestDatabases.resourceDatabase("Too many");
+        List<PdbResource> resources = new ArrayList<>(Collections.nCopies(MAX_RECORDS + 1,
+                new PdbResource("code", 0, null)));
+        database.setResources(resources);
+        assertThrows(IllegalStateException.class, () -> new PrcWriter(database).toByteArray());
+        assertThrows(IllegalStateException.class, () -> new PrcWriter(database).write(new ByteArrayOutputStream()));
+
+        resources.remove(0);
+        assertEquals(MAX_RECORDS, ByteBuffer.wrap(new PrcWriter(database).toByteArray())
+                .getShort(NUMBER_OF_RECORDS_OFFSET) & 0xFFFF);
+    }
+}